@@ -27,17 +27,16 @@ import pl.betoncraft.betonquest.item.QuestItemHandler;
 import pl.betoncraft.betonquest.notify.*;
 import pl.betoncraft.betonquest.objectives.*;
 import pl.betoncraft.betonquest.utils.*;
+import pl.betoncraft.betonquest.utils.location.EntityQuery;
+import pl.betoncraft.betonquest.utils.location.ZoneIndex;
 import pl.betoncraft.betonquest.variables.*;
 
 import java.lang.reflect.InvocationTargetException;
 import java.sql.Connection;
 import java.util.*;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Stream;
 
 /**
  * Represents BetonQuest plugin
@@ -45,6 +44,10 @@ import java.util.stream.Stream;
 public class BetonQuest extends JavaPlugin {
 
     private static BetonQuest instance;
+    /**
+     * Maximal time in milliseconds to wait for the database saver when disabling
+     */
+    private static final long SAVER_TIMEOUT = 30_000;
     private static final Map<String, Class<? extends Condition>> CONDITION_TYPES = new HashMap<>();
     private static final Map<String, Class<? extends QuestEvent>> EVENT_TYPES = new HashMap<>();
     private static final Map<String, Class<? extends Objective>> OBJECTIVE_TYPES = new HashMap<>();
@@ -56,10 +59,17 @@ public class BetonQuest extends JavaPlugin {
     private static final Map<EventID, QuestEvent> EVENTS = new HashMap<>();
     private static final Map<ObjectiveID, Objective> OBJECTIVES = new HashMap<>();
     private static final Map<String, ConversationData> CONVERSATIONS = new HashMap<>();
-    private static final Map<VariableID, Variable> VARIABLES = new HashMap<>();
+    private static final Map<VariableID, Variable> VARIABLES = new ConcurrentHashMap<>();
     private Database database;
     private boolean isMySQLUsed;
     private Saver saver;
+    private ZoneIndex zoneIndex;
+    private ObjectiveEventBus objectiveEventBus;
+    private TimerQueue timerQueue;
+    private ConversationSessions conversationSessions;
+    private ConditionCache conditionCache;
+    private ConditionEngine conditionEngine;
+    private EntityQuery entityQuery;
     private Updater updater;
     private final ConcurrentHashMap<String, PlayerData> playerDataMap = new ConcurrentHashMap<>();
     private GlobalData globalData;
@@ -79,16 +89,19 @@ public class BetonQuest extends JavaPlugin {
     }
 
     public static boolean conditions(final String playerID, final ConditionID[] conditionIDs) {
-        return conditions(playerID, Arrays.stream(conditionIDs));
+        return conditions(playerID, Arrays.asList(conditionIDs));
     }
 
     public static boolean conditions(final String playerID, final Collection<ConditionID> conditionIDs) {
-        return conditions(playerID, conditionIDs.stream());
+        return instance.conditionEngine.check(playerID, conditionIDs);
     }
 
-    private static boolean conditions(final String playerID, final Stream<ConditionID> stream) {
-        final Stream<ConditionID> conditions = Bukkit.isPrimaryThread() ? stream : stream.parallel();
-        return conditions.allMatch(con -> condition(playerID, con));
+    /**
+     * @param conditionID ID of the condition
+     * @return the loaded condition or null if it does not exist
+     */
+    /* default */ static Condition getCondition(final ConditionID conditionID) {
+        return CONDITIONS.get(conditionID);
     }
 
     /**
@@ -105,13 +118,7 @@ public class BetonQuest extends JavaPlugin {
             return false;
         }
         // get the condition
-        Condition condition = null;
-        for (final Entry<ConditionID, Condition> e : CONDITIONS.entrySet()) {
-            if (e.getKey().equals(conditionID)) {
-                condition = e.getValue();
-                break;
-            }
-        }
+        final Condition condition = CONDITIONS.get(conditionID);
         if (condition == null) {
             LogUtils.getLogger().log(Level.WARNING, "The condition " + conditionID + " is not defined!");
             return false;
@@ -129,7 +136,7 @@ public class BetonQuest extends JavaPlugin {
         // and check if it's met or not
         boolean outcome = false;
         try {
-            outcome = condition.handle(playerID);
+            outcome = instance.conditionCache.handle(playerID, condition);
         } catch (final QuestRuntimeException e) {
             LogUtils.getLogger().log(Level.WARNING,
                     "Error while checking '" + conditionID + "' condition: " + e.getMessage());
@@ -156,13 +163,7 @@ public class BetonQuest extends JavaPlugin {
             return;
         }
         // get the event
-        QuestEvent event = null;
-        for (final Entry<EventID, QuestEvent> e : EVENTS.entrySet()) {
-            if (e.getKey().equals(eventID)) {
-                event = e.getValue();
-                break;
-            }
-        }
+        final QuestEvent event = EVENTS.get(eventID);
         if (event == null) {
             LogUtils.getLogger().log(Level.WARNING, "Event " + eventID + " is not defined");
             return;
@@ -194,12 +195,10 @@ public class BetonQuest extends JavaPlugin {
             LogUtils.getLogger().log(Level.FINE, "Null arguments for the objective!");
             return;
         }
-        Objective objective = null;
-        for (final Entry<ObjectiveID, Objective> e : OBJECTIVES.entrySet()) {
-            if (e.getKey().equals(objectiveID)) {
-                objective = e.getValue();
-                break;
-            }
+        final Objective objective = OBJECTIVES.get(objectiveID);
+        if (objective == null) {
+            LogUtils.getLogger().log(Level.WARNING, "Objective " + objectiveID + " does not exist");
+            return;
         }
         if (objective.containsPlayer(playerID)) {
             LogUtils.getLogger().log(Level.FINE,
@@ -223,13 +222,7 @@ public class BetonQuest extends JavaPlugin {
             LogUtils.getLogger().log(Level.FINE, "Null arguments for the objective!");
             return;
         }
-        Objective objective = null;
-        for (final Entry<ObjectiveID, Objective> e : OBJECTIVES.entrySet()) {
-            if (e.getKey().equals(objectiveID)) {
-                objective = e.getValue();
-                break;
-            }
-        }
+        final Objective objective = OBJECTIVES.get(objectiveID);
         if (objective == null) {
             LogUtils.getLogger().log(Level.WARNING, "Objective " + objectiveID + " does not exist");
             return;
@@ -260,10 +253,9 @@ public class BetonQuest extends JavaPlugin {
             throw new InstructionParseException("Could not load variable: " + e.getMessage(), e);
         }
         // no need to create duplicated variables
-        for (final Entry<VariableID, Variable> e : VARIABLES.entrySet()) {
-            if (e.getKey().equals(variableID)) {
-                return e.getValue();
-            }
+        final Variable existing = VARIABLES.get(variableID);
+        if (existing != null) {
+            return existing;
         }
         final String[] parts = instruction.replace("%", "").split("\\.");
         if (parts.length < 1) {
@@ -302,15 +294,12 @@ public class BetonQuest extends JavaPlugin {
      * @return the list of unique variable instructions
      */
     public static List<String> resolveVariables(final String text) {
-        final List<String> variables = new ArrayList<>();
-        final Matcher matcher = Pattern.compile("%[^ %\\s]+%").matcher(text);
+        final Set<String> variables = new LinkedHashSet<>();
+        final Matcher matcher = VariableString.VARIABLE_PATTERN.matcher(text);
         while (matcher.find()) {
-            final String variable = matcher.group();
-            if (!variables.contains(variable)) {
-                variables.add(variable);
-            }
+            variables.add(matcher.group());
         }
-        return variables;
+        return new ArrayList<>(variables);
     }
 
     /**
@@ -395,6 +384,27 @@ public class BetonQuest extends JavaPlugin {
         // start custom drop listener
         new CustomDropListener();
 
+        // start the index of location zones
+        zoneIndex = new ZoneIndex();
+
+        // start the event bus of objectives
+        objectiveEventBus = new ObjectiveEventBus();
+
+        // start the queue of delayed quest work
+        timerQueue = new TimerQueue();
+
+        // start routing events to conversations
+        conversationSessions = new ConversationSessions();
+
+        // start remembering outcomes of conditions
+        conditionCache = new ConditionCache();
+
+        // start checking conditions off the main thread
+        conditionEngine = new ConditionEngine();
+
+        // start remembering entities found around locations in a tick
+        entityQuery = new EntityQuery();
+
         // register commands
         new QuestCommand();
         new JournalCommand();
@@ -576,6 +586,8 @@ public class BetonQuest extends JavaPlugin {
                 loadData();
                 // Load global tags and points
                 globalData = new GlobalData();
+                // schedule folder events which were waiting during the restart
+                FolderEvent.loadPending();
                 // load data for all online players
                 for (final Player player : Bukkit.getOnlinePlayers()) {
                     final String playerID = PlayerConverter.getID(player);
@@ -821,6 +833,7 @@ public class BetonQuest extends JavaPlugin {
         LogUtils.getLogger().log(Level.FINE, "Reloading configuration");
         new Config();
         Notify.load();
+        Journal.invalidateAll();
         // reload updater settings
         BetonQuest.getInstance().getUpdater().reload();
         // load new static events
@@ -831,6 +844,8 @@ public class BetonQuest extends JavaPlugin {
         new GlobalObjectives();
         new ConversationColors();
         Compatibility.reload();
+        conditionCache.reload();
+        conditionEngine.reload();
         // load all events, conditions, objectives, conversations etc.
         loadData();
         // start objectives and update journals for every online player
@@ -854,10 +869,19 @@ public class BetonQuest extends JavaPlugin {
             }
             player.closeInventory();
         }
-        // cancel database saver
-        saver.end();
+        // save waiting folder events and stop the queue of delayed work
+        FolderEvent.savePending();
+        timerQueue.close();
+        conditionCache.close();
+        conditionEngine.close();
+        entityQuery.close();
+        // stop database saver and let it save the remaining data before its connection is closed
+        if (!saver.end(SAVER_TIMEOUT)) {
+            LogUtils.getLogger().log(Level.WARNING, "Database saver did not finish in time, "
+                    + saver.getQueueSize() + " records were not saved");
+        }
         Compatibility.disable();
-        database.closeConnection();
+        database.closeAllConnections();
         // cancel static events (they are registered outside of Bukkit so it
         // won't happen automatically)
         StaticEvents.stop();
@@ -1041,12 +1065,56 @@ public class BetonQuest extends JavaPlugin {
      * @return Objective object or null if it does not exist
      */
     public Objective getObjective(final ObjectiveID objectiveID) {
-        for (final Entry<ObjectiveID, Objective> e : OBJECTIVES.entrySet()) {
-            if (e.getKey().equals(objectiveID)) {
-                return e.getValue();
-            }
-        }
-        return null;
+        return OBJECTIVES.get(objectiveID);
+    }
+
+    /**
+     * @return the index of zones around fixed locations
+     */
+    public ZoneIndex getZoneIndex() {
+        return zoneIndex;
+    }
+
+    /**
+     * @return the bus delivering events to objectives
+     */
+    public ObjectiveEventBus getObjectiveEventBus() {
+        return objectiveEventBus;
+    }
+
+    /**
+     * @return the queue running delayed quest work
+     */
+    public TimerQueue getTimerQueue() {
+        return timerQueue;
+    }
+
+    /**
+     * @return the cache of condition outcomes
+     */
+    public ConditionCache getConditionCache() {
+        return conditionCache;
+    }
+
+    /**
+     * @return the engine checking lists of conditions
+     */
+    public ConditionEngine getConditionEngine() {
+        return conditionEngine;
+    }
+
+    /**
+     * @return the helper finding entities around locations
+     */
+    public EntityQuery getEntityQuery() {
+        return entityQuery;
+    }
+
+    /**
+     * @return the manager routing events to active conversations
+     */
+    public ConversationSessions getConversationSessions() {
+        return conversationSessions;
     }
 
     /**
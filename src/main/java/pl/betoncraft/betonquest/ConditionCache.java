@@ -0,0 +1,164 @@
+package pl.betoncraft.betonquest;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
+import pl.betoncraft.betonquest.api.Condition;
+import pl.betoncraft.betonquest.database.PlayerData;
+import pl.betoncraft.betonquest.exceptions.QuestRuntimeException;
+import pl.betoncraft.betonquest.utils.PlayerConverter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the outcomes of conditions for every player for a few ticks.
+ * The same condition is often checked for the same player many times in a
+ * tick, by objectives, holograms, hidden NPCs, particles, the journal and
+ * conversations. An outcome is reused only in the configured amount of ticks
+ * and only if the player's tags, points, objectives and backpack did not
+ * change since it was computed. Volatile conditions are never remembered.
+ * The cache is disabled unless the amount of ticks is set in the config.
+ */
+public class ConditionCache implements Listener {
+
+    private final Map<String, Map<Condition, Outcome>> outcomes = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final BukkitTask task;
+    private volatile long currentTick;
+    private int ticks;
+
+    /**
+     * Creates new cache with the settings from the config, registers its
+     * listener and starts counting ticks.
+     */
+    public ConditionCache() {
+        reload();
+        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
+        task = Bukkit.getScheduler().runTaskTimer(BetonQuest.getInstance(), () -> currentTick++, 1, 1);
+    }
+
+    /**
+     * Reads the settings from the config and forgets all outcomes. It must be
+     * called when the conditions are reloaded.
+     */
+    public final void reload() {
+        ticks = Math.max(0, BetonQuest.getInstance().getConfig().getInt("condition_cache.ticks", 0));
+        outcomes.clear();
+    }
+
+    /**
+     * Checks the condition for the player, or returns the outcome of a
+     * recent check if it is still valid.
+     *
+     * @param playerID  ID of the player, can be null for static conditions
+     * @param condition the condition
+     * @return the outcome of the condition, not inverted
+     * @throws QuestRuntimeException when the condition fails, failures are not remembered
+     */
+    public boolean handle(final String playerID, final Condition condition) throws QuestRuntimeException {
+        if (ticks <= 0 || playerID == null || condition.isVolatile()) {
+            return evaluate(playerID, condition);
+        }
+        final PlayerData playerData = BetonQuest.getInstance().getPlayerData(playerID);
+        if (playerData == null) {
+            return evaluate(playerID, condition);
+        }
+        final Map<Condition, Outcome> playerOutcomes = outcomes.computeIfAbsent(playerID,
+                key -> new ConcurrentHashMap<>());
+        final long tick = currentTick;
+        final long version = playerData.getDataVersion();
+        final Outcome cached = playerOutcomes.get(condition);
+        if (cached != null && cached.version == version && tick - cached.tick < ticks) {
+            hits.increment();
+            return cached.met;
+        }
+        misses.increment();
+        final boolean met = evaluate(playerID, condition);
+        playerOutcomes.put(condition, new Outcome(met, tick, version));
+        return met;
+    }
+
+    /**
+     * Checks the condition and records the time of the check. Reused
+     * outcomes are not recorded, so they don't make conditions look cheaper.
+     */
+    private boolean evaluate(final String playerID, final Condition condition) throws QuestRuntimeException {
+        final long start = System.nanoTime();
+        final boolean met = condition.handle(playerID);
+        final ConditionEngine engine = BetonQuest.getInstance().getConditionEngine();
+        if (engine != null) {
+            engine.record(condition, met, System.nanoTime() - start);
+        }
+        return met;
+    }
+
+    /**
+     * Forgets the outcomes of the player's conditions, for example after
+     * changing something the conditions depend on outside of the player's
+     * data.
+     *
+     * @param playerID ID of the player
+     */
+    public void invalidate(final String playerID) {
+        outcomes.remove(playerID);
+    }
+
+    /**
+     * @return the amount of outcomes which were reused
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the amount of conditions which had to be checked
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the amount of ticks an outcome is remembered, 0 if the cache is disabled
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Stops the task and the listener and forgets all outcomes.
+     */
+    public void close() {
+        task.cancel();
+        HandlerList.unregisterAll(this);
+        outcomes.clear();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(final PlayerQuitEvent event) {
+        outcomes.remove(PlayerConverter.getID(event.getPlayer()));
+    }
+
+    /**
+     * The outcome of a condition with the tick and the version of the
+     * player's data it was computed at
+     */
+    private static class Outcome {
+
+        private final boolean met;
+        private final long tick;
+        private final long version;
+
+        /* default */ Outcome(final boolean met, final long tick, final long version) {
+            this.met = met;
+            this.tick = tick;
+            this.version = version;
+        }
+    }
+}
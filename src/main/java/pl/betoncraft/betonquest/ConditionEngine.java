@@ -0,0 +1,340 @@
+package pl.betoncraft.betonquest;
+
+import org.bukkit.Bukkit;
+import pl.betoncraft.betonquest.api.Condition;
+import pl.betoncraft.betonquest.id.ConditionID;
+import pl.betoncraft.betonquest.utils.LatencyHistogram;
+import pl.betoncraft.betonquest.utils.LogUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Checks lists of conditions. On the main thread the conditions are simply
+ * checked one after another. On other threads the conditions which can run
+ * on any thread are checked in parallel on a small pool of threads, and all
+ * conditions which must run on the main thread are checked together in a
+ * single main thread task, instead of blocking a thread for every one of them.
+ * Whether a condition must run on the main thread is decided when it is
+ * loaded, by the constructor it uses.
+ * <p>
+ * The conditions of a list are checked from the one which is most likely to
+ * end the check soon: the cheapest one which is most often not met. Until
+ * enough checks of a condition are measured, its cost hint is used instead.
+ * The order never changes the result, as all conditions must be met.
+ */
+public class ConditionEngine {
+
+    private static final int QUEUE_SIZE = 1024;
+    private static final int MIN_SAMPLES = 20;
+    private static final double MIN_FAIL_RATE = 0.01;
+    private static final double UNKNOWN_FAIL_RATE = 0.5;
+    private static final ThreadLocal<Boolean> WORKER = ThreadLocal.withInitial(() -> false);
+
+    private final ThreadPoolExecutor executor;
+    private final LatencyHistogram hopWaits = new LatencyHistogram("Main thread waits of conditions");
+    private final AtomicInteger blocked = new AtomicInteger();
+    private final AtomicInteger threadNumber = new AtomicInteger();
+    private final LongAdder hops = new LongAdder();
+    private final LongAdder syncChecks = new LongAdder();
+    private final Map<Condition, Stats> stats = new ConcurrentHashMap<>();
+    private final Map<Class<?>, LatencyHistogram> typeTimes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates new engine with the amount of threads from the config.
+     */
+    public ConditionEngine() {
+        final int threads = Math.max(1, BetonQuest.getInstance().getConfig().getInt("condition_engine.threads", 2));
+        // when the queue is full or the engine is closed the caller checks the condition itself
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_SIZE), this::newThread, (task, pool) -> task.run());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    private Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(() -> {
+            WORKER.set(true);
+            runnable.run();
+        }, "BetonQuest-Conditions-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Checks if the player meets all conditions.
+     *
+     * @param playerID     ID of the player, can be null for static conditions
+     * @param conditionIDs the conditions
+     * @return true if all conditions are met
+     */
+    public boolean check(final String playerID, final Collection<ConditionID> conditionIDs) {
+        if (conditionIDs.isEmpty()) {
+            return true;
+        }
+        return check(playerID, Collections.singletonList(conditionIDs))[0];
+    }
+
+    /**
+     * Checks many groups of conditions at once, for example the conditions
+     * of all options in a conversation. The conditions of all groups which
+     * must run on the main thread are checked in a single main thread task.
+     *
+     * @param playerID ID of the player, can be null for static conditions
+     * @param groups   groups of conditions
+     * @return for every group, true if all its conditions are met
+     */
+    public boolean[] check(final String playerID, final List<? extends Collection<ConditionID>> groups) {
+        final boolean[] met = new boolean[groups.size()];
+        if (Bukkit.isPrimaryThread()) {
+            for (int group = 0; group < met.length; group++) {
+                met[group] = order(groups.get(group)).stream().allMatch(con -> BetonQuest.condition(playerID, con));
+            }
+            return met;
+        }
+        final AtomicIntegerArray failed = new AtomicIntegerArray(met.length);
+        final List<Check> syncList = new ArrayList<>();
+        final List<Check> asyncChecks = new ArrayList<>();
+        for (int group = 0; group < met.length; group++) {
+            for (final ConditionID conditionID : order(groups.get(group))) {
+                final Condition condition = BetonQuest.getCondition(conditionID);
+                if (condition != null && condition.isForceSync()) {
+                    syncList.add(new Check(group, conditionID));
+                } else {
+                    asyncChecks.add(new Check(group, conditionID));
+                }
+            }
+        }
+        if (WORKER.get() || asyncChecks.size() < 2) {
+            // nested checks run on the same worker, so they never wait for the pool they run on
+            for (final Check check : asyncChecks) {
+                check.run(playerID, failed);
+            }
+            checkOnMainThread(playerID, syncList, failed);
+        } else {
+            final List<Future<?>> futures = new ArrayList<>(asyncChecks.size());
+            for (final Check check : asyncChecks) {
+                futures.add(executor.submit(() -> check.run(playerID, failed)));
+            }
+            checkOnMainThread(playerID, syncList, failed);
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failed.set(asyncChecks.get(i).group, 1);
+                } catch (final ExecutionException e) {
+                    LogUtils.logThrowableReport(e);
+                    failed.set(asyncChecks.get(i).group, 1);
+                }
+            }
+        }
+        for (int group = 0; group < met.length; group++) {
+            met[group] = failed.get(group) == 0;
+        }
+        return met;
+    }
+
+    private void checkOnMainThread(final String playerID, final List<Check> checks, final AtomicIntegerArray failed) {
+        if (checks.isEmpty()) {
+            return;
+        }
+        final long start = System.nanoTime();
+        blocked.incrementAndGet();
+        try {
+            Bukkit.getScheduler().callSyncMethod(BetonQuest.getInstance(), () -> {
+                for (final Check check : checks) {
+                    check.run(playerID, failed);
+                }
+                return null;
+            }).get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            markFailed(checks, failed);
+        } catch (final ExecutionException e) {
+            LogUtils.getLogger().log(Level.WARNING, "Could not check conditions on the main thread: " + e.getMessage());
+            LogUtils.logThrowableReport(e);
+            markFailed(checks, failed);
+        } finally {
+            blocked.decrementAndGet();
+            hopWaits.record(System.nanoTime() - start);
+            hops.increment();
+            syncChecks.add(checks.size());
+        }
+    }
+
+    /**
+     * Records a check of a condition which really ran; outcomes reused by
+     * the condition cache must not be recorded.
+     *
+     * @param condition the condition
+     * @param met       the outcome of the condition, not inverted
+     * @param nanos     the time of the check
+     */
+    public void record(final Condition condition, final boolean met, final long nanos) {
+        final Stats stat = stats.computeIfAbsent(condition, key -> new Stats());
+        stat.checks.increment();
+        stat.nanos.add(nanos);
+        if (met) {
+            stat.met.increment();
+        }
+        typeTimes.computeIfAbsent(condition.getClass(), type -> new LatencyHistogram(type.getSimpleName()))
+                .record(nanos);
+    }
+
+    /**
+     * Forgets the measurements of single conditions. It must be called when
+     * the conditions are reloaded. The times of condition types are kept.
+     */
+    public void reload() {
+        stats.clear();
+    }
+
+    private Collection<ConditionID> order(final Collection<ConditionID> conditionIDs) {
+        if (conditionIDs.size() < 2) {
+            return conditionIDs;
+        }
+        final ConditionID[] ordered = conditionIDs.toArray(new ConditionID[0]);
+        final double[] scores = new double[ordered.length];
+        for (int i = 0; i < ordered.length; i++) {
+            scores[i] = score(ordered[i]);
+        }
+        // the lists are short, so insertion sort is enough
+        for (int i = 1; i < ordered.length; i++) {
+            final ConditionID conditionID = ordered[i];
+            final double score = scores[i];
+            int index = i - 1;
+            while (index >= 0 && scores[index] > score) {
+                ordered[index + 1] = ordered[index];
+                scores[index + 1] = scores[index];
+                index--;
+            }
+            ordered[index + 1] = conditionID;
+            scores[index + 1] = score;
+        }
+        return Arrays.asList(ordered);
+    }
+
+    /**
+     * Expected time spent on the condition for every time it ends the
+     * check of a list; lower is better.
+     */
+    private double score(final ConditionID conditionID) {
+        final Condition condition = BetonQuest.getCondition(conditionID);
+        if (condition == null) {
+            // a missing condition is never met
+            return 0;
+        }
+        final Stats stat = stats.get(condition);
+        final long checks = stat == null ? 0 : stat.checks.sum();
+        if (checks < MIN_SAMPLES) {
+            return condition.getCost() * 1000.0 / UNKNOWN_FAIL_RATE;
+        }
+        final double metRate = stat.met.sum() / (double) checks;
+        final double failRate = conditionID.inverted() ? metRate : 1 - metRate;
+        return stat.nanos.sum() / (double) checks / Math.max(failRate, MIN_FAIL_RATE);
+    }
+
+    private void markFailed(final List<Check> checks, final AtomicIntegerArray failed) {
+        for (final Check check : checks) {
+            failed.set(check.group, 1);
+        }
+    }
+
+    /**
+     * @return the times threads waited for conditions on the main thread
+     */
+    public LatencyHistogram getHopWaits() {
+        return hopWaits;
+    }
+
+    /**
+     * @return the times of checks of every condition type which was checked
+     */
+    public Collection<LatencyHistogram> getTypeTimes() {
+        return typeTimes.values();
+    }
+
+    /**
+     * @return the amount of threads waiting for the main thread right now
+     */
+    public int getBlocked() {
+        return blocked.get();
+    }
+
+    /**
+     * @return the amount of main thread tasks checking conditions
+     */
+    public long getHops() {
+        return hops.sum();
+    }
+
+    /**
+     * @return the amount of conditions checked in main thread tasks
+     */
+    public long getSyncChecks() {
+        return syncChecks.sum();
+    }
+
+    /**
+     * @return the amount of threads checking conditions right now
+     */
+    public int getActive() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Stops the threads of the engine.
+     */
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Measured checks of a single condition
+     */
+    private static class Stats {
+
+        private final LongAdder checks = new LongAdder();
+        private final LongAdder met = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        /* default */ Stats() {
+            // filled by record()
+        }
+    }
+
+    /**
+     * A single condition of a group
+     */
+    private static class Check {
+
+        private final int group;
+        private final ConditionID conditionID;
+
+        /* default */ Check(final int group, final ConditionID conditionID) {
+            this.group = group;
+            this.conditionID = conditionID;
+        }
+
+        private void run(final String playerID, final AtomicIntegerArray failed) {
+            // skip the rest of a group as soon as one of its conditions is not met
+            if (failed.get(group) == 0 && !BetonQuest.condition(playerID, conditionID)) {
+                failed.set(group, 1);
+            }
+        }
+    }
+}
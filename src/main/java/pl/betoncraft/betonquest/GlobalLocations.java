@@ -16,6 +16,7 @@ import pl.betoncraft.betonquest.id.ObjectiveID;
 import pl.betoncraft.betonquest.utils.LogUtils;
 import pl.betoncraft.betonquest.utils.PlayerConverter;
 import pl.betoncraft.betonquest.utils.location.CompoundLocation;
+import pl.betoncraft.betonquest.utils.location.ZoneIndex;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -36,6 +37,7 @@ public class GlobalLocations extends BukkitRunnable {
     private static GlobalLocations instance;
     private final List<GlobalLocation> finalLocations;
     private final List<GlobalLocation> locations = new ArrayList<>();
+    private final List<ZoneIndex.Zone> zones = new ArrayList<>();
 
     /**
      * Creates new instance of global locations handler.
@@ -58,8 +60,15 @@ public class GlobalLocations extends BukkitRunnable {
                 try {
                     final ObjectiveID objectiveID = new ObjectiveID(pack, objective);
                     final GlobalLocation location = new GlobalLocation(objectiveID);
-                    locations.add(location);
-                } catch (ObjectNotFoundException | InstructionParseException e) {
+                    // fixed locations are checked when players move, the
+                    // ones with variables are checked every second
+                    if (location.getLocation().isStatic() && location.getRange().isStatic()) {
+                        zones.add(BetonQuest.getInstance().getZoneIndex().add(location.getLocation().getLocation(null),
+                                location.getRange().getDouble(null), player -> trigger(player, location)));
+                    } else {
+                        locations.add(location);
+                    }
+                } catch (ObjectNotFoundException | InstructionParseException | QuestRuntimeException e) {
                     LogUtils.getLogger().log(Level.WARNING, "Error while parsing global location objective '" + objective + "': " + e.getMessage());
                     LogUtils.logThrowable(e);
                 }
@@ -74,6 +83,10 @@ public class GlobalLocations extends BukkitRunnable {
      */
     public static void stop() {
         instance.cancel();
+        for (final ZoneIndex.Zone zone : instance.zones) {
+            BetonQuest.getInstance().getZoneIndex().remove(zone);
+        }
+        instance.zones.clear();
     }
 
     @Override
@@ -107,28 +120,40 @@ public class GlobalLocations extends BukkitRunnable {
                 }
                 if (player.getLocation().getWorld().equals(loc.getWorld())
                         && player.getLocation().distanceSquared(loc) <= distance * distance) {
-                    // check if player has already triggered this location
-                    final PlayerData playerData = BetonQuest.getInstance().getPlayerData(playerID);
-                    if (playerData.hasTag(location.getTag())) {
-                        continue;
-                    }
-                    // check all conditions
-                    if (location.getConditions() != null) {
-                        if (!BetonQuest.conditions(playerID, location.getConditions())) {
-                            continue;
-                        }
-                    }
-                    // set the tag, player has triggered this location
-                    playerData.addTag(location.getTag());
-                    // fire all events for the location
-                    for (final EventID event : location.getEvents()) {
-                        BetonQuest.event(playerID, event);
-                    }
+                    trigger(player, location);
                 }
             }
         }
     }
 
+    /**
+     * Fires the events of the location for the player inside it, unless he
+     * has already triggered it or doesn't meet the conditions.
+     *
+     * @param player   the player inside the location
+     * @param location the global location
+     */
+    private void trigger(final Player player, final GlobalLocation location) {
+        final String playerID = PlayerConverter.getID(player);
+        // check if player has already triggered this location
+        final PlayerData playerData = BetonQuest.getInstance().getPlayerData(playerID);
+        if (playerData == null || playerData.hasTag(location.getTag())) {
+            return;
+        }
+        // check all conditions
+        if (location.getConditions() != null) {
+            if (!BetonQuest.conditions(playerID, location.getConditions())) {
+                return;
+            }
+        }
+        // set the tag, player has triggered this location
+        playerData.addTag(location.getTag());
+        // fire all events for the location
+        for (final EventID event : location.getEvents()) {
+            BetonQuest.event(playerID, event);
+        }
+    }
+
     /**
      * Represents single global location.
      */
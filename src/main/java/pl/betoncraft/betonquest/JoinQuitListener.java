@@ -15,6 +15,7 @@ import pl.betoncraft.betonquest.database.PlayerData;
 import pl.betoncraft.betonquest.exceptions.QuestRuntimeException;
 import pl.betoncraft.betonquest.utils.LogUtils;
 import pl.betoncraft.betonquest.utils.PlayerConverter;
+import pl.betoncraft.betonquest.utils.Utils;
 
 import java.io.File;
 import java.util.logging.Level;
@@ -36,6 +37,11 @@ public class JoinQuitListener implements Listener {
         if (event.getLoginResult() != Result.ALLOWED) {
             return;
         }
+        // backups need an empty server, so the data does not change while it's saved
+        if (Utils.isBackupRunning()) {
+            event.disallow(Result.KICK_OTHER, Config.getMessage(Config.getLanguage(), "backup_in_progress"));
+            return;
+        }
         final String playerID = event.getUniqueId().toString();
         final BetonQuest plugin = BetonQuest.getInstance();
         plugin.putPlayerData(playerID, new PlayerData(playerID));
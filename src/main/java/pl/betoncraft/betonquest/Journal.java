@@ -2,6 +2,7 @@ package pl.betoncraft.betonquest;
 
 import com.google.common.collect.Lists;
 import org.apache.commons.lang.StringUtils;
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
@@ -10,28 +11,47 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.BookMeta;
 import pl.betoncraft.betonquest.config.Config;
 import pl.betoncraft.betonquest.config.ConfigPackage;
+import pl.betoncraft.betonquest.api.Variable;
 import pl.betoncraft.betonquest.database.Connector.UpdateType;
 import pl.betoncraft.betonquest.database.Saver.Record;
-import pl.betoncraft.betonquest.exceptions.InstructionParseException;
 import pl.betoncraft.betonquest.exceptions.ObjectNotFoundException;
 import pl.betoncraft.betonquest.exceptions.QuestRuntimeException;
 import pl.betoncraft.betonquest.id.ConditionID;
 import pl.betoncraft.betonquest.utils.LogUtils;
 import pl.betoncraft.betonquest.utils.PlayerConverter;
 import pl.betoncraft.betonquest.utils.Utils;
+import pl.betoncraft.betonquest.variables.GlobalPointVariable;
+import pl.betoncraft.betonquest.variables.ObjectivePropertyVariable;
+import pl.betoncraft.betonquest.variables.PointVariable;
 
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 
 /**
- * Represents player's journal.
+ * Represents player's journal. Entries without variables are rendered once
+ * and cached; the main page and entries using variables are rendered every
+ * time the journal is generated. Rebuilding the book item is delayed to the
+ * next tick, so many updates in a single tick rebuild it only once.
  */
 public class Journal {
 
+    /**
+     * Increased every time the configuration is reloaded, so all cached
+     * entries are rendered again
+     */
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+
     private final String playerID;
     private final List<Pointer> pointers;
-    private final List<String> texts = new ArrayList<>();
+    private final List<Entry> texts = new ArrayList<>();
+    private final Map<Pointer, Entry> cache = new IdentityHashMap<>();
+    private Entry mainPageEntry;
+    private String cachedLang;
+    private int cachedGeneration = -1;
+    private boolean updateScheduled;
     private String lang;
     private String mainPage;
 
@@ -49,6 +69,14 @@ public class Journal {
         pointers = list;
     }
 
+    /**
+     * Discards rendered entries of all journals. Should be called when the
+     * configuration is reloaded.
+     */
+    public static void invalidateAll() {
+        GENERATION.incrementAndGet();
+    }
+
     /**
      * Checks if the item is journal
      *
@@ -140,99 +168,156 @@ public class Journal {
      *
      * @return list of Strings - texts for every journal entry
      */
-    public List<String> getText() {
-        final List<String> list;
+    public synchronized List<String> getText() {
+        final List<Entry> list;
         if (Config.getString("config.journal.reversed_order").equalsIgnoreCase("true")) {
             list = Lists.reverse(texts);
         } else {
-            list = new ArrayList<>(texts);
+            list = texts;
         }
         final List<String> pagesList = new ArrayList<>();
-        for (final String entry : list) {
-            pagesList.addAll(Utils.pagesFromString(entry));
+        for (final Entry entry : list) {
+            pagesList.addAll(entry.getPages());
         }
         return pagesList;
     }
 
     /**
-     * Generates texts for every pointer and places them inside a List
+     * Generates texts for every pointer and places them inside a List. Only
+     * the entries which are not cached yet are rendered; entries using
+     * variables are never cached.
      *
      * @param lang the language to use while generating text
      */
-    public void generateTexts(final String lang) {
-        // remove previous texts
-        texts.clear();
+    public synchronized void generateTexts(final String lang) {
         this.lang = lang;
-        // generate the first page
-        mainPage = generateMainPage();
+        final int generation = GENERATION.get();
+        if (!lang.equals(cachedLang) || generation != cachedGeneration) {
+            cache.clear();
+            cachedLang = lang;
+            cachedGeneration = generation;
+        }
+        // generate the first page, its lines depend on conditions
+        mainPageEntry = generateMainPage();
+        mainPage = mainPageEntry.text;
+        texts.clear();
+        final Map<Pointer, Entry> rendered = new IdentityHashMap<>();
+        SimpleDateFormat dateFormat = null;
         for (final Pointer pointer : pointers) {
-            // if date should not be hidden, generate the date prefix
-            String datePrefix = "";
-            if (Config.getString("config.journal.hide_date").equalsIgnoreCase("false")) {
-                final String date = new SimpleDateFormat(Config.getString("config.date_format"))
-                        .format(pointer.getTimestamp());
-                final String[] dateParts = date.split(" ");
-                final String day = "§" + Config.getString("config.journal_colors.date.day") + dateParts[0];
-                String hour = "";
-                if (dateParts.length > 1) {
-                    hour = "§" + Config.getString("config.journal_colors.date.hour") + dateParts[1];
+            Entry entry = cache.get(pointer);
+            if (entry == null) {
+                if (dateFormat == null) {
+                    dateFormat = new SimpleDateFormat(Config.getString("config.date_format"));
+                }
+                entry = generateEntry(pointer, dateFormat);
+                if (entry == null) {
+                    continue;
                 }
-                datePrefix = day + " " + hour + "\n";
             }
-            // get package and name of the pointer
-            final String[] parts = pointer.getPointer().split("\\.");
-            final String packName = parts[0];
-            final ConfigPackage pack = Config.getPackages().get(packName);
-            if (pack == null) {
-                continue;
+            if (!entry.hasVariables()) {
+                rendered.put(pointer, entry);
             }
-            final String pointerName = parts[1];
-            // resolve the text in player's language
-            String text;
-            if (pack.getJournal().getConfig().contains(pointerName)) {
-                if (pack.getJournal().getConfig().isConfigurationSection(pointerName)) {
-                    text = pack.getFormattedString("journal." + pointerName + "." + lang);
-                    if (text == null) {
-                        text = pack.getFormattedString("journal." + pointerName + "." + Config.getLanguage());
-                    }
-                } else {
-                    text = pack.getFormattedString("journal." + pointerName);
+            texts.add(entry);
+        }
+        // forget entries of removed pointers
+        cache.clear();
+        cache.putAll(rendered);
+    }
+
+    /**
+     * Renders a single journal entry.
+     *
+     * @param pointer    the pointer to the entry
+     * @param dateFormat format of the date prefix
+     * @return the rendered entry or null if its package does not exist
+     */
+    private Entry generateEntry(final Pointer pointer, final SimpleDateFormat dateFormat) {
+        // if date should not be hidden, generate the date prefix
+        String datePrefix = "";
+        if (Config.getString("config.journal.hide_date").equalsIgnoreCase("false")) {
+            final String date = dateFormat.format(pointer.getTimestamp());
+            final String[] dateParts = date.split(" ");
+            final String day = "§" + Config.getString("config.journal_colors.date.day") + dateParts[0];
+            String hour = "";
+            if (dateParts.length > 1) {
+                hour = "§" + Config.getString("config.journal_colors.date.hour") + dateParts[1];
+            }
+            datePrefix = day + " " + hour + "\n";
+        }
+        // get package and name of the pointer
+        final String[] parts = pointer.getPointer().split("\\.");
+        final String packName = parts[0];
+        final ConfigPackage pack = Config.getPackages().get(packName);
+        if (pack == null) {
+            return null;
+        }
+        final String pointerName = parts[1];
+        // resolve the text in player's language
+        String text;
+        if (pack.getJournal().getConfig().contains(pointerName)) {
+            if (pack.getJournal().getConfig().isConfigurationSection(pointerName)) {
+                text = pack.getFormattedString("journal." + pointerName + "." + lang);
+                if (text == null) {
+                    text = pack.getFormattedString("journal." + pointerName + "." + Config.getLanguage());
                 }
             } else {
-                LogUtils.getLogger().log(Level.WARNING, "No defined journal entry " + pointerName + " in package " + pack.getName());
-                text = "error";
+                text = pack.getFormattedString("journal." + pointerName);
             }
+        } else {
+            LogUtils.getLogger().log(Level.WARNING, "No defined journal entry " + pointerName + " in package " + pack.getName());
+            text = "error";
+        }
 
-            // handle case when the text isn't defined
-            if (text == null) {
-                LogUtils.getLogger().log(Level.WARNING, "No text defined for journal entry " + pointerName + " in language " + lang);
-                text = "error";
-            }
+        // handle case when the text isn't defined
+        if (text == null) {
+            LogUtils.getLogger().log(Level.WARNING, "No text defined for journal entry " + pointerName + " in language " + lang);
+            text = "error";
+        }
 
-            // resolve variables
-            for (final String variable : BetonQuest.resolveVariables(text)) {
-                try {
-                    BetonQuest.createVariable(pack, variable);
-                } catch (InstructionParseException e) {
-                    LogUtils.getLogger().log(Level.WARNING, "Error while creating variable '" + variable + "' on journal page '" + pointerName + "' in "
-                            + PlayerConverter.getName(playerID) + "'s journal: " + e.getMessage());
-                    LogUtils.logThrowable(e);
-                }
-                text = text.replace(variable,
-                        BetonQuest.getInstance().getVariableValue(packName, variable, playerID));
-            }
+        // resolve variables
+        final Entry entry = new Entry();
+        text = resolveVariables(pack, text, entry);
 
-            // add the entry to the list
-            texts.add(datePrefix + "§" + Config.getString("config.journal_colors.text") + text);
+        // add the entry to the list
+        entry.text = datePrefix + "§" + Config.getString("config.journal_colors.text") + text;
+        return entry;
+    }
+
+    /**
+     * Replaces variables in the text and remembers what they depend on.
+     *
+     * @param pack  package of the text
+     * @param text  the text
+     * @param entry the entry which gets the dependencies of the variables
+     * @return the text with replaced variables
+     */
+    private String resolveVariables(final ConfigPackage pack, final String text, final Entry entry) {
+        final VariableString template = VariableString.lenient(pack, text);
+        if (!template.hasVariables()) {
+            return text;
+        }
+        for (final Variable variable : template.getVariables()) {
+            if (variable instanceof ObjectivePropertyVariable) {
+                entry.objectives.add(((ObjectivePropertyVariable) variable).getObjective().getFullID());
+            } else if (variable instanceof PointVariable && !(variable instanceof GlobalPointVariable)) {
+                entry.points.add(((PointVariable) variable).getCategory().toLowerCase(Locale.ROOT));
+            } else {
+                entry.dynamic = true;
+            }
+        }
+        if (template.hasUnresolvedVariables()) {
+            entry.dynamic = true;
         }
+        return template.getString(playerID);
     }
 
     /**
      * Generates the main page for this journal.
      *
-     * @return the main page string or null, if there is no main page
+     * @return the main page entry with null text, if there is no main page
      */
-    private String generateMainPage() {
+    private Entry generateMainPage() {
+        final Entry entry = new Entry();
         final HashMap<Integer, ArrayList<String>> lines = new HashMap<>(); // holds text lines with their priority
         final HashSet<Integer> numbers = new HashSet<>(); // stores numbers that are used, so there's no need to search them
         for (final ConfigPackage pack : Config.getPackages().values()) {
@@ -283,17 +368,7 @@ public class Journal {
                         continue;
                     }
                     // resolve variables
-                    for (final String variable : BetonQuest.resolveVariables(text)) {
-                        try {
-                            BetonQuest.createVariable(pack, variable);
-                        } catch (InstructionParseException e) {
-                            LogUtils.getLogger().log(Level.WARNING, "Error while creating variable '" + variable + "' on main page in "
-                                    + PlayerConverter.getName(playerID) + "'s journal: " + e.getMessage());
-                            LogUtils.logThrowable(e);
-                        }
-                        text = text.replace(variable,
-                                BetonQuest.getInstance().getVariableValue(packName, variable, playerID));
-                    }
+                    text = resolveVariables(pack, text, entry);
                     text = pack.subst(text);
                     // add the text to HashMap
                     numbers.add(number);
@@ -313,7 +388,7 @@ public class Journal {
             }
         }
         if (numbers.isEmpty()) {
-            return null;
+            return entry;
         }
         // now all lines from all packages are extracted, sort numbers
         Integer[] sorted = new Integer[numbers.size()];
@@ -330,15 +405,24 @@ public class Journal {
                 sortedLines.add(s);
             }
         }
-        return StringUtils.join(sortedLines, '\n').replace('&', '§');
+        entry.text = StringUtils.join(sortedLines, '\n').replace('&', '§');
+        return entry;
+    }
+
+    /**
+     * @return the main page rendered by the last {@link #generateTexts(String)}, can be null
+     */
+    /* default */ synchronized String getMainPage() {
+        return mainPage;
     }
 
     /**
      * Clears the Journal completely but doesn't touch the database.
      */
-    public void clear() {
+    public synchronized void clear() {
         texts.clear();
         pointers.clear();
+        cache.clear();
     }
 
     /**
@@ -434,14 +518,69 @@ public class Journal {
     }
 
     /**
-     * Updates journal by removing it and adding it again
+     * Updates journal by removing it and adding it again in the next tick.
+     * All entries using variables and the main page are rendered again.
      */
     public void update() {
-        if (hasJournal(playerID)) {
-            lang = BetonQuest.getInstance().getPlayerData(playerID).getLanguage();
-            final int slot = removeFromInv();
-            addToInv(slot);
+        scheduleUpdate();
+    }
+
+    /**
+     * Updates journal after the data of an objective has changed. The journal
+     * is only rebuilt if it shows an entry or a main page using variables
+     * which could depend on this objective.
+     *
+     * @param objectiveID full ID of the objective
+     */
+    public void updateObjective(final String objectiveID) {
+        if (isShown(entry -> entry.dynamic || entry.objectives.contains(objectiveID))) {
+            scheduleUpdate();
+        }
+    }
+
+    /**
+     * Updates journal after the points in a category have changed. The
+     * journal is only rebuilt if it shows an entry or a main page using
+     * variables which could depend on these points.
+     *
+     * @param category full name of the point category
+     */
+    public void updatePoints(final String category) {
+        final String lowerCategory = category.toLowerCase(Locale.ROOT);
+        if (isShown(entry -> entry.dynamic || entry.points.contains(lowerCategory))) {
+            scheduleUpdate();
+        }
+    }
+
+    private synchronized boolean isShown(final Predicate<Entry> outdated) {
+        if (mainPageEntry != null && outdated.test(mainPageEntry)) {
+            return true;
+        }
+        for (final Entry entry : texts) {
+            if (outdated.test(entry)) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    private void scheduleUpdate() {
+        synchronized (this) {
+            if (updateScheduled) {
+                return;
+            }
+            updateScheduled = true;
+        }
+        Bukkit.getScheduler().runTask(BetonQuest.getInstance(), () -> {
+            synchronized (this) {
+                updateScheduled = false;
+            }
+            if (hasJournal(playerID)) {
+                lang = BetonQuest.getInstance().getPlayerData(playerID).getLanguage();
+                final int slot = removeFromInv();
+                addToInv(slot);
+            }
+        });
     }
 
     /**
@@ -460,4 +599,31 @@ public class Journal {
         }
         return -1;
     }
+
+    /**
+     * Rendered journal entry with the things its variables depend on
+     */
+    private static class Entry {
+
+        private final Set<String> objectives = new HashSet<>();
+        private final Set<String> points = new HashSet<>();
+        private boolean dynamic;
+        private String text;
+        private List<String> pages;
+
+        /* default */ Entry() {
+            // filled while the entry is rendered
+        }
+
+        private boolean hasVariables() {
+            return dynamic || !objectives.isEmpty() || !points.isEmpty();
+        }
+
+        private List<String> getPages() {
+            if (pages == null) {
+                pages = Utils.pagesFromString(text);
+            }
+            return pages;
+        }
+    }
 }
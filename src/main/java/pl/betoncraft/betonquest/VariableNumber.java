@@ -78,6 +78,13 @@ public class VariableNumber {
         return resolveVariable(playerID);
     }
 
+    /**
+     * @return true if this is a plain number, which is the same for every player
+     */
+    public boolean isStatic() {
+        return variable == null;
+    }
+
     private double resolveVariable(final String playerID) {
         if (variable == null) {
             return number;
@@ -0,0 +1,159 @@
+package pl.betoncraft.betonquest;
+
+import pl.betoncraft.betonquest.api.Variable;
+import pl.betoncraft.betonquest.config.ConfigPackage;
+import pl.betoncraft.betonquest.exceptions.InstructionParseException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Represents a text with variables, split once into literal parts and the
+ * variables between them. Resolving it for a player is a single pass over
+ * these parts without searching the text again.
+ */
+public class VariableString {
+
+    /**
+     * Pattern matching a single variable in a text
+     */
+    /* default */ static final Pattern VARIABLE_PATTERN = Pattern.compile("%[^ %\\s]+%");
+
+    private final String packName;
+    private final String[] literals;
+    private final String[] names;
+    private final Variable[] variables;
+    private final int length;
+
+    /**
+     * Splits the text and creates all variables in it.
+     *
+     * @param pack the package in which the variables are defined
+     * @param text the text with variables
+     * @throws InstructionParseException when any of the variables could not be created
+     */
+    public VariableString(final ConfigPackage pack, final String text) throws InstructionParseException {
+        this(pack, text, true);
+    }
+
+    private VariableString(final ConfigPackage pack, final String text, final boolean strict)
+            throws InstructionParseException {
+        packName = pack == null ? null : pack.getName();
+        final List<String> literalList = new ArrayList<>();
+        final List<String> nameList = new ArrayList<>();
+        final List<Variable> variableList = new ArrayList<>();
+        final Matcher matcher = VARIABLE_PATTERN.matcher(text);
+        int last = 0;
+        while (matcher.find()) {
+            final String name = matcher.group();
+            literalList.add(text.substring(last, matcher.start()));
+            nameList.add(name);
+            variableList.add(createVariable(pack, name, strict));
+            last = matcher.end();
+        }
+        literalList.add(text.substring(last));
+        literals = literalList.toArray(new String[0]);
+        names = nameList.toArray(new String[0]);
+        variables = variableList.toArray(new Variable[0]);
+        length = text.length();
+    }
+
+    /**
+     * Splits the text like the constructor, but does not fail on variables
+     * which could not be created. They are resolved in the old way when the
+     * text is resolved, so the usual error message is displayed instead.
+     *
+     * @param pack the package in which the variables are defined, can be null
+     * @param text the text with variables
+     * @return the split text
+     */
+    public static VariableString lenient(final ConfigPackage pack, final String text) {
+        try {
+            return new VariableString(pack, text, false);
+        } catch (InstructionParseException e) {
+            // lenient mode never throws
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Variable createVariable(final ConfigPackage pack, final String name, final boolean strict)
+            throws InstructionParseException {
+        if (pack == null) {
+            if (strict) {
+                throw new InstructionParseException("Error while creating '" + name + "' variable: no package");
+            }
+            return null;
+        }
+        try {
+            final Variable variable = BetonQuest.createVariable(pack, name);
+            if (variable == null && strict) {
+                throw new InstructionParseException("Error while creating '" + name + "' variable");
+            }
+            return variable;
+        } catch (InstructionParseException e) {
+            if (strict) {
+                throw new InstructionParseException("Error while creating '" + name + "' variable: "
+                        + e.getMessage(), e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Resolves all variables for the player.
+     *
+     * @param playerID ID of the player for whom the variables are resolved
+     * @return the text with values of the variables
+     */
+    public String getString(final String playerID) {
+        if (names.length == 0) {
+            return literals[0];
+        }
+        final StringBuilder builder = new StringBuilder(length + 16 * names.length);
+        for (int i = 0; i < names.length; i++) {
+            builder.append(literals[i]);
+            if (variables[i] == null) {
+                builder.append(BetonQuest.getInstance().getVariableValue(packName, names[i], playerID));
+            } else {
+                builder.append(variables[i].getValue(playerID));
+            }
+        }
+        return builder.append(literals[names.length]).toString();
+    }
+
+    /**
+     * @return true if there are any variables in the text
+     */
+    public boolean hasVariables() {
+        return names.length > 0;
+    }
+
+    /**
+     * @return all variables in the text which could be created, in the order they appear
+     */
+    public List<Variable> getVariables() {
+        final List<Variable> list = new ArrayList<>(Arrays.asList(variables));
+        list.removeIf(variable -> variable == null);
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * @return true if some variables could not be created
+     */
+    public boolean hasUnresolvedVariables() {
+        return getVariables().size() < names.length;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < names.length; i++) {
+            builder.append(literals[i]).append(names[i]);
+        }
+        return builder.append(literals[names.length]).toString();
+    }
+}
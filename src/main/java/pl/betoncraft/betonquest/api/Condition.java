@@ -33,6 +33,17 @@ abstract public class Condition extends ForceSyncHandler<Boolean> {
      * logs out.
      */
     protected boolean persistent = false;
+    /**
+     * If a condition is volatile its outcome can change even if nothing else
+     * changes, so it is never remembered by the condition cache.
+     */
+    protected boolean volatility = false;
+    /**
+     * Rough cost of a single check in microseconds. Lists of conditions are
+     * checked from the cheapest condition, and this estimate is used until
+     * the real time of the checks is measured.
+     */
+    protected int cost = 10;
 
     /**
      * @deprecated There is a new constructor that handles thread safety.
@@ -82,6 +93,21 @@ abstract public class Condition extends ForceSyncHandler<Boolean> {
         return persistent;
     }
 
+    /**
+     * @return if the condition is volatile or not. The outcome of a volatile
+     * condition is never reused, it is checked every time.
+     */
+    public final boolean isVolatile() {
+        return volatility;
+    }
+
+    /**
+     * @return the rough cost of a single check in microseconds
+     */
+    public final int getCost() {
+        return cost;
+    }
+
     /**
      * This method should contain all logic for the condition and use data
      * parsed by the constructor. Don't worry about inverting the condition,
@@ -31,6 +31,13 @@ abstract public class ForceSyncHandler<T> {
         this.forceSync = forceSync;
     }
 
+    /**
+     * @return true if {@link ForceSyncHandler#execute(String)} always runs on the servers main thread
+     */
+    public final boolean isForceSync() {
+        return forceSync;
+    }
+
     /**
      * This methods implementation will be executed by the {@link ForceSyncHandler#handle(String)} method.
      *
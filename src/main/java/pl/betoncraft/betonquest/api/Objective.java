@@ -1,10 +1,14 @@
 package pl.betoncraft.betonquest.api;
 
 import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
 import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.GlobalObjectives;
 import pl.betoncraft.betonquest.Instruction;
 import pl.betoncraft.betonquest.database.Connector;
+import pl.betoncraft.betonquest.database.PlayerData;
 import pl.betoncraft.betonquest.database.Saver;
 import pl.betoncraft.betonquest.exceptions.InstructionParseException;
 import pl.betoncraft.betonquest.exceptions.ObjectNotFoundException;
@@ -17,6 +21,8 @@ import pl.betoncraft.betonquest.utils.PlayerConverter;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.logging.Level;
 
 /**
@@ -111,6 +117,35 @@ public abstract class Objective {
      */
     public abstract void stop();
 
+    /**
+     * Subscribes this objective to the event on the {@link ObjectiveEventBus}.
+     * The handler is called only for players who have this objective, so it
+     * can be used instead of registering a Listener in {@link #start()}.
+     * Remove the subscriptions with {@link #unsubscribe()} in {@link #stop()}.
+     *
+     * @param type            class of the event
+     * @param priority        priority of the listener
+     * @param ignoreCancelled whether cancelled events should be ignored
+     * @param extractor       returns the player the event is about or null
+     * @param handler         handles the event
+     * @param <E>             type of the event
+     */
+    protected final <E extends Event> void subscribe(final Class<E> type, final EventPriority priority,
+                                                     final boolean ignoreCancelled,
+                                                     final Function<? super E, Player> extractor,
+                                                     final Consumer<? super E> handler) {
+        BetonQuest.getInstance().getObjectiveEventBus().subscribe(this, type, priority, ignoreCancelled, extractor,
+                handler);
+    }
+
+    /**
+     * Removes all subscriptions made with
+     * {@link #subscribe(Class, EventPriority, boolean, Function, Consumer)}.
+     */
+    protected final void unsubscribe() {
+        BetonQuest.getInstance().getObjectiveEventBus().unsubscribe(this);
+    }
+
     /**
      * This method should return the default data instruction for the objective,
      * ready to be parsed by the ObjectiveData class.
@@ -213,6 +248,8 @@ public abstract class Objective {
             start();
         }
         dataMap.put(playerID, data);
+        BetonQuest.getInstance().getObjectiveEventBus().addPlayer(this, playerID);
+        playerAdded(playerID);
     }
 
     /**
@@ -225,11 +262,36 @@ public abstract class Objective {
      */
     public final synchronized void removePlayer(final String playerID) {
         dataMap.remove(playerID);
+        BetonQuest.getInstance().getObjectiveEventBus().removePlayer(this, playerID);
+        playerRemoved(playerID);
         if (dataMap.isEmpty()) {
             stop();
         }
     }
 
+    /**
+     * Called after the player got this objective, when the objective is
+     * already started. Override it if something has to be set up for every
+     * player.
+     *
+     * @param playerID ID of the player
+     */
+    @SuppressWarnings("PMD.EmptyMethodInAbstractClassShouldBeAbstract")
+    protected void playerAdded(final String playerID) {
+        // nothing to set up by default
+    }
+
+    /**
+     * Called after this objective was removed from the player, before it is
+     * stopped.
+     *
+     * @param playerID ID of the player
+     */
+    @SuppressWarnings("PMD.EmptyMethodInAbstractClassShouldBeAbstract")
+    protected void playerRemoved(final String playerID) {
+        // nothing to clean up by default
+    }
+
     /**
      * Checks if the player has this objective
      *
@@ -362,7 +424,9 @@ public abstract class Objective {
             Bukkit.getScheduler().runTask(BetonQuest.getInstance(), () -> Bukkit.getPluginManager().callEvent(event));
             // update the journal so all possible variables display correct
             // information
-            BetonQuest.getInstance().getPlayerData(playerID).getJournal().update();
+            final PlayerData playerData = BetonQuest.getInstance().getPlayerData(playerID);
+            playerData.objectiveProgressed();
+            playerData.getJournal().updateObjective(objID);
         }
 
     }
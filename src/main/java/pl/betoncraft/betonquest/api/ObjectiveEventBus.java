@@ -0,0 +1,208 @@
+package pl.betoncraft.betonquest.api;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import pl.betoncraft.betonquest.BetonQuest;
+import pl.betoncraft.betonquest.utils.PlayerConverter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Delivers Bukkit events to objectives. There is only one Bukkit listener
+ * for every event type, which looks up the objectives of the player the event
+ * is about, instead of every objective receiving every event and checking if
+ * the player has it.
+ */
+public class ObjectiveEventBus {
+
+    private final Map<String, Dispatcher<?>> dispatchers = new ConcurrentHashMap<>();
+    private final Map<Objective, List<Subscription<?>>> subscriptions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates new event bus. Bukkit listeners are registered when the first
+     * objective subscribes to their event.
+     */
+    public ObjectiveEventBus() {
+        // dispatchers are created on demand
+    }
+
+    /**
+     * Subscribes the objective to the event. The handler is called only for
+     * events about players who have this objective. The player is taken from
+     * the event with the extractor, which should always be the same instance
+     * (a method reference) for the same event type, so all objectives using
+     * it share a single lookup.
+     *
+     * @param objective       the subscribing objective
+     * @param type            class of the event
+     * @param priority        priority of the Bukkit listener
+     * @param ignoreCancelled whether cancelled events should be ignored
+     * @param extractor       returns the player the event is about or null
+     * @param handler         handles the event
+     * @param <E>             type of the event
+     */
+    public <E extends Event> void subscribe(final Objective objective, final Class<E> type,
+                                            final EventPriority priority, final boolean ignoreCancelled,
+                                            final Function<? super E, Player> extractor,
+                                            final Consumer<? super E> handler) {
+        final Subscription<E> subscription = new Subscription<>(getDispatcher(type, priority, ignoreCancelled),
+                extractor, handler);
+        subscriptions.computeIfAbsent(objective, key -> new CopyOnWriteArrayList<>()).add(subscription);
+        for (final String playerID : objective.dataMap.keySet()) {
+            subscription.add(playerID);
+        }
+    }
+
+    /**
+     * Removes all subscriptions of the objective.
+     *
+     * @param objective the objective
+     */
+    public void unsubscribe(final Objective objective) {
+        final List<Subscription<?>> removed = subscriptions.remove(objective);
+        if (removed == null) {
+            return;
+        }
+        for (final Subscription<?> subscription : removed) {
+            subscription.removeAll();
+        }
+    }
+
+    /**
+     * @return the amount of active subscriptions
+     */
+    public int getSize() {
+        int size = 0;
+        for (final List<Subscription<?>> list : subscriptions.values()) {
+            size += list.size();
+        }
+        return size;
+    }
+
+    /* default */ void addPlayer(final Objective objective, final String playerID) {
+        for (final Subscription<?> subscription : subscriptions.getOrDefault(objective, Collections.emptyList())) {
+            subscription.add(playerID);
+        }
+    }
+
+    /* default */ void removePlayer(final Objective objective, final String playerID) {
+        for (final Subscription<?> subscription : subscriptions.getOrDefault(objective, Collections.emptyList())) {
+            subscription.remove(playerID);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends Event> Dispatcher<E> getDispatcher(final Class<E> type, final EventPriority priority,
+                                                          final boolean ignoreCancelled) {
+        final String key = type.getName() + ' ' + priority + ' ' + ignoreCancelled;
+        return (Dispatcher<E>) dispatchers.computeIfAbsent(key, name -> {
+            final Dispatcher<E> dispatcher = new Dispatcher<>(type);
+            Bukkit.getPluginManager().registerEvent(type, dispatcher, priority, dispatcher,
+                    BetonQuest.getInstance(), ignoreCancelled);
+            return dispatcher;
+        });
+    }
+
+    /**
+     * The single listener of an event type, with the subscriptions indexed by
+     * players
+     *
+     * @param <E> type of the event
+     */
+    private static class Dispatcher<E extends Event> implements Listener, EventExecutor {
+
+        private final Class<E> type;
+        private final Map<Function<? super E, Player>, Map<String, Set<Subscription<E>>>> index =
+                new ConcurrentHashMap<>();
+
+        /* default */ Dispatcher(final Class<E> type) {
+            this.type = type;
+        }
+
+        @Override
+        public void execute(final Listener listener, final Event event) {
+            if (!type.isInstance(event)) {
+                return;
+            }
+            final E typed = type.cast(event);
+            for (final Map.Entry<Function<? super E, Player>, Map<String, Set<Subscription<E>>>> entry
+                    : index.entrySet()) {
+                final Player player = entry.getKey().apply(typed);
+                if (player == null) {
+                    continue;
+                }
+                final Set<Subscription<E>> players = entry.getValue().get(PlayerConverter.getID(player));
+                if (players == null) {
+                    continue;
+                }
+                for (final Subscription<E> subscription : players) {
+                    subscription.handler.accept(typed);
+                }
+            }
+        }
+    }
+
+    /**
+     * A handler of a single objective together with the players it is
+     * indexed for
+     *
+     * @param <E> type of the event
+     */
+    private static class Subscription<E extends Event> {
+
+        private final Dispatcher<E> dispatcher;
+        private final Function<? super E, Player> extractor;
+        private final Consumer<? super E> handler;
+        private final Set<String> players = ConcurrentHashMap.newKeySet();
+
+        /* default */ Subscription(final Dispatcher<E> dispatcher, final Function<? super E, Player> extractor,
+                                   final Consumer<? super E> handler) {
+            this.dispatcher = dispatcher;
+            this.extractor = extractor;
+            this.handler = handler;
+        }
+
+        private void add(final String playerID) {
+            if (players.add(playerID)) {
+                dispatcher.index.computeIfAbsent(extractor, key -> new ConcurrentHashMap<>())
+                        .compute(playerID, (key, set) -> {
+                            final Set<Subscription<E>> entries = set == null ? new CopyOnWriteArraySet<>() : set;
+                            entries.add(this);
+                            return entries;
+                        });
+            }
+        }
+
+        private void remove(final String playerID) {
+            if (!players.remove(playerID)) {
+                return;
+            }
+            final Map<String, Set<Subscription<E>>> byPlayer = dispatcher.index.get(extractor);
+            if (byPlayer == null) {
+                return;
+            }
+            byPlayer.computeIfPresent(playerID, (key, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+        }
+
+        private void removeAll() {
+            for (final String playerID : players) {
+                remove(playerID);
+            }
+        }
+    }
+}
@@ -16,12 +16,15 @@ import org.bukkit.util.Vector;
 import pl.betoncraft.betonquest.*;
 import pl.betoncraft.betonquest.api.Objective;
 import pl.betoncraft.betonquest.compatibility.Compatibility;
+import pl.betoncraft.betonquest.compatibility.placeholderapi.PlaceholderCache;
 import pl.betoncraft.betonquest.config.Config;
 import pl.betoncraft.betonquest.config.ConfigAccessor;
 import pl.betoncraft.betonquest.config.ConfigPackage;
+import pl.betoncraft.betonquest.database.ConnectionPool;
 import pl.betoncraft.betonquest.database.Connector.UpdateType;
 import pl.betoncraft.betonquest.database.GlobalData;
 import pl.betoncraft.betonquest.database.PlayerData;
+import pl.betoncraft.betonquest.database.Saver;
 import pl.betoncraft.betonquest.database.Saver.Record;
 import pl.betoncraft.betonquest.events.GiveEvent;
 import pl.betoncraft.betonquest.exceptions.InstructionParseException;
@@ -32,6 +35,7 @@ import pl.betoncraft.betonquest.id.EventID;
 import pl.betoncraft.betonquest.id.ObjectiveID;
 import pl.betoncraft.betonquest.item.QuestItem;
 import pl.betoncraft.betonquest.utils.*;
+import pl.betoncraft.betonquest.utils.location.EntityQuery;
 import pl.betoncraft.betonquest.utils.location.VectorData;
 
 import java.text.ParseException;
@@ -262,7 +266,18 @@ public class QuestCommand implements CommandExecutor, SimpleTabCompleter {
                         sendMessage(sender, "offline");
                         break;
                     }
-                    Utils.backup();
+                    if (Utils.isBackupRunning()) {
+                        sendMessage(sender, "backup_running");
+                        break;
+                    }
+                    // the database is streamed to the file, so the server does not have to wait for it;
+                    // players can't join until it's done
+                    Bukkit.getScheduler().runTaskAsynchronously(instance, () -> {
+                        final String message = Utils.backup() ? "backup_done" : "backup_failed";
+                        if (instance.isEnabled()) {
+                            Bukkit.getScheduler().runTask(instance, () -> sendMessage(sender, message));
+                        }
+                    });
                     break;
                 case "create":
                 case "package":
@@ -271,6 +286,9 @@ public class QuestCommand implements CommandExecutor, SimpleTabCompleter {
                 case "debug":
                     handleDebug(sender, args);
                     break;
+                case "stats":
+                    displayStats(sender);
+                    break;
                 default:
                     // there was an unknown argument, so handle this
                     sendMessage(sender, "unknown_argument");
@@ -287,7 +305,7 @@ public class QuestCommand implements CommandExecutor, SimpleTabCompleter {
         if (args.length == 1) {
             return Arrays.asList("condition", "event", "item", "give", "config", "objective", "globaltag",
                     "globalpoint", "tag", "point", "journal", "delete", "rename", "vector", "version", "purge",
-                    "update", "reload", "backup", "create", "debug");
+                    "update", "reload", "backup", "create", "debug", "stats");
         }
         switch (args[0].toLowerCase()) {
             case "conditions":
@@ -360,6 +378,7 @@ public class QuestCommand implements CommandExecutor, SimpleTabCompleter {
             case "backup":
             case "create":
             case "package":
+            case "stats":
             default:
                 return new ArrayList<>();
         }
@@ -927,6 +946,7 @@ public class QuestCommand implements CommandExecutor, SimpleTabCompleter {
         LogUtils.getLogger().log(Level.FINE, "Saving item to configuration as " + args[1]);
         config.getConfig().set(name, instructions.trim());
         config.saveConfig();
+        configPack.clearCache();
         // done
         sendMessage(sender, "item_created", new String[]{
                 args[1]
@@ -1074,7 +1094,9 @@ public class QuestCommand implements CommandExecutor, SimpleTabCompleter {
         }
         // if there are no arguments then list player's tags
         if (args.length < 3 || args[2].equalsIgnoreCase("list") || args[2].equalsIgnoreCase("l")) {
-            final List<String> tags = playerData.getTags();
+            // tags are not kept in any order
+            final List<String> tags = new ArrayList<>(playerData.getTags());
+            tags.sort(String::compareTo);
             LogUtils.getLogger().log(Level.FINE, "Listing tags");
             sendMessage(sender, "player_tags");
             for (final String tag : tags) {
@@ -1732,6 +1754,7 @@ public class QuestCommand implements CommandExecutor, SimpleTabCompleter {
         cmds.put("version", "version");
         cmds.put("purge", "purge <player>");
         cmds.put("debug", "[true/false]");
+        cmds.put("stats", "stats");
         if (!(sender instanceof Player)) {
             cmds.put("backup", "backup");
         }
@@ -1755,6 +1778,47 @@ public class QuestCommand implements CommandExecutor, SimpleTabCompleter {
         }
     }
 
+    private void displayStats(final CommandSender sender) {
+        final Saver saver = instance.getSaver();
+        sender.sendMessage("§e----- §aBetonQuest statistics §e-----");
+        sender.sendMessage(String.format("§2Database saver: §b%d§2 waiting, §b%d§2 saved, §b%d§2 coalesced, "
+                        + "average batch §b%.1f§2 records in §b%.2f§2 ms", saver.getQueueSize(), saver.getSavedRecords(),
+                saver.getCoalescedRecords(), saver.getAverageBatchSize(), saver.getAverageFlushTime()));
+        final ConnectionPool pool = instance.getDB().getPool();
+        sender.sendMessage(String.format("§2Connection pool: §b%d§2 active, §b%d§2 idle, §b%d§2 total",
+                pool.getActive(), pool.getIdle(), pool.getTotal()));
+        sender.sendMessage("§2" + pool.getWaitTimes());
+        sender.sendMessage("§2" + PlayerData.getLoadingTimes(true));
+        sender.sendMessage("§2" + PlayerData.getLoadingTimes(false));
+        sender.sendMessage("§2Location zones: §b" + instance.getZoneIndex().getSize());
+        sender.sendMessage("§2Objective event subscriptions: §b" + instance.getObjectiveEventBus().getSize());
+        sender.sendMessage("§2Waiting timers: §b" + instance.getTimerQueue().getSize());
+        sender.sendMessage("§2Active conversations: §b" + instance.getConversationSessions().getSize());
+        final ConditionCache conditionCache = instance.getConditionCache();
+        sender.sendMessage(String.format("§2Condition cache: §b%d§2 hits, §b%d§2 misses, §b%d§2 ticks",
+                conditionCache.getHits(), conditionCache.getMisses(), conditionCache.getTicks()));
+        final ConditionEngine conditionEngine = instance.getConditionEngine();
+        sender.sendMessage(String.format("§2Condition engine: §b%d§2 active threads, §b%d§2 threads waiting for the "
+                        + "main thread, §b%d§2 conditions checked in §b%d§2 main thread tasks",
+                conditionEngine.getActive(), conditionEngine.getBlocked(), conditionEngine.getSyncChecks(),
+                conditionEngine.getHops()));
+        sender.sendMessage("§2" + conditionEngine.getHopWaits());
+        // the condition types which took the most time in total
+        conditionEngine.getTypeTimes().stream()
+                .sorted(Comparator.comparingDouble((LatencyHistogram times) -> times.getAverage() * times.getCount())
+                        .reversed())
+                .limit(10)
+                .forEach(times -> sender.sendMessage("§2" + times));
+        final EntityQuery entityQuery = instance.getEntityQuery();
+        sender.sendMessage(String.format("§2Entity queries: §b%d§2, §b%d§2 answered from the same tick",
+                entityQuery.getQueries(), entityQuery.getHits()));
+        final PlaceholderCache placeholderCache = PlaceholderCache.getInstance();
+        if (placeholderCache != null) {
+            sender.sendMessage(String.format("§2Placeholder cache: §b%d§2 hits, §b%d§2 misses, §b%d§2 values",
+                    placeholderCache.getHits(), placeholderCache.getMisses(), placeholderCache.getSize()));
+        }
+    }
+
     private void displayVersionInfo(final CommandSender sender) {
 
         // build clickable tellraw-like message by using bugee api or fall back
@@ -5,14 +5,17 @@ import com.gmail.filoghost.holographicdisplays.api.HologramsAPI;
 import net.citizensnpcs.api.CitizensAPI;
 import net.citizensnpcs.api.npc.NPC;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.entity.Player;
 import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 import pl.betoncraft.betonquest.BetonQuest;
+import pl.betoncraft.betonquest.compatibility.holographicdisplays.HologramVisibility;
+import pl.betoncraft.betonquest.compatibility.holographicdisplays.HologramVisibility.TrackedHologram;
+import pl.betoncraft.betonquest.compatibility.holographicdisplays.HolographicDisplaysIntegrator;
 import pl.betoncraft.betonquest.config.Config;
 import pl.betoncraft.betonquest.config.ConfigPackage;
 import pl.betoncraft.betonquest.exceptions.InstructionParseException;
@@ -21,7 +24,6 @@ import pl.betoncraft.betonquest.id.ConditionID;
 import pl.betoncraft.betonquest.id.ItemID;
 import pl.betoncraft.betonquest.item.QuestItem;
 import pl.betoncraft.betonquest.utils.LogUtils;
-import pl.betoncraft.betonquest.utils.PlayerConverter;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -34,14 +36,18 @@ import java.util.logging.Level;
 /**
  * Displays a hologram relative to an npc
  * <p>
- * Some care is taken to optimize how holograms are displayed. They are destroyed when not needed, shared between players and
- * we only have a fast update when needed to ensure they are relative to the NPC position
+ * Holograms are shared between players and shown to them by the {@link HologramVisibility} engine. They are only moved
+ * when their NPC moves, every tick if they follow the NPC, otherwise every check interval.
  */
 
 public class CitizensHologram extends BukkitRunnable implements Listener {
 
     private static CitizensHologram instance;
     private static final Lock RELOAD_LOCK = new ReentrantLock();
+    /**
+     * Squared distance an NPC has to move before its holograms are moved
+     */
+    private static final double MOVE_THRESHOLD = 0.0001;
 
     // All NPC's with config
     private final Map<String, List<NPCHologram>> npcs = new HashMap<>();
@@ -50,10 +56,6 @@ public class CitizensHologram extends BukkitRunnable implements Listener {
     private boolean follow = false;
     private final boolean enabled;
 
-    // Updater
-    private BukkitRunnable updater;
-
-
     public CitizensHologram() {
         super();
         if (instance != null) {
@@ -164,9 +166,11 @@ public class CitizensHologram extends BukkitRunnable implements Listener {
                 }
             }
 
+            createHolograms();
+
             Bukkit.getPluginManager().registerEvents(instance, BetonQuest.getInstance());
 
-            runTaskTimer(BetonQuest.getInstance(), 1, interval);
+            runTaskTimer(BetonQuest.getInstance(), 1, follow ? 1 : interval);
         }, 1);
 
         enabled = true;
@@ -192,20 +196,18 @@ public class CitizensHologram extends BukkitRunnable implements Listener {
 
     @Override
     public void run() {
-        updateHolograms();
+        updatePositions();
     }
 
     private void cleanUp() {
-        // Cancel Updater
-        if (updater != null) {
-            updater.cancel();
-            updater = null;
-        }
-
+        final HologramVisibility visibility = HolographicDisplaysIntegrator.getVisibility();
         // Destroy all holograms
         for (final String npcID : npcs.keySet()) {
             for (final NPCHologram npcHologram : npcs.get(npcID)) {
                 if (npcHologram.hologram != null) {
+                    if (visibility != null) {
+                        visibility.remove(npcHologram.tracked);
+                    }
                     npcHologram.hologram.delete();
                     npcHologram.hologram = null;
                 }
@@ -213,127 +215,85 @@ public class CitizensHologram extends BukkitRunnable implements Listener {
         }
     }
 
-    private void updateHolograms() {
-        // If we need to update hologram positions
-        boolean npcUpdater = false;
-
-        // Handle updating each NPC
+    private void createHolograms() {
+        final HologramVisibility visibility = HolographicDisplaysIntegrator.getVisibility();
+        if (visibility == null) {
+            return;
+        }
         for (final String npcID : npcs.keySet()) {
+            final NPC npc = CitizensAPI.getNPCRegistry().getById(Integer.parseInt(npcID));
+            if (npc == null || npc.getStoredLocation() == null) {
+                continue;
+            }
             for (final NPCHologram npcHologram : npcs.get(npcID)) {
-                boolean hologramEnabled = false;
-
-                final NPC npc = CitizensAPI.getNPCRegistry().getById(Integer.parseInt(npcID));
-
-                if (npc == null) {
-                    continue;
-                }
-
-                for (final Player player : Bukkit.getOnlinePlayers()) {
-                    if (BetonQuest.conditions(PlayerConverter.getID(player), npcHologram.config.conditions)) {
-                        hologramEnabled = true;
-                        if (npcHologram.hologram == null) {
-                            final Hologram hologram = HologramsAPI.createHologram(BetonQuest.getInstance(), npc.getStoredLocation().clone().add(npcHologram.config.vector));
-                            hologram.getVisibilityManager().setVisibleByDefault(false);
-                            for (final String line : npcHologram.config.settings.getStringList("lines")) {
-                                if (line.startsWith("item:")) {
-                                    try {
-                                        final String[] args = line.substring(5).split(":");
-                                        final ItemID itemID = new ItemID(npcHologram.config.pack, args[0]);
-                                        int stackSize = 1;
-                                        try {
-                                            stackSize = Integer.valueOf(args[1]);
-                                        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
-                                        }
-                                        final ItemStack stack = new QuestItem(itemID).generate(stackSize);
-                                        stack.setAmount(stackSize);
-                                        hologram.appendItemLine(stack);
-                                    } catch (InstructionParseException e) {
-                                        LogUtils.getLogger().log(Level.WARNING, "Could not parse item " + line.substring(5) + " hologram: "
-                                                + e.getMessage());
-                                        LogUtils.logThrowable(e);
-                                    } catch (ObjectNotFoundException e) {
-                                        LogUtils.getLogger().log(Level.WARNING, "Could not find item in " + line.substring(5).split(":")[0]
-                                                + " hologram: " + e.getMessage());
-                                        LogUtils.logThrowable(e);
-
-                                        //TODO Remove this code in the version 1.13 or later
-                                        //This support the old implementation of Items
-                                        final Material material = Material.matchMaterial(line.substring(5));
-                                        if (material != null) {
-                                            LogUtils.getLogger().log(Level.WARNING, "You use the Old method to define a hover item, this still work, but use the new method,"
-                                                    + " defining it as a BetonQuest Item in the items.yml. The compatibility will be removed in 1.13");
-                                            hologram.appendItemLine(new ItemStack(material));
-                                        }
-                                        //Remove up to here
-                                    }
-                                } else {
-                                    hologram.appendTextLine(line.replace('&', '§'));
-                                }
-                            }
-                            npcHologram.hologram = hologram;
-                        }
+                npcHologram.hologram = createHologram(npcHologram.config,
+                        npc.getStoredLocation().clone().add(npcHologram.config.vector));
+                npcHologram.tracked = visibility.add(npcHologram.hologram, npcHologram.config.conditions, interval);
+            }
+        }
+    }
 
-                        // We do this a tick later to work around a bug where holograms simply don't appear
-                        Bukkit.getServer().getScheduler().runTaskLaterAsynchronously(BetonQuest.getInstance(), () -> {
-                            if (npcHologram.hologram != null) {
-                                npcHologram.hologram.getVisibilityManager().showTo(player);
-                            }
-                        }, 5);
-
-                    } else {
-                        if (npcHologram.hologram != null) {
-                            Bukkit.getServer().getScheduler().runTaskLaterAsynchronously(BetonQuest.getInstance(), () -> {
-                                if (npcHologram.hologram != null) {
-                                    npcHologram.hologram.getVisibilityManager().hideTo(player);
-                                }
-                            }, 5);
-                        }
+    private Hologram createHologram(final HologramConfig config, final Location location) {
+        final Hologram hologram = HologramsAPI.createHologram(BetonQuest.getInstance(), location);
+        hologram.getVisibilityManager().setVisibleByDefault(false);
+        for (final String line : config.settings.getStringList("lines")) {
+            if (line.startsWith("item:")) {
+                try {
+                    final String[] args = line.substring(5).split(":");
+                    final ItemID itemID = new ItemID(config.pack, args[0]);
+                    int stackSize = 1;
+                    try {
+                        stackSize = Integer.valueOf(args[1]);
+                    } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
                     }
-                }
-
-                if (hologramEnabled) {
-                    npcUpdater = true;
-                } else {
-                    // Destroy hologram
-                    if (npcHologram.hologram != null) {
-
-                        npcHologram.hologram.delete();
-                        npcHologram.hologram = null;
+                    final ItemStack stack = new QuestItem(itemID).generate(stackSize);
+                    stack.setAmount(stackSize);
+                    hologram.appendItemLine(stack);
+                } catch (InstructionParseException e) {
+                    LogUtils.getLogger().log(Level.WARNING, "Could not parse item " + line.substring(5) + " hologram: "
+                            + e.getMessage());
+                    LogUtils.logThrowable(e);
+                } catch (ObjectNotFoundException e) {
+                    LogUtils.getLogger().log(Level.WARNING, "Could not find item in " + line.substring(5).split(":")[0]
+                            + " hologram: " + e.getMessage());
+                    LogUtils.logThrowable(e);
+
+                    //TODO Remove this code in the version 1.13 or later
+                    //This support the old implementation of Items
+                    final Material material = Material.matchMaterial(line.substring(5));
+                    if (material != null) {
+                        LogUtils.getLogger().log(Level.WARNING, "You use the Old method to define a hover item, this still work, but use the new method,"
+                                + " defining it as a BetonQuest Item in the items.yml. The compatibility will be removed in 1.13");
+                        hologram.appendItemLine(new ItemStack(material));
                     }
+                    //Remove up to here
                 }
+            } else {
+                hologram.appendTextLine(line.replace('&', '§'));
             }
-
         }
+        return hologram;
+    }
 
-        if (npcUpdater) {
-            if (updater == null) {
-                // The updater only runs when at least one hologram is visible to ensure it stays relative to npc location
-                updater = new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        for (final String npcID : npcs.keySet()) {
-                            for (final NPCHologram npcHologram : npcs.get(npcID)) {
-                                if (npcHologram.hologram != null) {
-                                    final NPC npc = CitizensAPI.getNPCRegistry().getById(Integer.parseInt(npcID));
-                                    if (npc != null) {
-                                        npcHologram.hologram.teleport(npc.getStoredLocation().clone().add(npcHologram.config.vector));
-                                    }
-                                }
-                            }
-
-                        }
-                    }
-                };
-                if (follow) {
-                    updater.runTaskTimer(BetonQuest.getInstance(), 1L, 1L);
-                } else {
-                    updater.runTaskLater(BetonQuest.getInstance(), 1L);
-                }
+    /**
+     * Moves the holograms to their NPCs, but only if the NPC has moved, so no
+     * packets are sent for standing NPCs.
+     */
+    private void updatePositions() {
+        for (final String npcID : npcs.keySet()) {
+            final NPC npc = CitizensAPI.getNPCRegistry().getById(Integer.parseInt(npcID));
+            if (npc == null || npc.getStoredLocation() == null) {
+                continue;
             }
-        } else {
-            if (updater != null) {
-                updater.cancel();
-                updater = null;
+            for (final NPCHologram npcHologram : npcs.get(npcID)) {
+                if (npcHologram.hologram == null || npcHologram.hologram.isDeleted()) {
+                    continue;
+                }
+                final Location target = npc.getStoredLocation().clone().add(npcHologram.config.vector);
+                final Location current = npcHologram.hologram.getLocation();
+                if (!target.getWorld().equals(current.getWorld()) || target.distanceSquared(current) > MOVE_THRESHOLD) {
+                    npcHologram.hologram.teleport(target);
+                }
             }
         }
     }
@@ -341,6 +301,7 @@ public class CitizensHologram extends BukkitRunnable implements Listener {
     private class NPCHologram {
         private HologramConfig config;
         private Hologram hologram;
+        private TrackedHologram tracked;
 
         public NPCHologram() {
         }
@@ -5,6 +5,7 @@ import net.citizensnpcs.api.CitizensAPI;
 import net.citizensnpcs.api.npc.NPC;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
@@ -19,18 +20,31 @@ import pl.betoncraft.betonquest.utils.LogUtils;
 import pl.betoncraft.betonquest.utils.PlayerConverter;
 
 import java.util.*;
-import java.util.Map.Entry;
 import java.util.logging.Level;
 
 /**
  * Displays a particle above NPCs with conversations.
+ * <p>
+ * Conditions are only checked every check interval and the results are kept
+ * until the next check. Effects are only shown to players in the chunks
+ * around the NPC and within the render distance, and only a limited amount of
+ * effects is started in a single tick. Effects over the limit wait in a queue
+ * and are started in the next ticks, unless the effect is due again by then.
  */
 public class CitizensParticle extends BukkitRunnable {
 
     private static CitizensParticle instance;
-    private final Map<UUID, Map<Integer, Effect>> players = new HashMap<>();
     private final List<Effect> effects = new ArrayList<>();
+    private final Map<Integer, List<Effect>> npcEffects = new HashMap<>();
+    private final List<NPC> npcs = new ArrayList<>();
+    private final Map<UUID, boolean[]> conditionResults = new HashMap<>();
+    private final Map<World, Map<Long, List<Player>>> chunks = new HashMap<>();
+    private final Deque<Pending> pending = new ArrayDeque<>();
+    private final Location npcLocation = new Location(null, 0, 0, 0);
+    private final Location playerLocation = new Location(null, 0, 0, 0);
     private int interval = 100;
+    private double renderDistance = 32;
+    private int maxEffects = 100;
     private int tick = 0;
     private boolean enabled = false;
 
@@ -60,6 +74,15 @@ public class CitizensParticle extends BukkitRunnable {
                 return;
             }
 
+            // load the distance from which the effects are seen and the limit of effects in one tick
+            renderDistance = section.getDouble("render_distance", 32);
+            maxEffects = section.getInt("max_effects_per_tick", 100);
+            if (renderDistance <= 0 || maxEffects <= 0) {
+                LogUtils.getLogger().log(Level.WARNING, "Could not load npc effects of package " + pack.getName() + ": " +
+                        "Render distance and max effects per tick must be bigger than 0.");
+                return;
+            }
+
             // loading all effects
             for (final String key : section.getKeys(false)) {
                 final ConfigurationSection settings = section.getConfigurationSection(key);
@@ -116,11 +139,19 @@ public class CitizensParticle extends BukkitRunnable {
                 effect.settings = settings;
 
                 // add Effect
+                effect.index = effects.size();
                 effects.add(effect);
 
             }
         }
 
+        // group the effects by NPCs, keeping their order
+        for (final Effect effect : effects) {
+            for (final Integer npcID : effect.npcs) {
+                npcEffects.computeIfAbsent(npcID, key -> new ArrayList<>()).add(effect);
+            }
+        }
+
         runTaskTimer(BetonQuest.getInstance(), 1, 1);
         enabled = true;
     }
@@ -143,96 +174,154 @@ public class CitizensParticle extends BukkitRunnable {
             checkConditions();
         }
 
-        // run effects for all players
-        activateEffects();
+        // queue effects which are due for all players and start as many as allowed
+        if (isAnyEffectDue()) {
+            queueEffects();
+        }
+        startEffects();
 
         tick++;
     }
 
     private void checkConditions() {
 
-        // clear previous assignments
-        players.clear();
+        // resolve the NPCs, so they are not looked up every tick
+        npcs.clear();
+        for (final Integer npcID : npcEffects.keySet()) {
+            final NPC npc = CitizensAPI.getNPCRegistry().getById(npcID);
+            if (npc != null) {
+                npcs.add(npc);
+            }
+        }
 
-        // every player needs to generate their assignment
+        // store which effects every player can see until the next check
+        conditionResults.clear();
         for (final Player player : Bukkit.getOnlinePlayers()) {
-
-            // wrap an assignment map
-            final Map<Integer, Effect> assignments = new HashMap<>();
-
-            // handle all effects
-            for (final Effect effect : effects) {
-
-                // skip the effect if conditions are not met
-                if (!BetonQuest.conditions(PlayerConverter.getID(player), effect.conditions)) {
-                    continue;
-                }
-
-                // assign this effect to all NPCs which don't have already assigned effects
-                for (final Integer npc : effect.npcs) {
-                    if (!assignments.containsKey(npc)) {
-                        assignments.put(npc, effect);
-                    }
-                }
-
+            final String playerID = PlayerConverter.getID(player);
+            final boolean[] results = new boolean[effects.size()];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = BetonQuest.conditions(playerID, effects.get(i).conditions);
             }
-
-            // put assignments into the main map
-            players.put(player.getUniqueId(), assignments);
+            conditionResults.put(player.getUniqueId(), results);
         }
     }
 
-    private void activateEffects() {
+    private boolean isAnyEffectDue() {
+        for (final Effect effect : effects) {
+            if (tick % effect.interval == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        // display effects for all players
+    private void groupPlayers() {
+        chunks.clear();
         for (final Player player : Bukkit.getOnlinePlayers()) {
-
-            // get NPC-effect assignments for this player
-            final Map<Integer, Effect> assignments = players.get(player.getUniqueId());
-
-            // skip if there are no assignments for this player
-            if (assignments == null) {
+            if (!conditionResults.containsKey(player.getUniqueId())) {
                 continue;
             }
+            player.getLocation(playerLocation);
+            chunks.computeIfAbsent(playerLocation.getWorld(), world -> new HashMap<>())
+                    .computeIfAbsent(getChunkKey(playerLocation.getBlockX() >> 4, playerLocation.getBlockZ() >> 4),
+                            key -> new ArrayList<>())
+                    .add(player);
+        }
+    }
 
-            // display effects on all NPCs
-            for (final Entry<Integer, Effect> entry : assignments.entrySet()) {
-                final Integer npcId = entry.getKey();
-                final Effect effect = entry.getValue();
+    private static long getChunkKey(final int chunkX, final int chunkZ) {
+        return (long) chunkX << 32 | chunkZ & 0xFFFFFFFFL;
+    }
+
+    private void queueEffects() {
+        groupPlayers();
+        for (final NPC npc : npcs) {
+            queueEffects(npc);
+        }
+    }
 
-                // skip this effect if it's not its time
-                if (tick % effect.interval != 0) {
+    private void queueEffects(final NPC npc) {
+        final List<Effect> npcEffectList = npcEffects.get(npc.getId());
+        if (!npc.isSpawned() || npcEffectList == null) {
+            return;
+        }
+        npc.getEntity().getLocation(npcLocation);
+        final Map<Long, List<Player>> worldChunks = chunks.get(npcLocation.getWorld());
+        if (worldChunks == null) {
+            return;
+        }
+        final int chunkX = npcLocation.getBlockX() >> 4;
+        final int chunkZ = npcLocation.getBlockZ() >> 4;
+        final int chunkRadius = (int) Math.ceil(renderDistance / 16);
+        for (int cellX = chunkX - chunkRadius; cellX <= chunkX + chunkRadius; cellX++) {
+            for (int cellZ = chunkZ - chunkRadius; cellZ <= chunkZ + chunkRadius; cellZ++) {
+                final List<Player> chunkPlayers = worldChunks.get(getChunkKey(cellX, cellZ));
+                if (chunkPlayers == null) {
                     continue;
                 }
+                for (final Player player : chunkPlayers) {
+                    queueEffect(npc, npcEffectList, player);
+                }
+            }
+        }
+    }
 
-                // get the NPC from its ID
-                final NPC npc = CitizensAPI.getNPCRegistry().getById(npcId);
+    private void queueEffect(final NPC npc, final List<Effect> npcEffectList, final Player player) {
+        player.getLocation(playerLocation);
+        if (playerLocation.distanceSquared(npcLocation) > renderDistance * renderDistance) {
+            return;
+        }
 
-                // skip if there are no such NPC or it's not spawned or not visible
-                if (npc == null || !npc.isSpawned() || npc.getEntity().getWorld() != player.getWorld() ||
-                        NPCHider.getInstance() != null && NPCHider.getInstance().isInvisible(player, npc)) {
-                    continue;
-                }
+        // the first effect which the player can see is assigned to this NPC
+        final boolean[] results = conditionResults.get(player.getUniqueId());
+        Effect effect = null;
+        for (final Effect candidate : npcEffectList) {
+            if (results[candidate.index]) {
+                effect = candidate;
+                break;
+            }
+        }
+
+        // skip this effect if it's not its time
+        if (effect == null || tick % effect.interval != 0) {
+            return;
+        }
+        pending.addLast(new Pending(npc, player, effect, tick));
+    }
 
-                // prepare effect location
-                final Location loc = npc.getStoredLocation().clone();
-                loc.setPitch(-90);
-
-                // fire the effect
-                EffectLibIntegrator.getEffectManager().start(
-                        effect.name,
-                        effect.settings,
-                        new DynamicLocation(loc, null),
-                        new DynamicLocation(null, null),
-                        (ConfigurationSection) null,
-                        player);
+    private void startEffects() {
+        int started = 0;
+        while (started < maxEffects && !pending.isEmpty()) {
+            if (startEffect(pending.pollFirst())) {
+                started++;
             }
         }
     }
 
+    private boolean startEffect(final Pending work) {
+        // the effect was started again in the meantime, or the NPC or the player are gone
+        if (tick - work.dueTick >= work.effect.interval || !work.npc.isSpawned() || !work.player.isOnline()
+                || NPCHider.getInstance() != null && NPCHider.getInstance().isInvisible(work.player, work.npc)) {
+            return false;
+        }
+
+        // fire the effect, the location is copied by EffectLib
+        work.npc.getEntity().getLocation(npcLocation);
+        npcLocation.setPitch(-90);
+        EffectLibIntegrator.getEffectManager().start(
+                work.effect.name,
+                work.effect.settings,
+                new DynamicLocation(npcLocation, null),
+                new DynamicLocation(null, null),
+                (ConfigurationSection) null,
+                work.player);
+        return true;
+    }
+
     private class Effect {
 
         private String name;
+        private int index;
         private int interval;
         private Set<Integer> npcs;
         private List<ConditionID> conditions;
@@ -242,4 +331,22 @@ public class CitizensParticle extends BukkitRunnable {
         }
     }
 
+    /**
+     * An effect which is due for a player, waiting to be started
+     */
+    private static class Pending {
+
+        private final NPC npc;
+        private final Player player;
+        private final Effect effect;
+        private final int dueTick;
+
+        /* default */ Pending(final NPC npc, final Player player, final Effect effect, final int dueTick) {
+            this.npc = npc;
+            this.player = player;
+            this.effect = effect;
+            this.dueTick = dueTick;
+        }
+    }
+
 }
@@ -6,10 +6,9 @@ import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitRunnable;
 import pl.betoncraft.betonquest.BetonQuest;
+import pl.betoncraft.betonquest.compatibility.holographicdisplays.HologramVisibility.TrackedHologram;
 import pl.betoncraft.betonquest.config.Config;
 import pl.betoncraft.betonquest.config.ConfigPackage;
 import pl.betoncraft.betonquest.exceptions.InstructionParseException;
@@ -19,9 +18,9 @@ import pl.betoncraft.betonquest.id.ConditionID;
 import pl.betoncraft.betonquest.id.ItemID;
 import pl.betoncraft.betonquest.item.QuestItem;
 import pl.betoncraft.betonquest.utils.LogUtils;
-import pl.betoncraft.betonquest.utils.PlayerConverter;
 import pl.betoncraft.betonquest.utils.location.CompoundLocation;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,14 +32,18 @@ import java.util.logging.Level;
  */
 public class HologramLoop {
 
-    private final Map<Hologram, ConditionID[]> holograms = new HashMap<>();
-    private final Map<Hologram, BukkitRunnable> runnables = new HashMap<>();
-    private BukkitRunnable runnable;
+    private final Map<Hologram, TrackedHologram> holograms = new HashMap<>();
+    private final HologramVisibility visibility;
 
     /**
-     * Starts a loop, which checks hologram conditions and shows them to players.
+     * Creates the holograms and passes them to the visibility engine, which
+     * checks their conditions and shows them to players.
+     *
+     * @param visibility the visibility engine
      */
-    public HologramLoop() {
+    public HologramLoop(final HologramVisibility visibility) {
+        this.visibility = visibility;
+        final int defaultInterval = BetonQuest.getInstance().getConfig().getInt("hologram_update_interval", 20 * 10);
         // get all holograms and their condition
         for (final ConfigPackage pack : Config.getPackages().values()) {
             final String packName = pack.getName();
@@ -121,62 +124,21 @@ public class HologramLoop {
                         hologram.appendTextLine(line.replace('&', '§'));
                     }
                 }
-                if (checkInterval == 0) {
-                    holograms.put(hologram, conditions);
-                } else {
-                    final ConditionID[] conditionsList = conditions;
-                    final BukkitRunnable runnable = new BukkitRunnable() {
-                        @Override
-                        public void run() {
-                            for (final Player player : Bukkit.getOnlinePlayers()) {
-                                final String playerID = PlayerConverter.getID(player);
-                                if (!BetonQuest.conditions(playerID, conditionsList)) {
-                                    hologram.getVisibilityManager().hideTo(player);
-                                    continue;
-                                }
-                                hologram.getVisibilityManager().showTo(player);
-                            }
-                        }
-                    };
-                    runnable.runTaskTimerAsynchronously(BetonQuest.getInstance(), 20, checkInterval);
-                    runnables.put(hologram, runnable);
-                }
+                holograms.put(hologram, visibility.add(hologram, Arrays.asList(conditions),
+                        checkInterval == 0 ? defaultInterval : checkInterval));
             }
         }
-        // loop the holograms to show/hide them
-        runnable = new BukkitRunnable() {
-            @Override
-            public void run() {
-                for (final Player player : Bukkit.getOnlinePlayers()) {
-                    final String playerID = PlayerConverter.getID(player);
-                    for (final Entry<Hologram, ConditionID[]> entry : holograms.entrySet()) {
-                        if (!BetonQuest.conditions(playerID, entry.getValue())) {
-                            entry.getKey().getVisibilityManager().hideTo(player);
-                            continue;
-                        }
-                        entry.getKey().getVisibilityManager().showTo(player);
-                    }
-                }
-            }
-        };
-        runnable.runTaskTimerAsynchronously(BetonQuest.getInstance(), 20, BetonQuest.getInstance().getConfig()
-                .getInt("hologram_update_interval", 20 * 10));
     }
 
     /**
-     * Cancels hologram updating loop and removes all BetonQuest-registered holograms.
+     * Stops showing the holograms and removes all BetonQuest-registered holograms.
      */
     public void cancel() {
-        if (runnable != null) {
-            runnable.cancel();
-            for (final Hologram hologram : holograms.keySet()) {
-                hologram.delete();
-            }
-        }
-        for (final Entry<Hologram, BukkitRunnable> h : runnables.entrySet()) {
-            h.getValue().cancel();
-            h.getKey().delete();
+        for (final Entry<Hologram, TrackedHologram> entry : holograms.entrySet()) {
+            visibility.remove(entry.getValue());
+            entry.getKey().delete();
         }
+        holograms.clear();
     }
 
 }
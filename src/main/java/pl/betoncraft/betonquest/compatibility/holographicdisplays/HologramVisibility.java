@@ -0,0 +1,203 @@
+package pl.betoncraft.betonquest.compatibility.holographicdisplays;
+
+import com.gmail.filoghost.holographicdisplays.api.Hologram;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
+import pl.betoncraft.betonquest.BetonQuest;
+import pl.betoncraft.betonquest.id.ConditionID;
+import pl.betoncraft.betonquest.utils.PlayerConverter;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shows and hides conditioned holograms. Conditions are only checked for
+ * players who are close enough to see the hologram, the checks are spread
+ * over ticks so they never take more than the configured time of a single
+ * tick, and a hologram is only shown or hidden when its visibility for the
+ * player changes.
+ */
+public class HologramVisibility implements Listener {
+
+    private final List<TrackedHologram> holograms = new CopyOnWriteArrayList<>();
+    private final Deque<Check> pending = new ArrayDeque<>();
+    private final BukkitTask task;
+    private int viewDistance;
+    private long budget;
+    private long currentTick;
+
+    /**
+     * Creates new visibility engine, registers its listener and starts its task.
+     */
+    public HologramVisibility() {
+        loadSettings();
+        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
+        task = Bukkit.getScheduler().runTaskTimer(BetonQuest.getInstance(), this::tick, 1, 1);
+    }
+
+    /**
+     * Reads the view distance and the time budget from the configuration.
+     */
+    public final void loadSettings() {
+        viewDistance = Math.max(1, BetonQuest.getInstance().getConfig().getInt("hologram_view_distance",
+                Bukkit.getViewDistance()));
+        budget = TimeUnit.MICROSECONDS.toNanos(Math.max(1, (long) (BetonQuest.getInstance().getConfig()
+                .getDouble("hologram_tick_budget", 2) * 1000)));
+    }
+
+    /**
+     * Starts managing the visibility of the hologram. The hologram should be
+     * hidden by default.
+     *
+     * @param hologram   the hologram
+     * @param conditions conditions the player has to meet to see the hologram
+     * @param interval   amount of ticks between checks of the conditions
+     * @return the tracked hologram, used to stop managing it
+     */
+    public TrackedHologram add(final Hologram hologram, final Collection<ConditionID> conditions,
+                               final long interval) {
+        final TrackedHologram tracked = new TrackedHologram(hologram, conditions, Math.max(1, interval));
+        holograms.add(tracked);
+        return tracked;
+    }
+
+    /**
+     * Stops managing the visibility of the hologram. It is not hidden from
+     * players who can see it.
+     *
+     * @param tracked the hologram returned by {@link #add(Hologram, Collection, long)}
+     */
+    public void remove(final TrackedHologram tracked) {
+        tracked.removed = true;
+        holograms.remove(tracked);
+    }
+
+    /**
+     * @return the amount of managed holograms
+     */
+    public int getSize() {
+        return holograms.size();
+    }
+
+    /**
+     * Stops the task and the listener.
+     */
+    public void close() {
+        task.cancel();
+        HandlerList.unregisterAll(this);
+        holograms.clear();
+        pending.clear();
+    }
+
+    @EventHandler
+    public void onQuit(final PlayerQuitEvent event) {
+        final Player player = event.getPlayer();
+        for (final TrackedHologram tracked : holograms) {
+            tracked.viewers.remove(player.getUniqueId());
+            // drop the player's visibility from the hologram too, so it is hidden by default when they come back
+            if (!tracked.hologram.isDeleted()) {
+                tracked.hologram.getVisibilityManager().resetVisibility(player);
+            }
+        }
+    }
+
+    private void tick() {
+        currentTick++;
+        for (final TrackedHologram tracked : holograms) {
+            if (tracked.nextCheck <= currentTick && tracked.queued == 0) {
+                tracked.nextCheck = currentTick + tracked.interval;
+                schedule(tracked);
+            }
+        }
+        final long start = System.nanoTime();
+        while (!pending.isEmpty() && System.nanoTime() - start < budget) {
+            final Check check = pending.poll();
+            check.tracked.queued--;
+            if (!check.tracked.removed && check.player.isOnline()) {
+                check.tracked.update(check.player,
+                        BetonQuest.conditions(PlayerConverter.getID(check.player), check.tracked.conditions));
+            }
+        }
+    }
+
+    private void schedule(final TrackedHologram tracked) {
+        if (tracked.hologram.isDeleted()) {
+            return;
+        }
+        final Location location = tracked.hologram.getLocation();
+        final World world = location.getWorld();
+        final int chunkX = location.getBlockX() >> 4;
+        final int chunkZ = location.getBlockZ() >> 4;
+        for (final Player player : Bukkit.getOnlinePlayers()) {
+            final Location playerLocation = player.getLocation();
+            if (playerLocation.getWorld().equals(world)
+                    && Math.abs((playerLocation.getBlockX() >> 4) - chunkX) <= viewDistance
+                    && Math.abs((playerLocation.getBlockZ() >> 4) - chunkZ) <= viewDistance) {
+                pending.add(new Check(tracked, player));
+                tracked.queued++;
+            } else {
+                tracked.update(player, false);
+            }
+        }
+    }
+
+    /**
+     * A hologram with the conditions of its visibility and the players who
+     * can currently see it
+     */
+    public static class TrackedHologram {
+
+        private final Hologram hologram;
+        private final ConditionID[] conditions;
+        private final long interval;
+        private final Set<UUID> viewers = ConcurrentHashMap.newKeySet();
+        private long nextCheck;
+        private int queued;
+        private volatile boolean removed;
+
+        /* default */ TrackedHologram(final Hologram hologram, final Collection<ConditionID> conditions,
+                                      final long interval) {
+            this.hologram = hologram;
+            this.conditions = conditions.toArray(new ConditionID[0]);
+            this.interval = interval;
+        }
+
+        private void update(final Player player, final boolean visible) {
+            if (visible) {
+                if (viewers.add(player.getUniqueId())) {
+                    hologram.getVisibilityManager().showTo(player);
+                }
+            } else if (viewers.remove(player.getUniqueId())) {
+                hologram.getVisibilityManager().hideTo(player);
+            }
+        }
+    }
+
+    /**
+     * A pending check of a hologram for a single player
+     */
+    private static class Check {
+
+        private final TrackedHologram tracked;
+        private final Player player;
+
+        /* default */ Check(final TrackedHologram tracked, final Player player) {
+            this.tracked = tracked;
+            this.player = player;
+        }
+    }
+}
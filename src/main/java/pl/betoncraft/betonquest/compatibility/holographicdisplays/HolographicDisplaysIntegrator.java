@@ -8,15 +8,24 @@ import pl.betoncraft.betonquest.compatibility.citizens.CitizensHologram;
 public class HolographicDisplaysIntegrator implements Integrator {
 
     private static HolographicDisplaysIntegrator instance;
+    private HologramVisibility visibility;
     private HologramLoop hologramLoop;
 
     public HolographicDisplaysIntegrator() {
         instance = this;
     }
 
+    /**
+     * @return the engine showing conditioned holograms, or null if HolographicDisplays is not hooked
+     */
+    public static HologramVisibility getVisibility() {
+        return instance == null ? null : instance.visibility;
+    }
+
     @Override
     public void hook() {
-        hologramLoop = new HologramLoop();
+        visibility = new HologramVisibility();
+        hologramLoop = new HologramLoop(visibility);
 
         // if Citizens is hooked, start CitizensHologram
         if (Compatibility.getHooked().contains("Citizens")) {
@@ -28,7 +37,8 @@ public class HolographicDisplaysIntegrator implements Integrator {
     public void reload() {
         if (instance.hologramLoop != null) {
             instance.hologramLoop.cancel();
-            instance.hologramLoop = new HologramLoop();
+            instance.visibility.loadSettings();
+            instance.hologramLoop = new HologramLoop(instance.visibility);
         }
     }
 
@@ -37,6 +47,9 @@ public class HolographicDisplaysIntegrator implements Integrator {
         if (instance.hologramLoop != null) {
             hologramLoop.cancel();
         }
+        if (visibility != null) {
+            visibility.close();
+        }
     }
 
 }
@@ -8,8 +8,11 @@ import pl.betoncraft.betonquest.utils.PlayerConverter;
 
 public class BetonQuestPlaceholder extends PlaceholderExpansion {
 
-    public BetonQuestPlaceholder() {
+    private final PlaceholderCache cache;
+
+    public BetonQuestPlaceholder(final PlaceholderCache cache) {
         super();
+        this.cache = cache;
     }
 
     /**
@@ -71,6 +74,9 @@ public class BetonQuestPlaceholder extends PlaceholderExpansion {
      */
     @Override
     public String onPlaceholderRequest(final Player player, final String identifier) {
+        if (player == null) {
+            return "";
+        }
         final String pack;
         final String placeholderIdentifier;
         final int index = identifier.indexOf(':');
@@ -81,7 +87,7 @@ public class BetonQuestPlaceholder extends PlaceholderExpansion {
             pack = identifier.substring(0, index);
             placeholderIdentifier = identifier.substring(index + 1);
         }
-        return BetonQuest.getInstance().getVariableValue(pack, '%' + placeholderIdentifier + '%', PlayerConverter.getID(player));
+        return cache.getValue(pack, '%' + placeholderIdentifier + '%', PlayerConverter.getID(player));
     }
 
 }
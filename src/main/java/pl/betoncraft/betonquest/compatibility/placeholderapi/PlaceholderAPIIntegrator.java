@@ -7,6 +7,7 @@ import pl.betoncraft.betonquest.compatibility.Integrator;
 public class PlaceholderAPIIntegrator implements Integrator {
 
     private final BetonQuest plugin;
+    private PlaceholderCache cache;
 
     public PlaceholderAPIIntegrator() {
         plugin = BetonQuest.getInstance();
@@ -15,17 +16,22 @@ public class PlaceholderAPIIntegrator implements Integrator {
     @Override
     public void hook() {
         plugin.registerVariable("ph", PlaceholderVariable.class);
-        new BetonQuestPlaceholder().register();
+        cache = new PlaceholderCache();
+        new BetonQuestPlaceholder(cache).register();
     }
 
     @Override
     public void reload() {
-
+        if (cache != null) {
+            cache.reload();
+        }
     }
 
     @Override
     public void close() {
-
+        if (cache != null) {
+            cache.close();
+        }
     }
 
 }
@@ -0,0 +1,164 @@
+package pl.betoncraft.betonquest.compatibility.placeholderapi;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import pl.betoncraft.betonquest.BetonQuest;
+import pl.betoncraft.betonquest.database.PlayerData;
+import pl.betoncraft.betonquest.utils.PlayerConverter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers resolved placeholders for every player for a short time.
+ * A value is discarded as soon as the player's tags, points, objectives or
+ * backpack change, so only values which don't depend on this data (like
+ * locations) can be outdated, and only for the configured time. When the
+ * cache is full, the value used least recently is discarded. Values of a
+ * player are discarded when the player leaves the server.
+ */
+public class PlaceholderCache implements Listener {
+
+    private static PlaceholderCache instance;
+
+    private final Map<String, CachedValue> values = new LinkedHashMap<String, CachedValue>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, CachedValue> eldest) {
+            return size() > maxSize;
+        }
+    };
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long ttl;
+    private int maxSize;
+
+    /**
+     * Creates new cache with the settings from the config.
+     */
+    public PlaceholderCache() {
+        reload();
+        instance = this;
+        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
+    }
+
+    /**
+     * @return the cache used by the placeholder expansion or null if
+     * PlaceholderAPI is not hooked
+     */
+    public static PlaceholderCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Reads the settings from the config and discards all values.
+     */
+    public final void reload() {
+        ttl = TimeUnit.MILLISECONDS.toNanos(BetonQuest.getInstance().getConfig().getLong("placeholder_cache.ttl", 1000));
+        synchronized (values) {
+            maxSize = BetonQuest.getInstance().getConfig().getInt("placeholder_cache.max_size", 10_000);
+            values.clear();
+        }
+    }
+
+    /**
+     * Returns the value of the variable for the player, resolving it only if
+     * there is no valid value in the cache.
+     *
+     * @param pack     name of the package of the variable
+     * @param variable the variable, including % characters
+     * @param playerID ID of the player
+     * @return the value of the variable
+     */
+    public String getValue(final String pack, final String variable, final String playerID) {
+        final PlayerData playerData = BetonQuest.getInstance().getPlayerData(playerID);
+        if (ttl <= 0 || playerData == null) {
+            misses.increment();
+            return BetonQuest.getInstance().getVariableValue(pack, variable, playerID);
+        }
+        final String key = playerID + ' ' + pack + ' ' + variable;
+        final long now = System.nanoTime();
+        final long version = playerData.getDataVersion();
+        final CachedValue cached;
+        synchronized (values) {
+            cached = values.get(key);
+        }
+        if (cached != null && cached.version == version && now - cached.time < ttl) {
+            hits.increment();
+            return cached.value;
+        }
+        misses.increment();
+        final String value = BetonQuest.getInstance().getVariableValue(pack, variable, playerID);
+        if (value == null) {
+            return null;
+        }
+        synchronized (values) {
+            values.put(key, new CachedValue(value, version, now));
+        }
+        return value;
+    }
+
+    /**
+     * @return the amount of values taken from the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the amount of values which had to be resolved
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the amount of values currently in the cache
+     */
+    public int getSize() {
+        synchronized (values) {
+            return values.size();
+        }
+    }
+
+    /**
+     * Stops the listener and discards all values.
+     */
+    public void close() {
+        HandlerList.unregisterAll(this);
+        synchronized (values) {
+            values.clear();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(final PlayerQuitEvent event) {
+        final String prefix = PlayerConverter.getID(event.getPlayer()) + ' ';
+        synchronized (values) {
+            values.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    /**
+     * A resolved value with the data version and time it was resolved at
+     */
+    private static class CachedValue {
+
+        private final String value;
+        private final long version;
+        private final long time;
+
+        /* default */ CachedValue(final String value, final long version, final long time) {
+            this.value = value;
+            this.version = version;
+            this.time = time;
+        }
+    }
+}
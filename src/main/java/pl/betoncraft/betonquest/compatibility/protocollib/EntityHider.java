@@ -7,8 +7,6 @@ import com.comphenix.protocol.events.PacketAdapter;
 import com.comphenix.protocol.events.PacketContainer;
 import com.comphenix.protocol.events.PacketEvent;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -18,15 +16,10 @@ import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.plugin.Plugin;
-import pl.betoncraft.betonquest.utils.LogUtils;
+import pl.betoncraft.betonquest.utils.LongHashSet;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.logging.Level;
 
 import static com.comphenix.protocol.PacketType.Play.Server.*;
 
@@ -44,7 +37,12 @@ public class EntityHider implements Listener {
     };
     // Current policy
     protected final Policy policy;
-    protected Table<Integer, Integer, Boolean> observerEntityMap = HashBasedTable.create();
+    // Pairs of observer and entity IDs, see getKey()
+    protected final LongHashSet observerEntities = new LongHashSet();
+    // IDs of observers and entities which may be in a pair, so removing one of them only
+    // looks up its possible pairs; both are guarded by observerEntities
+    private final LongHashSet observers = new LongHashSet();
+    private final LongHashSet entities = new LongHashSet();
     private ProtocolManager manager;
 
     // Listeners
@@ -71,6 +69,10 @@ public class EntityHider implements Listener {
                 protocolListener = constructProtocol(plugin));
     }
 
+    private static long getKey(final int observerID, final int entityID) {
+        return (long) observerID << 32 | entityID & 0xFFFFFFFFL;
+    }
+
     /**
      * Set the visibility status of a given entity for a particular observer.
      *
@@ -102,10 +104,15 @@ public class EntityHider implements Listener {
      */
     // Helper method
     protected boolean updateMembership(final Player observer, final int entityID, final boolean member) {
-        if (member) {
-            return observerEntityMap.put(observer.getEntityId(), entityID, true) != null;
-        } else {
-            return observerEntityMap.remove(observer.getEntityId(), entityID) != null;
+        final int observerID = observer.getEntityId();
+        final long key = getKey(observerID, entityID);
+        synchronized (observerEntities) {
+            if (!member) {
+                return observerEntities.remove(key);
+            }
+            observers.add(observerID);
+            entities.add(entityID);
+            return !observerEntities.add(key);
         }
     }
 
@@ -117,12 +124,9 @@ public class EntityHider implements Listener {
      * @return TRUE if they are present, FALSE otherwise.
      */
     protected boolean getMembership(final Player observer, final int entityID) {
-        try {
-            return observerEntityMap.contains(observer.getEntityId(), entityID);
-        } catch (UnsupportedOperationException e) {
-            LogUtils.getLogger().log(Level.WARNING, "Could not execute an operation: " + e.getMessage());
-            LogUtils.logThrowable(e);
-            return policy == Policy.WHITELIST;
+        final long key = getKey(observer.getEntityId(), entityID);
+        synchronized (observerEntities) {
+            return observerEntities.contains(key);
         }
     }
 
@@ -149,12 +153,21 @@ public class EntityHider implements Listener {
      */
     protected void removeEntity(final Entity entity, final boolean destroyed) {
         final int entityID = entity.getEntityId();
+        synchronized (observerEntities) {
+            if (entities.remove(entityID)) {
+                observers.forEach(observerID -> observerEntities.remove(getKey((int) observerID, entityID)));
+            }
+        }
+    }
 
-        final List<Map.Entry<Integer, Map<Integer, Boolean>>> list = new CopyOnWriteArrayList<>(observerEntityMap.rowMap().entrySet());
-        final Iterator<Map.Entry<Integer, Map<Integer, Boolean>>> iterator = list.iterator();
-
-        while (iterator.hasNext()) {
-            iterator.next().getValue().remove(entityID);
+    /**
+     * Remove all the given entities from the underlying map.
+     *
+     * @param entities - the entities to remove.
+     */
+    protected void removeEntities(final Entity... entities) {
+        for (final Entity entity : entities) {
+            removeEntity(entity, false);
         }
     }
 
@@ -165,7 +178,12 @@ public class EntityHider implements Listener {
      */
     protected void removePlayer(final Player player) {
         // Cleanup
-        observerEntityMap.rowMap().remove(player.getEntityId());
+        final int observerID = player.getEntityId();
+        synchronized (observerEntities) {
+            if (observers.remove(observerID)) {
+                entities.forEach(entityID -> observerEntities.remove(getKey(observerID, (int) entityID)));
+            }
+        }
     }
 
     /**
@@ -183,9 +201,7 @@ public class EntityHider implements Listener {
 
             @EventHandler(ignoreCancelled = true)
             public void onChunkUnload(final ChunkUnloadEvent event) {
-                for (final Entity entity : event.getChunk().getEntities()) {
-                    removeEntity(entity, false);
-                }
+                removeEntities(event.getChunk().getEntities());
             }
 
             @EventHandler(ignoreCancelled = true)
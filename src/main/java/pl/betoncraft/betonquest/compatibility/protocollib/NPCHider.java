@@ -1,20 +1,26 @@
 package pl.betoncraft.betonquest.compatibility.protocollib;
 
 import net.citizensnpcs.api.CitizensAPI;
+import net.citizensnpcs.api.event.NPCRemoveEvent;
 import net.citizensnpcs.api.event.NPCSpawnEvent;
 import net.citizensnpcs.api.npc.NPC;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.scheduler.BukkitRunnable;
 import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.config.Config;
 import pl.betoncraft.betonquest.config.ConfigPackage;
+import pl.betoncraft.betonquest.database.PlayerData;
 import pl.betoncraft.betonquest.exceptions.ObjectNotFoundException;
 import pl.betoncraft.betonquest.id.ConditionID;
 import pl.betoncraft.betonquest.utils.LogUtils;
@@ -22,26 +28,42 @@ import pl.betoncraft.betonquest.utils.PlayerConverter;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 
+/**
+ * Hides NPCs from players who meet their conditions. The visibility of a
+ * player's NPCs is only checked again when something which can change it
+ * happens: the data of the player changes, the player joins or enters
+ * another chunk, or an NPC spawns. All players are also checked by a slow
+ * sweep, for conditions which do not depend on these things.
+ */
 public class NPCHider extends BukkitRunnable implements Listener {
 
     private static NPCHider instance = null;
 
     private final EntityHider hider;
     private final Map<Integer, Set<ConditionID>> npcs;
+    private final Map<Integer, NPC> resolved = new HashMap<>();
+    private final Set<String> changedPlayers = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> spawnedNpcs = new HashSet<>();
+    private final Consumer<String> changeListener = changedPlayers::add;
     private final Integer updateInterval;
+    private long currentTick;
 
     private NPCHider() {
         super();
         npcs = new HashMap<>();
-        updateInterval = BetonQuest.getInstance().getConfig().getInt("hidden_npcs_check_interval", 5 * 20);
+        updateInterval = Math.max(1, BetonQuest.getInstance().getConfig().getInt("hidden_npcs_check_interval", 5 * 20));
         hider = new EntityHider(BetonQuest.getInstance(), EntityHider.Policy.BLACKLIST);
         loadFromConfig();
-        runTaskTimer(BetonQuest.getInstance(), 0, updateInterval);
+        runTaskTimer(BetonQuest.getInstance(), 0, 1);
         Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
+        PlayerData.addChangeListener(changeListener);
     }
 
     /**
@@ -108,7 +130,27 @@ public class NPCHider extends BukkitRunnable implements Listener {
 
     @Override
     public void run() {
-        applyVisibility();
+        currentTick++;
+        if (currentTick % updateInterval == 0) {
+            applyVisibility();
+            changedPlayers.clear();
+            spawnedNpcs.clear();
+            return;
+        }
+        for (final Integer npcID : spawnedNpcs) {
+            for (final Player player : Bukkit.getOnlinePlayers()) {
+                applyVisibility(player, npcID);
+            }
+        }
+        spawnedNpcs.clear();
+        final Iterator<String> iterator = changedPlayers.iterator();
+        while (iterator.hasNext()) {
+            final Player player = PlayerConverter.getPlayer(iterator.next());
+            iterator.remove();
+            if (player != null) {
+                applyVisibility(player);
+            }
+        }
     }
 
     /**
@@ -118,6 +160,18 @@ public class NPCHider extends BukkitRunnable implements Listener {
         hider.close();
         cancel();
         HandlerList.unregisterAll(this);
+        PlayerData.removeChangeListener(changeListener);
+    }
+
+    private NPC getNPC(final Integer npcID) {
+        NPC npc = resolved.get(npcID);
+        if (npc == null) {
+            npc = CitizensAPI.getNPCRegistry().getById(npcID);
+            if (npc != null) {
+                resolved.put(npcID, npc);
+            }
+        }
+        return npc;
     }
 
     /**
@@ -127,7 +181,7 @@ public class NPCHider extends BukkitRunnable implements Listener {
      * @param npcID  ID of the NPC
      */
     public void applyVisibility(final Player player, final Integer npcID) {
-        final NPC npc = CitizensAPI.getNPCRegistry().getById(npcID);
+        final NPC npc = getNPC(npcID);
         if (npc == null) {
             LogUtils.getLogger().log(Level.WARNING, "NPCHider could not update visibility for npc " + npcID + ": No npc with this id found!");
             return;
@@ -192,11 +246,40 @@ public class NPCHider extends BukkitRunnable implements Listener {
 
     @EventHandler(ignoreCancelled = true)
     public void onNPCSpawn(final NPCSpawnEvent event) {
-        applyVisibility(event.getNPC());
+        final NPC npc = event.getNPC();
+        // the entity is not visible to players until the next tick anyway
+        if (npc.getOwningRegistry() == CitizensAPI.getNPCRegistry() && npcs.containsKey(npc.getId())) {
+            resolved.put(npc.getId(), npc);
+            spawnedNpcs.add(npc.getId());
+        }
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onNPCRemove(final NPCRemoveEvent event) {
+        resolved.values().remove(event.getNPC());
     }
 
     @EventHandler(ignoreCancelled = true)
     public void onPlayerJoin(final PlayerJoinEvent event) {
         applyVisibility(event.getPlayer());
     }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMove(final PlayerMoveEvent event) {
+        checkChunk(event);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTeleport(final PlayerTeleportEvent event) {
+        checkChunk(event);
+    }
+
+    private void checkChunk(final PlayerMoveEvent event) {
+        final Location from = event.getFrom();
+        final Location to = event.getTo();
+        if (to != null && (from.getBlockX() >> 4 != to.getBlockX() >> 4 || from.getBlockZ() >> 4 != to.getBlockZ() >> 4
+                || from.getWorld() != to.getWorld())) {
+            changedPlayers.add(PlayerConverter.getID(event.getPlayer()));
+        }
+    }
 }
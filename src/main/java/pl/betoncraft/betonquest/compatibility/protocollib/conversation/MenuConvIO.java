@@ -15,6 +15,8 @@ import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.ArmorStand;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
@@ -42,7 +44,7 @@ import java.util.logging.Level;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public class MenuConvIO extends ChatConvIO {
+public class MenuConvIO extends ChatConvIO implements Listener {
 
     // Thread safety
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
@@ -329,7 +331,6 @@ public class MenuConvIO extends ChatConvIO {
 
     // Override this event from our parent
     @Override
-    @EventHandler(ignoreCancelled = true)
     public void onReply(final AsyncPlayerChatEvent event) {
     }
 
@@ -665,6 +666,7 @@ public class MenuConvIO extends ChatConvIO {
                 displayRunnable = null;
             }
 
+            HandlerList.unregisterAll(this);
             super.end();
         } finally {
             lock.writeLock().unlock();
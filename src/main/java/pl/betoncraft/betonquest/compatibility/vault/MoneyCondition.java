@@ -16,6 +16,7 @@ public class MoneyCondition extends Condition {
 
     public MoneyCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, true);
+        cost = 50;
         amount = instruction.getVarNum();
     }
 
@@ -23,6 +23,7 @@ public class RegionCondition extends Condition {
 
     public RegionCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, true);
+        cost = 50;
         name = instruction.next();
     }
 
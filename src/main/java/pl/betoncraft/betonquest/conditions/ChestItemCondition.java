@@ -20,6 +20,7 @@ public class ChestItemCondition extends Condition {
 
     public ChestItemCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, true);
+        cost = 50;
         staticness = true;
         persistent = true;
         // extract data
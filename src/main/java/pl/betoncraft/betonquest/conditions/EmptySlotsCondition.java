@@ -19,6 +19,7 @@ public class EmptySlotsCondition extends Condition {
 
     public EmptySlotsCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, true);
+        cost = 20;
         needed = instruction.getVarNum();
         equal = instruction.hasArgument("equal");
     }
@@ -5,6 +5,7 @@ import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.metadata.MetadataValue;
+import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.Instruction;
 import pl.betoncraft.betonquest.VariableNumber;
 import pl.betoncraft.betonquest.api.Condition;
@@ -13,6 +14,7 @@ import pl.betoncraft.betonquest.exceptions.QuestRuntimeException;
 import pl.betoncraft.betonquest.utils.Utils;
 import pl.betoncraft.betonquest.utils.location.CompoundLocation;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
@@ -31,6 +33,7 @@ public class EntityCondition extends Condition {
 
     public EntityCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, true);
+        cost = 200;
         staticness = true;
         persistent = true;
         final String[] rawTypes = instruction.getArray();
@@ -77,7 +80,9 @@ public class EntityCondition extends Condition {
         for (int i = 0; i < neededAmounts.length; i++) {
             neededAmounts[i] = 0;
         }
-        final Collection<Entity> entities = location.getWorld().getEntities();
+        final double pRange = range.getDouble(playerID);
+        final Collection<Entity> entities = BetonQuest.getInstance().getEntityQuery()
+                .find(location, pRange, Arrays.asList(types), false);
         loop:
         for (final Entity entity : entities) {
             if (!(entity instanceof LivingEntity)) {
@@ -97,14 +102,11 @@ public class EntityCondition extends Condition {
                     }
                 }
             }
-            final double pRange = range.getDouble(playerID);
-            if (entity.getLocation().distanceSquared(location) < pRange * pRange) {
-                final EntityType theType = entity.getType();
-                for (int i = 0; i < types.length; i++) {
-                    if (theType == types[i]) {
-                        neededAmounts[i]++;
-                        break;
-                    }
+            final EntityType theType = entity.getType();
+            for (int i = 0; i < types.length; i++) {
+                if (theType == types[i]) {
+                    neededAmounts[i]++;
+                    break;
                 }
             }
         }
@@ -18,6 +18,7 @@ public class ExperienceCondition extends Condition {
 
     public ExperienceCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, true);
+        cost = 1;
         this.amount = instruction.getVarNum();
         this.checkForLevel = instruction.hasArgument("level");
     }
@@ -12,6 +12,7 @@ public class FlyingCondition extends Condition {
 
     public FlyingCondition(final Instruction instruction) {
         super(instruction, true);
+        cost = 1;
     }
 
     @Override
@@ -14,6 +14,7 @@ public class GameModeCondition extends Condition {
 
     public GameModeCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, true);
+        cost = 1;
         final String string = instruction.next().toUpperCase(Locale.ROOT);
         try {
             gameMode = GameMode.valueOf(string);
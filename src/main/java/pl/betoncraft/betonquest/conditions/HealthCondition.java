@@ -16,6 +16,7 @@ public class HealthCondition extends Condition {
 
     public HealthCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, true);
+        cost = 1;
         health = instruction.getVarNum();
     }
 
@@ -17,6 +17,7 @@ public class HeightCondition extends Condition {
 
     public HeightCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, true);
+        cost = 1;
         final String string = instruction.next();
         final String packName = instruction.getPackage().getName();
         if (string.matches("\\-?\\d+\\.?\\d*")) {
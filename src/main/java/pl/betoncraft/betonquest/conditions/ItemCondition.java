@@ -9,6 +9,7 @@ import pl.betoncraft.betonquest.exceptions.InstructionParseException;
 import pl.betoncraft.betonquest.exceptions.QuestRuntimeException;
 import pl.betoncraft.betonquest.utils.PlayerConverter;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -20,36 +21,45 @@ public class ItemCondition extends Condition {
 
     public ItemCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, true);
+        cost = 50;
         questItems = instruction.getItemList();
     }
 
     @Override
     protected Boolean execute(final String playerID) throws QuestRuntimeException {
-        int successfulChecks = 0; // Count of successful checks
-
-        for (final Item questItem : questItems) {
-            int counter = 0; // Reset counter for each item
-            final int amount = questItem.getAmount().getInt(playerID);
+        final int[] amounts = new int[questItems.length];
+        for (int i = 0; i < questItems.length; i++) {
+            amounts[i] = questItems[i].getAmount().getInt(playerID);
+        }
+        // count all items in a single pass over the inventory, then the backpack if still needed
+        final int[] counters = new int[questItems.length];
+        count(Arrays.asList(PlayerConverter.getPlayer(playerID).getInventory().getContents()), counters);
+        if (hasAll(counters, amounts)) {
+            return true;
+        }
+        count(BetonQuest.getInstance().getPlayerData(playerID).getBackpack(), counters);
+        return hasAll(counters, amounts);
+    }
 
-            final ItemStack[] inventoryItems = PlayerConverter.getPlayer(playerID).getInventory().getContents();
-            for (final ItemStack item : inventoryItems) {
-                if (item == null || !questItem.isItemEqual(item)) {
-                    continue;
-                }
-                counter += item.getAmount();
+    private void count(final List<ItemStack> items, final int... counters) {
+        for (final ItemStack item : items) {
+            if (item == null) {
+                continue;
             }
-
-            final List<ItemStack> backpackItems = BetonQuest.getInstance().getPlayerData(playerID).getBackpack();
-            for (final ItemStack item : backpackItems) {
-                if (item == null || !questItem.isItemEqual(item)) {
-                    continue;
+            for (int i = 0; i < questItems.length; i++) {
+                if (questItems[i].isItemEqual(item)) {
+                    counters[i] += item.getAmount();
                 }
-                counter += item.getAmount();
             }
-            if (counter >= amount) {
-                successfulChecks++;
+        }
+    }
+
+    private boolean hasAll(final int[] counters, final int... amounts) {
+        for (int i = 0; i < counters.length; i++) {
+            if (counters[i] < amounts[i]) {
+                return false;
             }
         }
-        return successfulChecks == questItems.length;
+        return true;
     }
 }
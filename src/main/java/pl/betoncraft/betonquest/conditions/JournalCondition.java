@@ -16,6 +16,7 @@ public class JournalCondition extends Condition {
 
     public JournalCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, false);
+        cost = 1;
         targetPointer = Utils.addPackage(instruction.getPackage(), instruction.next());
     }
 
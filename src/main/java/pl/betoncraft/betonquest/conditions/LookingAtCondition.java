@@ -24,6 +24,7 @@ public class LookingAtCondition extends Condition {
 
     public LookingAtCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, true);
+        cost = 50;
         loc = instruction.getLocation(instruction.getOptional("loc"));
         selector = instruction.getBlockSelector(instruction.getOptional("type"));
         exactMatch = instruction.hasArgument("exactMatch");
@@ -15,6 +15,7 @@ public class ObjectiveCondition extends Condition {
 
     public ObjectiveCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, false);
+        cost = 1;
         objective = instruction.getObjective();
         if (objective == null) {
             throw new InstructionParseException("Objective does not exist");
@@ -28,6 +28,7 @@ public class PartyCondition extends Condition {
 
     public PartyCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, false);
+        cost = 200;
         range = instruction.getVarNum();
         conditions = instruction.getList(instruction::getCondition).toArray(new ConditionID[0]);
         everyone = instruction.getList(instruction.getOptional("every"), instruction::getCondition).toArray(new ConditionID[0]);
@@ -14,6 +14,7 @@ public class PermissionCondition extends Condition {
 
     public PermissionCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, true);
+        cost = 1;
         permission = instruction.next();
     }
 
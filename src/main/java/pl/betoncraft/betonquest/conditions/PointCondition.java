@@ -23,6 +23,7 @@ public class PointCondition extends Condition {
 
     public PointCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, false);
+        cost = 1;
         category = Utils.addPackage(instruction.getPackage(), instruction.next());
         count = instruction.getVarNum();
         equal = instruction.hasArgument("equal");
@@ -30,21 +31,28 @@ public class PointCondition extends Condition {
 
     @Override
     protected Boolean execute(final String playerID) throws QuestRuntimeException {
-        return check(playerID, BetonQuest.getInstance().getPlayerData(playerID).getPoints());
+        return check(playerID, BetonQuest.getInstance().getPlayerData(playerID).getPoint(category));
     }
 
     protected boolean check(final String playerID, final List<Point> points) throws QuestRuntimeException {
-        final int pCount = count.getInt(playerID);
         for (final Point point : points) {
             if (point.getCategory().equalsIgnoreCase(category)) {
-                if (equal) {
-                    return point.getCount() == pCount;
-                } else {
-                    return point.getCount() >= pCount;
-                }
+                return check(playerID, point);
             }
         }
         return false;
     }
 
+    protected boolean check(final String playerID, final Point point) throws QuestRuntimeException {
+        if (point == null) {
+            return false;
+        }
+        final int pCount = count.getInt(playerID);
+        if (equal) {
+            return point.getCount() == pCount;
+        } else {
+            return point.getCount() >= pCount;
+        }
+    }
+
 }
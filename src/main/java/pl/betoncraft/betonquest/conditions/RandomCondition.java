@@ -18,8 +18,10 @@ public class RandomCondition extends Condition {
 
     public RandomCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, false);
+        cost = 1;
         staticness = true;
         persistent = true;
+        volatility = true;
         final String[] values = instruction.next().split("-");
         if (values.length != 2) {
             throw new InstructionParseException("Wrong randomness format");
@@ -11,6 +11,7 @@ public class SneakCondition extends Condition {
 
     public SneakCondition(final Instruction instruction) {
         super(instruction, true);
+        cost = 1;
     }
 
     @Override
@@ -15,6 +15,7 @@ public class TagCondition extends Condition {
 
     public TagCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, false);
+        cost = 1;
         tag = Utils.addPackage(instruction.getPackage(), instruction.next());
     }
 
@@ -15,6 +15,7 @@ public class TimeCondition extends Condition {
 
     public TimeCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, true);
+        cost = 1;
         final String[] theTime = instruction.next().split("-");
         if (theTime.length != 2) {
             throw new InstructionParseException("Wrong time format");
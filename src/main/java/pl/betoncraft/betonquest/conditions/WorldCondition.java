@@ -18,6 +18,7 @@ public class WorldCondition extends Condition {
 
     public WorldCondition(final Instruction instruction) throws InstructionParseException {
         super(instruction, true);
+        cost = 1;
         final String name = instruction.next();
         world = Bukkit.getWorld(name);
         if (world == null) {
@@ -4,6 +4,7 @@ import org.bukkit.Sound;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import pl.betoncraft.betonquest.BetonQuest;
+import pl.betoncraft.betonquest.VariableString;
 import pl.betoncraft.betonquest.config.ConfigAccessor.AccessorType;
 import pl.betoncraft.betonquest.database.PlayerData;
 import pl.betoncraft.betonquest.exceptions.InstructionParseException;
@@ -29,6 +30,7 @@ public class Config {
     private static Config instance;
     private static ConfigAccessor messages;
     private static ConfigAccessor internal;
+    private static MessageCatalog catalog;
     private static String lang;
     private static String defaultPackage = "default";
     private final File root;
@@ -63,6 +65,7 @@ public class Config {
         messages = new ConfigAccessor(new File(root, "messages.yml"), "messages.yml", AccessorType.OTHER);
         messages.saveDefaultConfig();
         internal = new ConfigAccessor(null, "internal-messages.yml", AccessorType.OTHER);
+        catalog = null;
         for (final String key : messages.getConfig().getKeys(false)) {
             if (!key.equals("global")) {
                 if (verboose) {
@@ -82,6 +85,11 @@ public class Config {
             searchForPackages(file);
         }
 
+        // expand global variables, now that all packages they can point to are loaded
+        for (final ConfigPackage pack : PACKAGES.values()) {
+            pack.resolveVariables();
+        }
+
         // load quest cancelers
         for (final ConfigPackage pack : PACKAGES.values()) {
             final ConfigurationSection section = pack.getMain().getConfig().getConfigurationSection("cancel");
@@ -185,28 +193,12 @@ public class Config {
      * does not exist
      */
     public static String getMessage(final String lang, final String message, final String[] variables) {
-        String result = messages.getConfig().getString(lang + "." + message);
-        if (result == null) {
-            result = messages.getConfig().getString(Config.getLanguage() + "." + message);
-        }
-        if (result == null) {
-            result = messages.getConfig().getString("en." + message);
-        }
-        if (result == null) {
-            result = internal.getConfig().getString(lang + "." + message);
+        MessageCatalog current = catalog;
+        if (current == null) {
+            current = new MessageCatalog(messages.getConfig(), internal.getConfig(), Config.getLanguage());
+            catalog = current;
         }
-        if (result == null) {
-            result = internal.getConfig().getString("en." + message);
-        }
-        if (result != null) {
-            if (variables != null) {
-                for (int i = 0; i < variables.length; i++) {
-                    result = result.replace("{" + (i + 1) + "}", variables[i]);
-                }
-            }
-            result = result.replace('&', '§');
-        }
-        return result;
+        return current.getMessage(lang, message, variables);
     }
 
     /**
@@ -278,10 +270,12 @@ public class Config {
         if (main.equals("config")) {
             plugin.getConfig().set(address.substring(7), value);
             plugin.saveConfig();
+            catalog = null;
             return true;
         } else if (main.equals("messages")) {
             messages.getConfig().set(address.substring(9), value);
             messages.saveConfig();
+            catalog = null;
             return true;
         } else {
             final ConfigPackage pack = PACKAGES.get(main);
@@ -296,6 +290,8 @@ public class Config {
      * @return messages configuration
      */
     public static ConfigAccessor getMessages() {
+        // the messages may be changed by the caller, so they have to be compiled again
+        catalog = null;
         return messages;
     }
 
@@ -474,11 +470,8 @@ public class Config {
                 message = prefix + message;
             }
         }
-        if (packName != null) {
-            for (final String variable : BetonQuest.resolveVariables(message)) {
-                final String replacement = BetonQuest.getInstance().getVariableValue(packName, variable, PlayerConverter.getID(player));
-                message = message.replace(variable, replacement);
-            }
+        if (packName != null && message.indexOf('%') >= 0) {
+            message = VariableString.lenient(PACKAGES.get(packName), message).getString(PlayerConverter.getID(player));
         }
         return message;
     }
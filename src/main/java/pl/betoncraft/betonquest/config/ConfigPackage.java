@@ -1,5 +1,6 @@
 package pl.betoncraft.betonquest.config;
 
+import org.bukkit.configuration.ConfigurationSection;
 import pl.betoncraft.betonquest.config.ConfigAccessor.AccessorType;
 import pl.betoncraft.betonquest.exceptions.ObjectNotFoundException;
 import pl.betoncraft.betonquest.id.GlobalVariableID;
@@ -8,9 +9,11 @@ import pl.betoncraft.betonquest.utils.Utils;
 
 import java.io.File;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -20,6 +23,11 @@ import java.util.regex.Pattern;
  */
 public class ConfigPackage {
 
+    private static final Pattern GLOBAL_VARIABLE = Pattern.compile("\\$([^ $\\s]+)\\$");
+    private static final Pattern LOCATION_VARIABLE =
+            Pattern.compile("^\\$[a-zA-Z0-9]+\\$->\\(\\-?\\d+\\.?\\d*;\\-?\\d+\\.?\\d*;\\-?\\d+\\.?\\d*\\)$");
+    private static final Pattern LOCATION = Pattern.compile("^\\-?\\d+;\\-?\\d+;\\-?\\d+;.+$");
+
     private String name;
     private File folder;
     private boolean enabled;
@@ -32,6 +40,8 @@ public class ConfigPackage {
     private ConfigAccessor items;
     private ConfigAccessor custom;
     private final Map<String, ConfigAccessor> conversations = new HashMap<>();
+    private final Map<String, String> variableValues = new ConcurrentHashMap<>();
+    private final Map<String, String> strings = new ConcurrentHashMap<>();
 
     /**
      * Loads a package from specified directory. It doesn't have to be valid
@@ -135,24 +145,102 @@ public class ConfigPackage {
     }
 
     /**
-     * Perform Variable substitution
+     * Expands all global variables of the package and the instructions of
+     * its events, conditions, objectives and items, so they are only looked
+     * up later. It must be called after all packages are loaded, because
+     * variables can point to other packages.
+     */
+    public void resolveVariables() {
+        final ConfigurationSection variables = main.getConfig().getConfigurationSection("variables");
+        if (variables != null) {
+            for (final String key : variables.getKeys(false)) {
+                if (variables.isString(key)) {
+                    resolveVariable(key, new HashSet<>());
+                }
+            }
+        }
+        resolveStrings("events", events);
+        resolveStrings("conditions", conditions);
+        resolveStrings("objectives", objectives);
+        resolveStrings("items", items);
+    }
+
+    private void resolveStrings(final String file, final ConfigAccessor accessor) {
+        for (final String key : accessor.getConfig().getKeys(false)) {
+            getString(file + "." + key);
+        }
+    }
+
+    /**
+     * Forgets the expanded variables and strings of the package, for example
+     * after its files were changed.
+     */
+    public void clearCache() {
+        variableValues.clear();
+        strings.clear();
+    }
+
+    /**
+     * Perform Variable substitution. The values of the variables are
+     * remembered, but the input is not, as it can be built for every player.
      */
     public String subst(final String input) {
         if (input == null) {
             return null;
         }
+        if (input.indexOf('$') < 0) {
+            return input;
+        }
+        return expand(input, new HashSet<>());
+    }
 
+    /**
+     * Replaces the variables in the input with their values. If a variable
+     * can't be resolved, the rest of the input is left as it is.
+     *
+     * @param input     the string with variables
+     * @param resolving names of the variables being resolved right now
+     * @return the string with inserted variables
+     */
+    private String expand(final String input, final Set<String> resolving) {
         // handle "$this$" variables
-        String variableInput = input.replace("$this$", name);
+        final String variableInput = input.replace("$this$", name);
 
         // handle the rest
-        final Pattern globalVariableRegex = Pattern.compile("\\$([^ $\\s]+)\\$");
-        while (true) {
-            final Matcher matcher = globalVariableRegex.matcher(variableInput);
-            if (!matcher.find()) {
+        final Matcher matcher = GLOBAL_VARIABLE.matcher(variableInput);
+        final StringBuilder builder = new StringBuilder(variableInput.length());
+        int last = 0;
+        while (matcher.find()) {
+            final String varVal = resolveVariable(matcher.group(1), resolving);
+            if (varVal == null) {
                 break;
             }
-            final String varName = matcher.group(1);
+            builder.append(variableInput, last, matcher.start()).append(varVal);
+            last = matcher.end();
+        }
+        return builder.append(variableInput, last, variableInput.length()).toString();
+    }
+
+    /**
+     * Returns the value of a variable with all variables inside it inserted.
+     * Values are remembered, and variables depending on themselves are
+     * reported instead of being resolved forever.
+     *
+     * @param varName   name of the variable, as used in this package
+     * @param resolving names of the variables being resolved right now
+     * @return the value, or null if it can't be resolved
+     */
+    private String resolveVariable(final String varName, final Set<String> resolving) {
+        final String cached = variableValues.get(varName);
+        if (cached != null) {
+            return cached;
+        }
+        if (!resolving.add(varName)) {
+            LogUtils.getLogger().log(Level.WARNING, String.format("Variable %s depends on itself, in package %s",
+                    varName, name));
+            return null;
+        }
+        try {
             final String varVal;
             try {
                 final GlobalVariableID variableID = new GlobalVariableID(this, varName);
@@ -160,80 +248,92 @@ public class ConfigPackage {
             } catch (ObjectNotFoundException e) {
                 LogUtils.getLogger().log(Level.WARNING, e.getMessage());
                 LogUtils.logThrowable(e);
-                return variableInput;
+                return null;
             }
             if (varVal == null) {
-                LogUtils.getLogger().log(Level.WARNING, String.format("Variable %s not defined in package %s", varName, name));
-                return variableInput;
+                LogUtils.getLogger().log(Level.WARNING, String.format("Variable %s not defined in package %s",
+                        varName, name));
+                return null;
             }
-
-            if (varVal
-                    .matches("^\\$[a-zA-Z0-9]+\\$->\\(\\-?\\d+\\.?\\d*;\\-?\\d+\\.?\\d*;\\-?\\d+\\.?\\d*\\)$")) {
-                // handle location variables
-                // parse the inner location
-                final String innerVarName = varVal.substring(1, varVal.indexOf('$', 2));
-                final String innerVarVal = main.getConfig().getString("variables." + innerVarName);
-                if (innerVarVal == null) {
-                    LogUtils.getLogger().log(Level.WARNING, String.format("Location variable %s is not defined, in variable %s, package %s.",
-                            innerVarName, varName, name));
-                    return variableInput;
+            final String value;
+            if (LOCATION_VARIABLE.matcher(varVal).matches()) {
+                value = resolveLocation(varName, varVal);
+            } else {
+                value = expand(varVal, resolving);
+                if (GLOBAL_VARIABLE.matcher(value).find()) {
+                    // an inner variable could not be resolved, it was already reported
+                    return null;
                 }
+            }
+            if (value != null) {
+                variableValues.put(varName, value);
+            }
+            return value;
+        } finally {
+            resolving.remove(varName);
+        }
+    }
 
-                if (!innerVarVal.matches("^\\-?\\d+;\\-?\\d+;\\-?\\d+;.+$")) {
-                    LogUtils.getLogger().log(Level.WARNING,
-                            String.format("Inner variable %s is not valid location, in variable %s, package %s.",
-                                    innerVarName, varName, name));
-                    return variableInput;
-                }
+    private String resolveLocation(final String varName, final String varVal) {
+        // handle location variables
+        // parse the inner location
+        final String innerVarName = varVal.substring(1, varVal.indexOf('$', 2));
+        final String innerVarVal = main.getConfig().getString("variables." + innerVarName);
+        if (innerVarVal == null) {
+            LogUtils.getLogger().log(Level.WARNING, String.format("Location variable %s is not defined, in variable %s, package %s.",
+                    innerVarName, varName, name));
+            return null;
+        }
 
-                final double locX;
-                final double locY;
-                final double locZ;
-                final String rest;
-                try {
-                    final int offset1 = innerVarVal.indexOf(';');
-                    locX = Double.parseDouble(innerVarVal.substring(0, offset1));
-                    final int offset2 = innerVarVal.indexOf(';', offset1 + 1);
-                    locY = Double.parseDouble(innerVarVal.substring(offset1 + 1, offset2));
-                    final int offset3 = innerVarVal.indexOf(';', offset2 + 1);
-                    locZ = Double.parseDouble(innerVarVal.substring(offset2 + 1, offset3));
-                    // rest is world + possible other arguments
-                    rest = innerVarVal.substring(offset3);
-                } catch (NumberFormatException e) {
-                    LogUtils.getLogger().log(Level.WARNING, String.format(
-                            "Could not parse coordinates in inner variable %s in variable %s in package %s",
+        if (!LOCATION.matcher(innerVarVal).matches()) {
+            LogUtils.getLogger().log(Level.WARNING,
+                    String.format("Inner variable %s is not valid location, in variable %s, package %s.",
                             innerVarName, varName, name));
-                    LogUtils.logThrowable(e);
-                    return variableInput;
-                }
-                // parse the vector
-                final double vecLocX;
-                final double vecLocY;
-                final double vecLocZ;
-                try {
-                    final int offset1 = varVal.indexOf('(');
-                    final int offset2 = varVal.indexOf(';');
-                    final int offset3 = varVal.indexOf(';', offset2 + 1);
-                    final int offset4 = varVal.indexOf(')');
-                    vecLocX = Double.parseDouble(varVal.substring(offset1 + 1, offset2));
-                    vecLocY = Double.parseDouble(varVal.substring(offset2 + 1, offset3));
-                    vecLocZ = Double.parseDouble(varVal.substring(offset3 + 1, offset4));
-                } catch (NumberFormatException e) {
-                    LogUtils.getLogger().log(Level.WARNING, String.format("Could not parse vector inlocation variable %s in package %s",
-                            varName, name));
-                    LogUtils.logThrowable(e);
-                    return variableInput;
-                }
-                final double locationX = locX + vecLocX;
-                final double locationY = locY + vecLocY;
-                final double locationZ = locZ + vecLocZ;
-                variableInput = variableInput.replace("$" + varName + "$", String.format(Locale.US, "%.2f;%.2f;%.2f%s", locationX, locationY, locationZ, rest));
-            } else {
-                variableInput = variableInput.replace("$" + varName + "$", varVal);
-            }
+            return null;
         }
 
-        return variableInput;
+        final double locX;
+        final double locY;
+        final double locZ;
+        final String rest;
+        try {
+            final int offset1 = innerVarVal.indexOf(';');
+            locX = Double.parseDouble(innerVarVal.substring(0, offset1));
+            final int offset2 = innerVarVal.indexOf(';', offset1 + 1);
+            locY = Double.parseDouble(innerVarVal.substring(offset1 + 1, offset2));
+            final int offset3 = innerVarVal.indexOf(';', offset2 + 1);
+            locZ = Double.parseDouble(innerVarVal.substring(offset2 + 1, offset3));
+            // rest is world + possible other arguments
+            rest = innerVarVal.substring(offset3);
+        } catch (NumberFormatException e) {
+            LogUtils.getLogger().log(Level.WARNING, String.format(
+                    "Could not parse coordinates in inner variable %s in variable %s in package %s",
+                    innerVarName, varName, name));
+            LogUtils.logThrowable(e);
+            return null;
+        }
+        // parse the vector
+        final double vecLocX;
+        final double vecLocY;
+        final double vecLocZ;
+        try {
+            final int offset1 = varVal.indexOf('(');
+            final int offset2 = varVal.indexOf(';');
+            final int offset3 = varVal.indexOf(';', offset2 + 1);
+            final int offset4 = varVal.indexOf(')');
+            vecLocX = Double.parseDouble(varVal.substring(offset1 + 1, offset2));
+            vecLocY = Double.parseDouble(varVal.substring(offset2 + 1, offset3));
+            vecLocZ = Double.parseDouble(varVal.substring(offset3 + 1, offset4));
+        } catch (NumberFormatException e) {
+            LogUtils.getLogger().log(Level.WARNING, String.format("Could not parse vector inlocation variable %s in package %s",
+                    varName, name));
+            LogUtils.logThrowable(e);
+            return null;
+        }
+        final double locationX = locX + vecLocX;
+        final double locationY = locY + vecLocY;
+        final double locationZ = locZ + vecLocZ;
+        return String.format(Locale.US, "%.2f;%.2f;%.2f%s", locationX, locationY, locationZ, rest);
     }
 
     /**
@@ -254,15 +354,17 @@ public class ConfigPackage {
      * @return the string
      */
     public String getString(final String address, final String def) {
+        final String cached = strings.get(address);
+        if (cached != null) {
+            return cached;
+        }
         final String value = getRawString(address);
         if (value == null) {
             return def;
         }
-        if (!value.contains("$")) {
-            return value;
-        }
-
-        return subst(value);
+        final String result = subst(value);
+        strings.put(address, result);
+        return result;
     }
 
     /**
@@ -330,6 +432,13 @@ public class ConfigPackage {
         }
         config.getConfig().set(newPath.toString(), value);
         config.saveConfig();
+        if ("main".equals(file)) {
+            // variables can be used by other packages
+            for (final ConfigPackage pack : Config.getPackages().values()) {
+                pack.clearCache();
+            }
+        }
+        clearCache();
         return true;
     }
 
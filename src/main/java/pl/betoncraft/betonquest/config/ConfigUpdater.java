@@ -3350,27 +3350,28 @@ public class ConfigUpdater {
         // loop all tables
         final HashMap<String, String> list = new HashMap<>();
         final String[] tables = {"OBJECTIVES", "TAGS", "POINTS", "JOURNAL", "BACKPACK"};
-        final Connector con = new Connector();
-        for (final String table : tables) {
-            final ResultSet res = con.querySQL(QueryType.valueOf("SELECT_PLAYERS_" + table), new String[]{});
-            try {
-                while (res.next()) {
-                    // and extract from them list of player names
-                    final String playerID = res.getString("playerID");
-                    if (!list.containsKey(playerID)) {
-                        list.put(playerID, Bukkit.getOfflinePlayer(playerID).getUniqueId().toString());
+        try (Connector con = new Connector()) {
+            for (final String table : tables) {
+                final ResultSet res = con.querySQL(QueryType.valueOf("SELECT_PLAYERS_" + table), new String[]{});
+                try {
+                    while (res.next()) {
+                        // and extract from them list of player names
+                        final String playerID = res.getString("playerID");
+                        if (!list.containsKey(playerID)) {
+                            list.put(playerID, Bukkit.getOfflinePlayer(playerID).getUniqueId().toString());
+                        }
                     }
+                } catch (SQLException e) {
+                    LogUtils.getLogger().log(Level.WARNING, "Could not convert name to UUID");
+                    LogUtils.logThrowable(e);
                 }
-            } catch (SQLException e) {
-                LogUtils.getLogger().log(Level.WARNING, "Could not convert name to UUID");
-                LogUtils.logThrowable(e);
             }
-        }
-        // convert all player names in all tables
-        for (final String table : tables) {
-            for (final String playerID : list.keySet()) {
-                con.updateSQL(UpdateType.valueOf("UPDATE_PLAYERS_" + table),
-                        new String[]{list.get(playerID), playerID});
+            // convert all player names in all tables
+            for (final String table : tables) {
+                for (final String playerID : list.keySet()) {
+                    con.updateSQL(UpdateType.valueOf("UPDATE_PLAYERS_" + table),
+                            new String[]{list.get(playerID), playerID});
+                }
             }
         }
         LogUtils.getLogger().log(Level.INFO, "Names conversion finished!");
@@ -0,0 +1,142 @@
+package pl.betoncraft.betonquest.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Messages compiled for every language. The fallback to the default language,
+ * English and internal messages is resolved when a language is compiled, and
+ * the {n} placeholders are split from the text, so getting a message is
+ * a single lookup and one pass over its parts.
+ */
+class MessageCatalog {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([1-9]\\d{0,8})}");
+
+    private final FileConfiguration messages;
+    private final FileConfiguration internal;
+    private final String defaultLanguage;
+    private final Map<String, Map<String, Message>> languages = new ConcurrentHashMap<>();
+
+    /**
+     * Creates new catalog. Languages are compiled when they are first used.
+     *
+     * @param messages        the messages configuration
+     * @param internal        the internal messages configuration
+     * @param defaultLanguage language used when a message is missing in the requested one
+     */
+    /* default */ MessageCatalog(final FileConfiguration messages, final FileConfiguration internal,
+                                 final String defaultLanguage) {
+        this.messages = messages;
+        this.internal = internal;
+        this.defaultLanguage = defaultLanguage;
+    }
+
+    /**
+     * Gets the message in the language and replaces its placeholders.
+     *
+     * @param lang      language of the message
+     * @param name      name of the message
+     * @param variables values of the placeholders, can be null
+     * @return the message or null if it does not exist in any fallback
+     */
+    /* default */ String getMessage(final String lang, final String name, final String[] variables) {
+        final Message message = languages.computeIfAbsent(String.valueOf(lang), this::compile).get(name);
+        return message == null ? null : message.format(variables);
+    }
+
+    private Map<String, Message> compile(final String lang) {
+        final Map<String, String> texts = new HashMap<>();
+        // from the last fallback to the first, so the first ones override the rest
+        addTexts(texts, internal, "en");
+        addTexts(texts, internal, lang);
+        addTexts(texts, messages, "en");
+        addTexts(texts, messages, defaultLanguage);
+        addTexts(texts, messages, lang);
+        final Map<String, Message> compiled = new HashMap<>();
+        for (final Map.Entry<String, String> entry : texts.entrySet()) {
+            compiled.put(entry.getKey(), new Message(entry.getValue()));
+        }
+        return compiled;
+    }
+
+    private void addTexts(final Map<String, String> texts, final FileConfiguration config, final String lang) {
+        if (lang == null) {
+            return;
+        }
+        // the keys of the defaults are not included in the config, but getString() falls back to them
+        final Set<String> keys = new HashSet<>(getKeys(config, lang));
+        if (config.getDefaults() != null) {
+            keys.addAll(getKeys(config.getDefaults(), lang));
+        }
+        for (final String key : keys) {
+            final String path = lang + "." + key;
+            final String text = config.getString(path);
+            if (text != null && !config.isConfigurationSection(path)) {
+                texts.put(key, text);
+            }
+        }
+    }
+
+    private Set<String> getKeys(final ConfigurationSection config, final String lang) {
+        final ConfigurationSection section = config.getConfigurationSection(lang);
+        return section == null ? Collections.emptySet() : section.getKeys(true);
+    }
+
+    /**
+     * A message split into literal parts and the placeholders between them
+     */
+    private static class Message {
+
+        private final String[] literals;
+        private final int[] placeholders;
+        private final int length;
+
+        /* default */ Message(final String text) {
+            final List<String> literalList = new ArrayList<>();
+            final List<Integer> placeholderList = new ArrayList<>();
+            final Matcher matcher = PLACEHOLDER.matcher(text);
+            int last = 0;
+            while (matcher.find()) {
+                literalList.add(text.substring(last, matcher.start()).replace('&', '§'));
+                placeholderList.add(Integer.parseInt(matcher.group(1)));
+                last = matcher.end();
+            }
+            literalList.add(text.substring(last).replace('&', '§'));
+            literals = literalList.toArray(new String[0]);
+            placeholders = new int[placeholderList.size()];
+            for (int i = 0; i < placeholders.length; i++) {
+                placeholders[i] = placeholderList.get(i);
+            }
+            length = text.length();
+        }
+
+        private String format(final String[] variables) {
+            if (placeholders.length == 0) {
+                return literals[0];
+            }
+            final StringBuilder builder = new StringBuilder(length + 16 * placeholders.length);
+            for (int i = 0; i < placeholders.length; i++) {
+                builder.append(literals[i]);
+                final int number = placeholders[i];
+                if (variables != null && number <= variables.length) {
+                    builder.append(String.valueOf(variables[number - 1]).replace('&', '§'));
+                } else {
+                    builder.append('{').append(number).append('}');
+                }
+            }
+            return builder.append(literals[placeholders.length]).toString();
+        }
+    }
+}
@@ -2,22 +2,79 @@ package pl.betoncraft.betonquest.config;
 
 import pl.betoncraft.betonquest.utils.LogUtils;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
+/**
+ * Zips the plugin's folder. In the incremental mode only files which changed
+ * since the last backup are stored. The changes are found with a manifest of
+ * sizes, modification times and checksums kept next to the backups; only
+ * files with a different size or modification time are read to compare their
+ * checksums, and they are read in parallel. A full backup computes the
+ * checksums while storing the files, so every file is read only once.
+ */
 public class Zipper {
+
+    /**
+     * Name of the manifest file in the folder of the backups
+     */
+    public static final String MANIFEST = "backup-manifest.properties";
+
+    /**
+     * Name of the entry listing files removed since the last backup
+     */
+    public static final String REMOVED_FILES = "removed-files.txt";
+
+    private static final Pattern EXCLUDED = Pattern.compile("^(backup.*|database\\.db|changelog\\.txt|logs)$");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private final List<String> fileList = new ArrayList<>();
     private final String outputZipFile;
     private final String sourceFolder;
+    private final boolean incremental;
+    private final Progress progress;
+    private int writtenFiles;
+    private boolean successful;
 
+    /**
+     * Zips all files of the folder.
+     *
+     * @param source folder to zip
+     * @param output path of the zip file, without the extension
+     */
     public Zipper(final String source, final String output) {
+        this(source, output, false, null);
+    }
+
+    /**
+     * Zips the files of the folder on the calling thread.
+     *
+     * @param source      folder to zip
+     * @param output      path of the zip file, without the extension
+     * @param incremental true to store only the files which changed since the last backup
+     * @param progress    called after every stored file, can be null
+     */
+    public Zipper(final String source, final String output, final boolean incremental, final Progress progress) {
         String modifiedOutput = output;
         int counter = 1;
         while (new File(modifiedOutput + ".zip").exists()) {
@@ -26,46 +83,172 @@ public class Zipper {
         }
         outputZipFile = modifiedOutput + ".zip";
         sourceFolder = source;
+        this.incremental = incremental;
+        this.progress = progress;
         generateFileList(new File(sourceFolder));
         zipIt(outputZipFile);
     }
 
+    /**
+     * @return the amount of files stored in the zip file
+     */
+    public int getWrittenFiles() {
+        return writtenFiles;
+    }
+
+    /**
+     * @return true if all files were stored and the manifest was saved
+     */
+    public boolean isSuccessful() {
+        return successful;
+    }
+
     /**
      * Zip it
      *
      * @param zipFile output ZIP file location
      */
     public void zipIt(final String zipFile) {
-
-        final byte[] buffer = new byte[1024];
-
+        final File manifestFile = new File(new File(zipFile).getAbsoluteFile().getParentFile(), MANIFEST);
+        final Properties oldManifest = loadManifest(manifestFile);
+        final Properties newManifest = new Properties();
         try {
+            final List<String> toWrite;
+            final List<String> removed = new ArrayList<>();
+            if (incremental) {
+                toWrite = findChanged(oldManifest, newManifest);
+                for (final String file : oldManifest.stringPropertyNames()) {
+                    if (!newManifest.containsKey(file)) {
+                        removed.add(file);
+                    }
+                }
+            } else {
+                toWrite = fileList;
+            }
+            final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(zipFile), BUFFER_SIZE))) {
+                for (final String file : toWrite) {
+                    final File node = new File(sourceFolder, file);
+                    final String stamp = stamp(node);
+                    zos.putNextEntry(new ZipEntry(file.replace(File.separatorChar, '/')));
+                    final long checksum = copy(node, zos, buffer);
+                    zos.closeEntry();
+                    if (!incremental) {
+                        newManifest.setProperty(file, stamp + ":" + Long.toHexString(checksum));
+                    }
+                    writtenFiles++;
+                    if (progress != null) {
+                        progress.update(writtenFiles, toWrite.size());
+                    }
+                }
+                if (incremental && !removed.isEmpty()) {
+                    zos.putNextEntry(new ZipEntry(REMOVED_FILES));
+                    zos.write(String.join("\n", removed).getBytes(StandardCharsets.UTF_8));
+                    zos.closeEntry();
+                }
+            }
+            saveManifest(manifestFile, newManifest);
+            successful = true;
+        } catch (IOException | UncheckedIOException e) {
+            LogUtils.getLogger().log(Level.WARNING, "Couldn't zip the files");
+            LogUtils.logThrowable(e);
+        }
+    }
 
-            final FileOutputStream fos = new FileOutputStream(zipFile);
-            final ZipOutputStream zos = new ZipOutputStream(fos);
-
-            for (final String file : this.fileList) {
-
-                final ZipEntry zipEntry = new ZipEntry(file);
-                zos.putNextEntry(zipEntry);
+    /**
+     * Compares the files with the manifest of the last backup and fills the
+     * new manifest.
+     *
+     * @param oldManifest manifest of the last backup
+     * @param newManifest manifest to fill with the current files
+     * @return the list of files which changed or were added
+     */
+    private List<String> findChanged(final Properties oldManifest, final Properties newManifest) {
+        final AtomicInteger unchanged = new AtomicInteger();
+        final List<String[]> entries = fileList.parallelStream().map(file -> {
+            final File node = new File(sourceFolder, file);
+            final String stamp = stamp(node);
+            final String old = oldManifest.getProperty(file);
+            if (old != null && old.startsWith(stamp + ":")) {
+                unchanged.incrementAndGet();
+                return new String[]{file, old, null};
+            }
+            final String entry = stamp + ":" + Long.toHexString(checksum(node));
+            // the file was touched, but its content is the same
+            final boolean changed = old == null || !old.substring(old.lastIndexOf(':'))
+                    .equals(entry.substring(entry.lastIndexOf(':')));
+            return new String[]{file, entry, changed ? file : null};
+        }).collect(Collectors.toList());
+        final List<String> changed = new ArrayList<>();
+        for (final String[] entry : entries) {
+            newManifest.setProperty(entry[0], entry[1]);
+            if (entry[2] != null) {
+                changed.add(entry[2]);
+            }
+        }
+        LogUtils.getLogger().log(Level.FINE, "Backup: " + changed.size() + " changed files, " + unchanged.get()
+                + " files with the same modification time");
+        return changed;
+    }
 
-                final FileInputStream input = new FileInputStream(sourceFolder + File.separator + file);
+    private static String stamp(final File file) {
+        return file.length() + ":" + file.lastModified();
+    }
 
-                int len;
-                while ((len = input.read(buffer)) > 0) {
-                    zos.write(buffer, 0, len);
-                }
+    private static long checksum(final File file) {
+        final CRC32 crc = new CRC32();
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (channel.read(buffer) > 0) {
+                crc.update(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return crc.getValue();
+    }
 
-                input.close();
+    /**
+     * Copies the file to the stream and computes its checksum on the way.
+     *
+     * @param file   the file to copy
+     * @param output the stream to copy the file to
+     * @param buffer buffer used for copying
+     * @return the CRC32 checksum of the file
+     * @throws IOException when the file could not be read or the stream written
+     */
+    private static long copy(final File file, final OutputStream output, final ByteBuffer buffer) throws IOException {
+        final CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer.clear();
+            while (channel.read(buffer) > 0) {
+                output.write(buffer.array(), 0, buffer.position());
+                crc.update(buffer.array(), 0, buffer.position());
+                buffer.clear();
             }
+        }
+        return crc.getValue();
+    }
 
-            zos.closeEntry();
-            // remember close it
-            zos.close();
+    private static Properties loadManifest(final File file) {
+        final Properties manifest = new Properties();
+        if (file.isFile()) {
+            try (InputStream input = Files.newInputStream(file.toPath())) {
+                manifest.load(input);
+            } catch (IOException e) {
+                LogUtils.getLogger().log(Level.WARNING, "Couldn't read the backup manifest, all files will be stored");
+                LogUtils.logThrowable(e);
+                manifest.clear();
+            }
+        }
+        return manifest;
+    }
 
-        } catch (IOException e) {
-            LogUtils.getLogger().log(Level.WARNING, "Couldn't zip the files");
-            LogUtils.logThrowable(e);
+    private static void saveManifest(final File file, final Properties manifest) throws IOException {
+        try (OutputStream output = Files.newOutputStream(file.toPath())) {
+            manifest.store(output, "BetonQuest backup manifest: size:modification time:checksum");
         }
     }
 
@@ -76,8 +259,7 @@ public class Zipper {
      */
     public void generateFileList(final File node) {
 
-        if (node.getName().matches("^backup.*") || node.getName().matches("^database\\.db$")
-                || node.getName().matches("^changelog\\.txt$") || node.getName().matches("^logs$")) {
+        if (EXCLUDED.matcher(node.getName()).matches()) {
             return;
         }
 
@@ -88,6 +270,9 @@ public class Zipper {
 
         if (node.isDirectory()) {
             final String[] subNote = node.list();
+            if (subNote == null) {
+                return;
+            }
             for (final String filename : subNote) {
                 generateFileList(new File(node, filename));
             }
@@ -101,6 +286,21 @@ public class Zipper {
      * @return Formatted file path
      */
     private String generateZipEntry(final String file) {
-        return file.substring(sourceFolder.length() + 1);
+        return file.substring(new File(sourceFolder).getAbsolutePath().length() + 1);
+    }
+
+    /**
+     * Receives the progress of zipping
+     */
+    @FunctionalInterface
+    public interface Progress {
+
+        /**
+         * Called after a file was stored.
+         *
+         * @param done  the amount of stored files
+         * @param total the amount of files to store
+         */
+        void update(int done, int total);
     }
 }
@@ -1,13 +1,8 @@
 package pl.betoncraft.betonquest.conversation;
 
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.scheduler.BukkitRunnable;
@@ -23,7 +18,7 @@ import java.util.Map;
 /**
  * Base of all chat conversation outputs
  */
-public abstract class ChatConvIO implements ConversationIO, Listener {
+public abstract class ChatConvIO implements ConversationIO {
 
     protected final Conversation conv;
     protected final String name;
@@ -66,10 +61,13 @@ public abstract class ChatConvIO implements ConversationIO, Listener {
             string.append(color);
         }
         answerFormat = string.toString();
-        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
     }
 
-    @EventHandler(ignoreCancelled = true)
+    /**
+     * Stops the player from walking away. Called by {@link ConversationSessions}.
+     *
+     * @param event the move event of the player
+     */
     public void onWalkAway(final PlayerMoveEvent event) {
         // return if it's someone else
         if (!event.getPlayer().equals(player)) {
@@ -118,7 +116,11 @@ public abstract class ChatConvIO implements ConversationIO, Listener {
         }
     }
 
-    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    /**
+     * Handles the player's answer. Called by {@link ConversationSessions}.
+     *
+     * @param event the chat event of the player
+     */
     public void onReply(final AsyncPlayerChatEvent event) {
         if (!event.getPlayer().equals(player)) {
             return;
@@ -170,8 +172,9 @@ public abstract class ChatConvIO implements ConversationIO, Listener {
     }
 
     @Override
+    @SuppressWarnings("PMD.EmptyMethodInAbstractClassShouldBeAbstract")
     public void end() {
-        HandlerList.unregisterAll(this);
+        // events are no longer routed here when the conversation ends
     }
 
     @Override
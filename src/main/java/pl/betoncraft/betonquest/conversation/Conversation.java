@@ -2,13 +2,9 @@ package pl.betoncraft.betonquest.conversation;
 
 import net.md_5.bungee.api.chat.BaseComponent;
 import net.md_5.bungee.api.chat.TextComponent;
-import org.apache.commons.lang3.tuple.Pair;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.player.PlayerCommandPreprocessEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
@@ -24,21 +20,20 @@ import pl.betoncraft.betonquest.conversation.ConversationData.OptionType;
 import pl.betoncraft.betonquest.database.Connector.UpdateType;
 import pl.betoncraft.betonquest.database.Saver.Record;
 import pl.betoncraft.betonquest.exceptions.QuestRuntimeException;
+import pl.betoncraft.betonquest.id.ConditionID;
 import pl.betoncraft.betonquest.id.EventID;
 import pl.betoncraft.betonquest.utils.LogUtils;
 import pl.betoncraft.betonquest.utils.PlayerConverter;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 /**
  * Represents a conversation between player and NPC
  */
-public class Conversation implements Listener {
+public class Conversation {
 
     private static final ConcurrentHashMap<String, Conversation> LIST = new ConcurrentHashMap<>();
 
@@ -193,11 +188,7 @@ public class Conversation implements Listener {
             new ConversationEnder().runTask(BetonQuest.getInstance());
             return;
         }
-        String text = data.getText(playerID, language, option, OptionType.NPC);
-        // resolve variables
-        for (final String variable : BetonQuest.resolveVariables(text)) {
-            text = text.replace(variable, plugin.getVariableValue(data.getPackName(), variable, playerID));
-        }
+        final String text = data.getResolvedText(playerID, language, option, OptionType.NPC);
         // print option to the player
         inOut.setNpcResponse(data.getQuester(language), text);
 
@@ -225,33 +216,24 @@ public class Conversation implements Listener {
      * @param options list of pointers to player options separated by commas
      */
     private void printOptions(final String[] options) {
-        final List<Pair<String, CompletableFuture<Boolean>>> futuresOptions = new ArrayList<>();
+        final List<List<ConditionID>> conditions = new ArrayList<>(options.length);
         for (final String option : options) {
-            final CompletableFuture<Boolean> future = CompletableFuture.supplyAsync(
-                    () -> BetonQuest.conditions(playerID, data.getConditionIDs(option, OptionType.PLAYER)));
-            futuresOptions.add(Pair.of(option, future));
+            conditions.add(Arrays.asList(data.getConditionIDs(option, OptionType.PLAYER)));
         }
+        // conditions of all options are checked at once, with a single wait for the main thread
+        final boolean[] available = plugin.getConditionEngine().check(playerID, conditions);
 
         int optionsCount = 0;
-        for (final Pair<String, CompletableFuture<Boolean>> future : futuresOptions) {
-            try {
-                if (!future.getValue().get(1, TimeUnit.SECONDS)) {
-                    continue;
-                }
-            } catch (final Exception e) {
-                LogUtils.logThrowableReport(e);
+        for (int i = 0; i < options.length; i++) {
+            if (!available[i]) {
                 continue;
             }
-            final String option = future.getKey();
+            final String option = options[i];
             optionsCount++;
             // print reply and put it to the hashmap
             current.put(optionsCount, option);
             // replace variables with their values
-            String text = data.getText(playerID, language, option, OptionType.PLAYER);
-            for (final String variable : BetonQuest.resolveVariables(text)) {
-                text = text.replace(variable, plugin.getVariableValue(data.getPackName(), variable, playerID));
-            }
-            inOut.addPlayerOption(text);
+            inOut.addPlayerOption(data.getResolvedText(playerID, language, option, OptionType.PLAYER));
         }
         new BukkitRunnable() {
             @Override
@@ -300,7 +282,7 @@ public class Conversation implements Listener {
 
         // delete conversation
         LIST.remove(playerID);
-        HandlerList.unregisterAll(this);
+        plugin.getConversationSessions().remove(player, this);
 
         new BukkitRunnable() {
 
@@ -346,7 +328,11 @@ public class Conversation implements Listener {
         return data.isMovementBlocked();
     }
 
-    @EventHandler(ignoreCancelled = true)
+    /**
+     * Blocks blacklisted commands. Called by {@link ConversationSessions}.
+     *
+     * @param event the command event of the player
+     */
     public void onCommand(final PlayerCommandPreprocessEvent event) {
         if (!event.getPlayer().equals(player)) {
             return;
@@ -366,7 +352,11 @@ public class Conversation implements Listener {
         }
     }
 
-    @EventHandler(ignoreCancelled = true)
+    /**
+     * Prevents damage to or from the player. Called by {@link ConversationSessions}.
+     *
+     * @param event the damage event of the player
+     */
     public void onDamage(final EntityDamageByEntityEvent event) {
         // prevent damage to (or from) player while in conversation
         if (event.getEntity() instanceof Player && PlayerConverter.getID((Player) event.getEntity()).equals(playerID)
@@ -376,7 +366,11 @@ public class Conversation implements Listener {
         }
     }
 
-    @EventHandler(ignoreCancelled = true)
+    /**
+     * Ends or suspends the conversation. Called by {@link ConversationSessions}.
+     *
+     * @param event the quit event of the player
+     */
     public void onQuit(final PlayerQuitEvent event) {
         // if player quits, end conversation (why keep listeners running?)
         if (event.getPlayer().equals(player)) {
@@ -397,7 +391,7 @@ public class Conversation implements Listener {
             LogUtils.getLogger().log(Level.WARNING, "Conversation IO is not loaded, conversation will end for player "
                     + PlayerConverter.getName(playerID));
             LIST.remove(playerID);
-            HandlerList.unregisterAll(this);
+            plugin.getConversationSessions().remove(player, this);
             return;
         }
         inOut.end();
@@ -415,7 +409,7 @@ public class Conversation implements Listener {
 
         // delete conversation
         LIST.remove(playerID);
-        HandlerList.unregisterAll(this);
+        plugin.getConversationSessions().remove(player, this);
 
         try {
             new BukkitRunnable() {
@@ -517,8 +511,8 @@ public class Conversation implements Listener {
                 return;
             }
 
-            // register listener for immunity and blocking commands
-            Bukkit.getPluginManager().registerEvents(conv, BetonQuest.getInstance());
+            // route events for immunity and blocking commands
+            plugin.getConversationSessions().add(player, conv);
 
             // start interceptor if needed
             if (messagesDelaying) {
@@ -5,6 +5,7 @@ import org.bukkit.ChatColor;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import pl.betoncraft.betonquest.BetonQuest;
+import pl.betoncraft.betonquest.VariableString;
 import pl.betoncraft.betonquest.config.Config;
 import pl.betoncraft.betonquest.config.ConfigPackage;
 import pl.betoncraft.betonquest.exceptions.InstructionParseException;
@@ -340,6 +341,29 @@ public class ConversationData {
         return opt.getText(playerID, lang);
     }
 
+    /**
+     * Returns the text of the option with all variables resolved for the
+     * player, including the texts of extending options.
+     *
+     * @param playerID ID of the player
+     * @param lang     language of the text
+     * @param option   name of the option
+     * @param type     type of the option
+     * @return the resolved text or null if there is no such option
+     */
+    public String getResolvedText(final String playerID, final String lang, final String option, final OptionType type) {
+        final Option opt;
+        if (type == OptionType.NPC) {
+            opt = npcOptions.get(option);
+        } else {
+            opt = playerOptions.get(option);
+        }
+        if (opt == null) {
+            return null;
+        }
+        return opt.getResolvedText(playerID, lang, new ArrayList<>());
+    }
+
     /**
      * @return the name of the package
      */
@@ -442,6 +466,7 @@ public class ConversationData {
         private final Map<String, String> inlinePrefix = new HashMap<>();
 
         private final Map<String, String> text = new HashMap<>();
+        private final Map<String, VariableString> templates = new HashMap<>();
         private final List<ConditionID> conditions = new ArrayList<>();
         private final List<EventID> events = new ArrayList<>();
         private List<String> pointers;
@@ -494,28 +519,12 @@ public class ConversationData {
                     text.put(defaultLang, pack.getFormattedString("conversations." + convName + "." + type.getIdentifier() + "." + name + ".text"));
                 }
 
-                final List<String> variables = new ArrayList<>();
-                for (final String theText : text.values()) {
-                    if (theText == null || theText.equals("")) {
+                for (final Map.Entry<String, String> theText : text.entrySet()) {
+                    if (theText.getValue() == null || theText.getValue().equals("")) {
                         throw new InstructionParseException("Text not defined in " + type.getReadable() + " " + name);
                     }
-                    // variables are possibly duplicated because there probably is
-                    // the same variable in every language
-                    final List<String> possiblyDuplicatedVariables = BetonQuest.resolveVariables(theText);
-                    for (final String possiblyDuplicatedVariable : possiblyDuplicatedVariables) {
-                        if (variables.contains(possiblyDuplicatedVariable)) {
-                            continue;
-                        }
-                        variables.add(possiblyDuplicatedVariable);
-                    }
-                }
-                for (final String variable : variables) {
-                    try {
-                        BetonQuest.createVariable(pack, variable);
-                    } catch (InstructionParseException e) {
-                        throw new InstructionParseException("Error while creating '" + variable + "' variable: "
-                                + e.getMessage(), e);
-                    }
+                    // split the text once, so variables don't have to be searched for every player
+                    templates.put(theText.getKey(), new VariableString(pack, theText.getValue()));
                 }
             }
 
@@ -594,6 +603,30 @@ public class ConversationData {
             return ret.toString();
         }
 
+        public String getResolvedText(final String playerID, final String lang, final List<String> optionPath) {
+            // Prevent infinite loops
+            if (optionPath.contains(getName())) {
+                return "";
+            }
+            optionPath.add(getName());
+
+            VariableString template = templates.get(lang);
+            if (template == null) {
+                template = templates.get(Config.getLanguage());
+            }
+            final StringBuilder ret = new StringBuilder(template == null ? "" : template.getString(playerID));
+
+            for (final String extend : extendLinks) {
+                if (!BetonQuest.conditions(playerID, getOption(extend, type).getConditions())) {
+                    continue;
+                }
+                ret.append(getOption(extend, type).getResolvedText(playerID, lang, optionPath));
+                break;
+            }
+
+            return ret.toString();
+        }
+
         public ConditionID[] getConditions() {
             return getConditions(new ArrayList<>());
         }
@@ -0,0 +1,132 @@
+package pl.betoncraft.betonquest.conversation;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import pl.betoncraft.betonquest.BetonQuest;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes Bukkit events to the conversations of the players they are about.
+ * This is the only listener of active conversations and their IOs, so every
+ * event is handled with a single lookup instead of being passed to all
+ * active conversations.
+ */
+public class ConversationSessions implements Listener {
+
+    private final Map<UUID, Conversation> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates new session manager and registers its listener.
+     */
+    public ConversationSessions() {
+        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
+    }
+
+    /**
+     * Starts routing events of the player to the conversation.
+     *
+     * @param player       the player
+     * @param conversation the conversation of the player
+     */
+    /* default */ void add(final Player player, final Conversation conversation) {
+        sessions.put(player.getUniqueId(), conversation);
+    }
+
+    /**
+     * Stops routing events of the player to the conversation.
+     *
+     * @param player       the player
+     * @param conversation the conversation of the player
+     */
+    /* default */ void remove(final Player player, final Conversation conversation) {
+        sessions.remove(player.getUniqueId(), conversation);
+    }
+
+    /**
+     * @return the amount of conversations receiving events
+     */
+    public int getSize() {
+        return sessions.size();
+    }
+
+    private Conversation get(final Entity entity) {
+        return entity instanceof Player ? sessions.get(entity.getUniqueId()) : null;
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onCommand(final PlayerCommandPreprocessEvent event) {
+        final Conversation conversation = get(event.getPlayer());
+        if (conversation == null) {
+            return;
+        }
+        conversation.onCommand(event);
+        if (!event.isCancelled() && conversation.getIO() instanceof TellrawConvIO) {
+            ((TellrawConvIO) conversation.getIO()).onCommandAnswer(event);
+        }
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onDamage(final EntityDamageByEntityEvent event) {
+        Conversation conversation = get(event.getEntity());
+        if (conversation == null) {
+            conversation = get(event.getDamager());
+        }
+        if (conversation != null) {
+            conversation.onDamage(event);
+        }
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onQuit(final PlayerQuitEvent event) {
+        final Conversation conversation = get(event.getPlayer());
+        if (conversation != null) {
+            conversation.onQuit(event);
+        }
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onMove(final PlayerMoveEvent event) {
+        final Conversation conversation = get(event.getPlayer());
+        if (conversation != null && conversation.getIO() instanceof ChatConvIO) {
+            ((ChatConvIO) conversation.getIO()).onWalkAway(event);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    public void onChat(final AsyncPlayerChatEvent event) {
+        final Conversation conversation = get(event.getPlayer());
+        if (conversation != null && conversation.getIO() instanceof ChatConvIO) {
+            ((ChatConvIO) conversation.getIO()).onReply(event);
+        }
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onInventoryClick(final InventoryClickEvent event) {
+        final Conversation conversation = get(event.getWhoClicked());
+        if (conversation != null && conversation.getIO() instanceof InventoryConvIO) {
+            ((InventoryConvIO) conversation.getIO()).onInventoryClick(event);
+        }
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onInventoryClose(final InventoryCloseEvent event) {
+        final Conversation conversation = get(event.getPlayer());
+        if (conversation != null && conversation.getIO() instanceof InventoryConvIO) {
+            ((InventoryConvIO) conversation.getIO()).onClose(event);
+        }
+    }
+}
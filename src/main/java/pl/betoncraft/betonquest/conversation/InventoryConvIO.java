@@ -7,9 +7,6 @@ import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.inventory.Inventory;
@@ -29,7 +26,7 @@ import java.util.logging.Level;
 /**
  * Inventory GUI for conversations
  */
-public class InventoryConvIO implements Listener, ConversationIO {
+public class InventoryConvIO implements ConversationIO {
     private static final Map<String, ItemStack> SKULL_CACHE = new HashMap<>();
 
     protected String response = null;
@@ -96,8 +93,6 @@ public class InventoryConvIO implements Listener, ConversationIO {
             showNumber = config.getBoolean("show_number", true);
             showNPCText = config.getBoolean("show_npc_text", true);
         }
-
-        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
     }
 
     @Override
@@ -265,7 +260,11 @@ public class InventoryConvIO implements Listener, ConversationIO {
         return meta;
     }
 
-    @EventHandler(ignoreCancelled = true)
+    /**
+     * Handles the option clicked by the player. Called by {@link ConversationSessions}.
+     *
+     * @param event the click event of the player
+     */
     public void onInventoryClick(final InventoryClickEvent event) {
         if (!(event.getWhoClicked() instanceof Player)) {
             return;
@@ -297,7 +296,12 @@ public class InventoryConvIO implements Listener, ConversationIO {
         }
     }
 
-    @EventHandler(ignoreCancelled = true)
+    /**
+     * Reopens the inventory or ends the conversation. Called by
+     * {@link ConversationSessions}.
+     *
+     * @param event the close event of the player
+     */
     public void onClose(final InventoryCloseEvent event) {
         if (!(event.getPlayer() instanceof Player)) {
             return;
@@ -312,7 +316,6 @@ public class InventoryConvIO implements Listener, ConversationIO {
         }
         // allow closing when the conversation has finished
         if (allowClose) {
-            HandlerList.unregisterAll(this);
             return;
         }
         if (conv.isMovementBlock()) {
@@ -325,7 +328,6 @@ public class InventoryConvIO implements Listener, ConversationIO {
             }.runTask(BetonQuest.getInstance());
         } else {
             conv.endConversation();
-            HandlerList.unregisterAll(this);
         }
     }
 
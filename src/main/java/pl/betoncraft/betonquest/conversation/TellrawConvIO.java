@@ -60,7 +60,11 @@ public class TellrawConvIO extends ChatConvIO {
         number = string.toString();
     }
 
-    @EventHandler(ignoreCancelled = true)
+    /**
+     * Handles the answer clicked by the player. Called by {@link ConversationSessions}.
+     *
+     * @param event the command event of the player
+     */
     public void onCommandAnswer(final PlayerCommandPreprocessEvent event) {
         if (!event.getPlayer().equals(player)) {
             return;
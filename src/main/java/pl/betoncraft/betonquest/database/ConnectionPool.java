@@ -0,0 +1,228 @@
+package pl.betoncraft.betonquest.database;
+
+import pl.betoncraft.betonquest.utils.LatencyHistogram;
+import pl.betoncraft.betonquest.utils.LogUtils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Keeps a bounded amount of open database connections, so threads reading
+ * from the database don't have to share a single connection. Connections
+ * are validated when they are borrowed after being idle for a while.
+ */
+public class ConnectionPool {
+
+    /**
+     * Connections used less than this amount of milliseconds ago are
+     * considered alive without validating them
+     */
+    private static final long ALIVE_BYPASS_WINDOW = 500;
+    /**
+     * Timeout of the validation in seconds
+     */
+    private static final int VALIDATION_TIMEOUT = 5;
+
+    private final Database database;
+    private final int maxSize;
+    private final long timeout;
+    private final LinkedBlockingDeque<IdleConnection> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LatencyHistogram waitTimes = new LatencyHistogram("Database connection wait");
+    private volatile boolean closed;
+
+    /**
+     * Creates new pool and opens the minimum amount of connections.
+     *
+     * @param database database used to open new connections
+     * @param minSize  amount of connections opened right away
+     * @param maxSize  maximum amount of open connections
+     * @param timeout  maximum time in milliseconds to wait for a free connection
+     */
+    public ConnectionPool(final Database database, final int minSize, final int maxSize, final long timeout) {
+        this.database = database;
+        this.maxSize = Math.max(1, maxSize);
+        this.timeout = timeout;
+        for (int i = 0; i < Math.min(minSize, this.maxSize); i++) {
+            final Connection connection = database.openConnection();
+            if (connection == null) {
+                break;
+            }
+            total.incrementAndGet();
+            idle.offerFirst(new IdleConnection(connection));
+        }
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if there is no
+     * idle connection and the pool is not full yet. It has to be given back
+     * with {@link #release(Connection)}.
+     *
+     * @return an open connection
+     * @throws SQLException when no connection could be opened or the waiting timed out
+     */
+    public Connection borrow() throws SQLException {
+        final long start = System.nanoTime();
+        final long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeout);
+        try {
+            while (true) {
+                IdleConnection idleConnection = idle.pollFirst();
+                if (idleConnection == null) {
+                    final Connection connection = open();
+                    if (connection != null) {
+                        return lend(connection, start);
+                    }
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SQLException("Timed out while waiting for a free database connection");
+                    }
+                    idleConnection = idle.pollFirst(remaining, TimeUnit.NANOSECONDS);
+                    if (idleConnection == null) {
+                        continue;
+                    }
+                }
+                if (isAlive(idleConnection)) {
+                    return lend(idleConnection.connection, start);
+                }
+                LogUtils.getLogger().log(Level.FINE, "Discarding a broken database connection");
+                discard(idleConnection.connection);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a free database connection", e);
+        }
+    }
+
+    /**
+     * Gives a borrowed connection back to the pool.
+     *
+     * @param connection the connection borrowed with {@link #borrow()}
+     */
+    public void release(final Connection connection) {
+        active.decrementAndGet();
+        if (closed) {
+            discard(connection);
+            return;
+        }
+        try {
+            if (connection.isClosed()) {
+                total.decrementAndGet();
+                return;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            LogUtils.logThrowableIgnore(e);
+            discard(connection);
+            return;
+        }
+        idle.offerFirst(new IdleConnection(connection));
+    }
+
+    /**
+     * Closes all idle connections. Borrowed connections are closed when they
+     * are given back.
+     */
+    public void close() {
+        closed = true;
+        IdleConnection idleConnection = idle.pollFirst();
+        while (idleConnection != null) {
+            discard(idleConnection.connection);
+            idleConnection = idle.pollFirst();
+        }
+    }
+
+    /**
+     * @return the amount of connections currently borrowed
+     */
+    public int getActive() {
+        return active.get();
+    }
+
+    /**
+     * @return the amount of open connections waiting to be borrowed
+     */
+    public int getIdle() {
+        return idle.size();
+    }
+
+    /**
+     * @return the amount of all open connections
+     */
+    public int getTotal() {
+        return total.get();
+    }
+
+    /**
+     * @return the histogram of times threads waited for a connection
+     */
+    public LatencyHistogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    private Connection open() throws SQLException {
+        while (true) {
+            final int current = total.get();
+            if (current >= maxSize) {
+                return null;
+            }
+            if (total.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+        final Connection connection = database.openConnection();
+        if (connection == null) {
+            total.decrementAndGet();
+            throw new SQLException("Could not open a new database connection");
+        }
+        return connection;
+    }
+
+    private Connection lend(final Connection connection, final long start) {
+        active.incrementAndGet();
+        waitTimes.record(System.nanoTime() - start);
+        return connection;
+    }
+
+    private boolean isAlive(final IdleConnection idleConnection) {
+        if (System.currentTimeMillis() - idleConnection.since < ALIVE_BYPASS_WINDOW) {
+            return true;
+        }
+        try {
+            return idleConnection.connection.isValid(VALIDATION_TIMEOUT);
+        } catch (SQLException e) {
+            LogUtils.logThrowableIgnore(e);
+            return false;
+        }
+    }
+
+    private void discard(final Connection connection) {
+        total.decrementAndGet();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LogUtils.logThrowableIgnore(e);
+        }
+    }
+
+    /**
+     * A connection waiting in the pool with the time it was given back
+     */
+    private static class IdleConnection {
+
+        private final Connection connection;
+        private final long since;
+
+        /* default */ IdleConnection(final Connection connection) {
+            this.connection = connection;
+            this.since = System.currentTimeMillis();
+        }
+    }
+}
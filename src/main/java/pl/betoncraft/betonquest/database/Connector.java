@@ -1,46 +1,138 @@
 package pl.betoncraft.betonquest.database;
 
 import pl.betoncraft.betonquest.BetonQuest;
+import pl.betoncraft.betonquest.database.Saver.Record;
 import pl.betoncraft.betonquest.utils.LogUtils;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 
 /**
  * Connects to the database and queries it
  */
-public class Connector {
+public class Connector implements AutoCloseable {
+
+    /**
+     * Timeout of the writer connection validation in seconds
+     */
+    private static final int VALIDATION_TIMEOUT = 5;
+    /**
+     * Amount of rows fetched at once by streaming queries
+     */
+    private static final int STREAM_FETCH_SIZE = 1000;
 
     private final BetonQuest plugin;
     private final String prefix;
     private final Database database;
+    private final boolean writer;
+    private final boolean dedicated;
+    private final Map<UpdateType, PreparedStatement> statements = new EnumMap<>(UpdateType.class);
+    private final List<PreparedStatement> queries = new ArrayList<>();
     private Connection connection;
 
     /**
-     * Opens a new connection to the database
+     * Borrows a connection from the connection pool. It has to be given back
+     * with {@link #close()} when all results have been read.
      */
     public Connector() {
+        this(false);
+    }
+
+    /**
+     * Opens a new connector.
+     *
+     * @param writer true to use the dedicated writer connection of the
+     *               database instead of a pooled one
+     */
+    /* default */ Connector(final boolean writer) {
         plugin = BetonQuest.getInstance();
         prefix = plugin.getConfig().getString("mysql.prefix", "");
         database = plugin.getDB();
-        connection = database.getConnection();
-        refresh();
+        this.writer = writer;
+        if (writer) {
+            dedicated = false;
+            connection = database.getConnection();
+            refresh();
+            return;
+        }
+        Connection borrowed = null;
+        try {
+            borrowed = database.borrowConnection();
+        } catch (SQLException e) {
+            // the writer connection can be inside a transaction of the saver, so it is never shared
+            LogUtils.getLogger().log(Level.WARNING, "Could not get a database connection from the pool, "
+                    + "opening a separate one: " + e.getMessage());
+            LogUtils.logThrowable(e);
+        }
+        dedicated = borrowed == null;
+        connection = dedicated ? database.openConnection() : borrowed;
+        if (connection == null) {
+            LogUtils.getLogger().log(Level.SEVERE, "Could not open a database connection, the query will fail");
+        }
     }
 
     /**
-     * This method should be used before any other database operations.
+     * Makes sure the writer connection is still open and reconnects if it's
+     * not. Pooled connections are validated by the pool itself.
      */
     public void refresh() {
+        if (!writer) {
+            return;
+        }
         try {
-            connection.prepareStatement("SELECT 1").executeQuery();
+            if (connection != null && connection.isValid(VALIDATION_TIMEOUT)) {
+                return;
+            }
         } catch (SQLException e) {
-            LogUtils.getLogger().log(Level.WARNING, "Reconnecting to the database");
             LogUtils.logThrowable(e);
-            database.closeConnection();
-            connection = database.getConnection();
+        }
+        LogUtils.getLogger().log(Level.WARNING, "Reconnecting to the database");
+        statements.clear();
+        database.closeConnection();
+        connection = database.getConnection();
+    }
+
+    /**
+     * Closes all statements of this connector and gives the connection back
+     * to the pool. All result sets returned by this connector are closed too.
+     */
+    @Override
+    public void close() {
+        for (final PreparedStatement statement : queries) {
+            closeStatement(statement);
+        }
+        queries.clear();
+        for (final PreparedStatement statement : statements.values()) {
+            closeStatement(statement);
+        }
+        statements.clear();
+        if (writer || connection == null) {
+            return;
+        }
+        if (dedicated) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                LogUtils.logThrowableIgnore(e);
+            }
+        } else {
+            database.releaseConnection(connection);
+        }
+        connection = null;
+    }
+
+    private void closeStatement(final PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            LogUtils.logThrowableIgnore(e);
         }
     }
 
@@ -53,80 +145,11 @@ public class Connector {
      */
     public ResultSet querySQL(final QueryType type, final String[] args) {
         try {
-            final PreparedStatement statement;
-            switch (type) {
-                case SELECT_JOURNAL:
-                    statement = connection
-                            .prepareStatement("SELECT pointer, date FROM " + prefix + "journal WHERE playerID = ?;");
-                    break;
-                case SELECT_POINTS:
-                    statement = connection
-                            .prepareStatement("SELECT category, count FROM " + prefix + "points WHERE playerID = ?;");
-                    break;
-                case SELECT_OBJECTIVES:
-                    statement = connection.prepareStatement(
-                            "SELECT objective, instructions FROM " + prefix + "objectives WHERE playerID = ?;");
-                    break;
-                case SELECT_TAGS:
-                    statement = connection.prepareStatement("SELECT tag FROM " + prefix + "tags WHERE playerID = ?;");
-                    break;
-                case SELECT_BACKPACK:
-                    statement = connection
-                            .prepareStatement("SELECT instruction, amount FROM " + prefix + "backpack WHERE playerID = ?;");
-                    break;
-                case SELECT_PLAYER:
-                    statement = connection.prepareStatement(
-                            "SELECT language, conversation FROM " + prefix + "player WHERE playerID = ?;");
-                    break;
-                case SELECT_PLAYERS_TAGS:
-                    statement = connection.prepareStatement("SELECT playerID FROM " + prefix + "tags GROUP BY playerID;");
-                    break;
-                case SELECT_PLAYERS_JOURNAL:
-                    statement = connection
-                            .prepareStatement("SELECT playerID FROM " + prefix + "journal GROUP BY playerID;");
-                    break;
-                case SELECT_PLAYERS_POINTS:
-                    statement = connection.prepareStatement("SELECT playerID FROM " + prefix + "points GROUP BY playerID;");
-                    break;
-                case SELECT_PLAYERS_OBJECTIVES:
-                    statement = connection
-                            .prepareStatement("SELECT playerID FROM " + prefix + "objectives GROUP BY playerID;");
-                    break;
-                case SELECT_PLAYERS_BACKPACK:
-                    statement = connection
-                            .prepareStatement("SELECT playerID FROM " + prefix + "backpack GROUP BY playerID;");
-                    break;
-                case LOAD_ALL_JOURNALS:
-                    statement = connection.prepareStatement("SELECT * FROM " + prefix + "journal");
-                    break;
-                case LOAD_ALL_OBJECTIVES:
-                    statement = connection.prepareStatement("SELECT * FROM " + prefix + "objectives");
-                    break;
-                case LOAD_ALL_POINTS:
-                    statement = connection.prepareStatement("SELECT * FROM " + prefix + "points");
-                    break;
-                case LOAD_ALL_GLOBAL_POINTS:
-                    statement = connection.prepareStatement("SELECT * FROM " + prefix + "global_points");
-                    break;
-                case LOAD_ALL_TAGS:
-                    statement = connection.prepareStatement("SELECT * FROM " + prefix + "tags");
-                    break;
-                case LOAD_ALL_GLOBAL_TAGS:
-                    statement = connection.prepareStatement("SELECT * FROM " + prefix + "global_tags");
-                    break;
-                case LOAD_ALL_BACKPACK:
-                    statement = connection.prepareStatement("SELECT * FROM " + prefix + "backpack");
-                    break;
-                case LOAD_ALL_PLAYER:
-                    statement = connection.prepareStatement("SELECT * FROM " + prefix + "player");
-                    break;
-                default:
-                    statement = connection.prepareStatement("SELECT 1");
-                    break;
-            }
+            final PreparedStatement statement = getOpenConnection().prepareStatement(getQuerySQL(type));
             for (int i = 0; i < args.length; i++) {
                 statement.setString(i + 1, args[i]);
             }
+            queries.add(statement);
             return statement.executeQuery();
         } catch (SQLException e) {
             LogUtils.getLogger().log(Level.SEVERE, "There was a exception with SQL");
@@ -135,6 +158,26 @@ public class Connector {
         }
     }
 
+    /**
+     * Queries the database with the given type, without arguments. The rows
+     * are fetched from the database in small parts while the result set is
+     * read, instead of all at once, so even huge tables can be read with
+     * constant memory. The result set should be closed before any other query
+     * is done with this connector.
+     *
+     * @param type type of the query
+     * @return ResultSet with the requested data
+     * @throws SQLException when the query fails
+     */
+    public ResultSet streamSQL(final QueryType type) throws SQLException {
+        final PreparedStatement statement = getOpenConnection().prepareStatement(getQuerySQL(type),
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        // MySQL only streams the rows with this special fetch size, otherwise it reads all of them at once
+        statement.setFetchSize(plugin.isMySQLUsed() ? Integer.MIN_VALUE : STREAM_FETCH_SIZE);
+        queries.add(statement);
+        return statement.executeQuery();
+    }
+
     /**
      * Updates the database with the given type and arguments
      *
@@ -143,193 +186,7 @@ public class Connector {
      */
     public void updateSQL(final UpdateType type, final String[] args) {
         try {
-            final PreparedStatement statement;
-            switch (type) {
-                case ADD_OBJECTIVES:
-                    statement = connection.prepareStatement(
-                            "INSERT INTO " + prefix + "objectives (playerID, objective, instructions) VALUES (?, ?, ?);");
-                    break;
-                case ADD_TAGS:
-                    statement = connection.prepareStatement(
-                            "INSERT INTO " + prefix + "tags (playerID, tag) VALUES (?, ?);");
-                    break;
-                case ADD_GLOBAL_TAGS:
-                    statement = connection.prepareStatement("INSERT INTO " + prefix + "global_tags (tag) VALUES (?);");
-                    break;
-                case ADD_POINTS:
-                    statement = connection.prepareStatement(
-                            "INSERT INTO " + prefix + "points (playerID, category, count) VALUES (?, ?, ?);");
-                    break;
-                case ADD_GLOBAL_POINTS:
-                    statement = connection
-                            .prepareStatement("INSERT INTO " + prefix + "global_points (category, count) VALUES (?, ?);");
-                    break;
-                case ADD_JOURNAL:
-                    statement = connection.prepareStatement(
-                            "INSERT INTO " + prefix + "journal (playerID, pointer, date) VALUES (?, ?, ?);");
-                    break;
-                case ADD_BACKPACK:
-                    statement = connection.prepareStatement(
-                            "INSERT INTO " + prefix + "backpack (playerID, instruction, amount) VALUES (?, ?, ?);");
-                    break;
-                case ADD_PLAYER:
-                    statement = connection
-                            .prepareStatement("INSERT INTO " + prefix + "player (playerID, language) VALUES (?, ?);");
-                    break;
-                case REMOVE_OBJECTIVES:
-                    statement = connection
-                            .prepareStatement("DELETE FROM " + prefix + "objectives WHERE playerID = ? AND objective = ?;");
-                    break;
-                case REMOVE_TAGS:
-                    statement = connection
-                            .prepareStatement("DELETE FROM " + prefix + "tags WHERE playerID = ? AND tag = ?;");
-                    break;
-                case REMOVE_GLOBAL_TAGS:
-                    statement = connection.prepareStatement("DELETE FROM " + prefix + "global_tags WHERE tag = ?;");
-                    break;
-                case REMOVE_POINTS:
-                    statement = connection
-                            .prepareStatement("DELETE FROM " + prefix + "points WHERE playerID = ? AND category = ?;");
-                    break;
-                case REMOVE_GLOBAL_POINTS:
-                    statement = connection
-                            .prepareStatement("DELETE FROM " + prefix + "global_points WHERE category = ?;");
-                    break;
-                case REMOVE_JOURNAL:
-                    statement = connection.prepareStatement(
-                            "DELETE FROM " + prefix + "journal WHERE playerID = ? AND pointer = ? AND date = ?;");
-                    break;
-                case DELETE_OBJECTIVES:
-                    statement = connection.prepareStatement("DELETE FROM " + prefix + "objectives WHERE playerID = ?;");
-                    break;
-                case DELETE_TAGS:
-                    statement = connection.prepareStatement("DELETE FROM " + prefix + "tags WHERE playerID = ?;");
-                    break;
-                case DELETE_GLOBAL_TAGS:
-                    statement = connection.prepareStatement("DELETE FROM " + prefix + "global_tags");
-                    break;
-                case DELETE_POINTS:
-                    statement = connection.prepareStatement("DELETE FROM " + prefix + "points WHERE playerID = ?;");
-                    break;
-                case DELETE_GLOBAL_POINTS:
-                    statement = connection.prepareStatement("DELETE FROM " + prefix + "global_points");
-                    break;
-                case DELETE_JOURNAL:
-                    statement = connection.prepareStatement("DELETE FROM " + prefix + "journal WHERE playerID = ?;");
-                    break;
-                case DELETE_BACKPACK:
-                    statement = connection.prepareStatement("DELETE FROM " + prefix + "backpack WHERE playerID = ?;");
-                    break;
-                case DELETE_PLAYER:
-                    statement = connection.prepareStatement("DELETE FROM " + prefix + "player WHERE playerID = ?;");
-                    break;
-                case UPDATE_PLAYERS_OBJECTIVES:
-                    statement = connection
-                            .prepareStatement("UPDATE " + prefix + "objectives SET playerID = ? WHERE playerID = ?;");
-                    break;
-                case UPDATE_PLAYERS_TAGS:
-                    statement = connection
-                            .prepareStatement("UPDATE " + prefix + "tags SET playerID = ? WHERE playerID = ?;");
-                    break;
-                case UPDATE_PLAYERS_POINTS:
-                    statement = connection
-                            .prepareStatement("UPDATE " + prefix + "points SET playerID = ? WHERE playerID = ?;");
-                    break;
-                case UPDATE_PLAYERS_JOURNAL:
-                    statement = connection
-                            .prepareStatement("UPDATE " + prefix + "journal SET playerID = ? WHERE playerID = ?;");
-                    break;
-                case UPDATE_PLAYERS_BACKPACK:
-                    statement = connection
-                            .prepareStatement("UPDATE " + prefix + "backpack SET playerID = ? WHERE playerID = ?;");
-                    break;
-                case DROP_OBJECTIVES:
-                    statement = connection.prepareStatement("DROP TABLE " + prefix + "objectives");
-                    break;
-                case DROP_TAGS:
-                    statement = connection.prepareStatement("DROP TABLE " + prefix + "tags");
-                    break;
-                case DROP_GLOBAL_TAGS:
-                    statement = connection.prepareStatement("DROP TABLE " + prefix + "global_tags");
-                    break;
-                case DROP_POINTS:
-                    statement = connection.prepareStatement("DROP TABLE " + prefix + "points");
-                    break;
-                case DROP_GLOBAL_POINTS:
-                    statement = connection.prepareStatement("DROP TABLE " + prefix + "global_points");
-                    break;
-                case DROP_JOURNALS:
-                    statement = connection.prepareStatement("DROP TABLE " + prefix + "journal");
-                    break;
-                case DROP_BACKPACK:
-                    statement = connection.prepareStatement("DROP TABLE " + prefix + "backpack");
-                    break;
-                case DROP_PLAYER:
-                    statement = connection.prepareStatement("DROP TABLE " + prefix + "player");
-                    break;
-                case INSERT_OBJECTIVE:
-                    statement = connection.prepareStatement("INSERT INTO " + prefix + "objectives VALUES (?,?,?,?)");
-                    break;
-                case INSERT_TAG:
-                    statement = connection.prepareStatement("INSERT INTO " + prefix + "tags VALUES (?,?,?)");
-                    break;
-                case INSERT_GLOBAL_TAG:
-                    statement = connection.prepareStatement("INSERT INTO " + prefix + "global_tags VALUES (?,?)");
-                    break;
-                case INSERT_POINT:
-                    statement = connection.prepareStatement("INSERT INTO " + prefix + "points VALUES (?,?,?,?)");
-                    break;
-                case INSERT_GLOBAL_POINT:
-                    statement = connection.prepareStatement("INSERT INTO " + prefix + "global_points VALUES (?,?,?)");
-                    break;
-                case INSERT_JOURNAL:
-                    statement = connection.prepareStatement("INSERT INTO " + prefix + "journal VALUES (?,?,?,?)");
-                    break;
-                case INSERT_BACKPACK:
-                    statement = connection.prepareStatement("INSERT INTO " + prefix + "backpack VALUES (?,?,?,?)");
-                    break;
-                case INSERT_PLAYER:
-                    statement = connection.prepareStatement("INSERT INTO " + prefix + "player VALUES (?,?,?,?);");
-                    break;
-                case UPDATE_CONVERSATION:
-                    statement = connection
-                            .prepareStatement("UPDATE " + prefix + "player SET conversation = ? WHERE playerID = ?");
-                    break;
-                case REMOVE_ALL_TAGS:
-                    statement = connection.prepareStatement("DELETE FROM " + prefix + "tags WHERE tag = ?;");
-                    break;
-                case REMOVE_ALL_POINTS:
-                    statement = connection.prepareStatement("DELETE FROM " + prefix + "points WHERE category = ?;");
-                    break;
-                case REMOVE_ALL_OBJECTIVES:
-                    statement = connection.prepareStatement("DELETE FROM " + prefix + "objectives WHERE objective = ?;");
-                    break;
-                case REMOVE_ALL_ENTRIES:
-                    statement = connection.prepareStatement("DELETE FROM " + prefix + "journal WHERE pointer = ?;");
-                    break;
-                case RENAME_ALL_TAGS:
-                    statement = connection.prepareStatement("UPDATE " + prefix + "tags SET tag = ? WHERE tag = ?;");
-                    break;
-                case RENAME_ALL_POINTS:
-                    statement = connection
-                            .prepareStatement("UPDATE " + prefix + "points SET category = ? WHERE category = ?;");
-                    break;
-                case RENAME_ALL_GLOBAL_POINTS:
-                    statement = connection
-                            .prepareStatement("UPDATE " + prefix + "global_points SET category = ? WHERE category = ?;");
-                    break;
-                case RENAME_ALL_OBJECTIVES:
-                    statement = connection
-                            .prepareStatement("UPDATE " + prefix + "objectives SET objective = ? WHERE objective = ?;");
-                    break;
-                case RENAME_ALL_ENTRIES:
-                    statement = connection
-                            .prepareStatement("UPDATE " + prefix + "journal SET pointer = ? WHERE pointer = ?;");
-                    break;
-                default:
-                    statement = connection.prepareStatement("SELECT 1");
-                    break;
-            }
+            final PreparedStatement statement = getUpdateStatement(type);
             for (int i = 0; i < args.length; i++) {
                 statement.setString(i + 1, args[i]);
             }
@@ -340,6 +197,243 @@ public class Connector {
         }
     }
 
+    /**
+     * Updates the database with all given records in a single transaction.
+     * Consecutive records of the same type are sent as one JDBC batch, so
+     * callers should group them if the order allows it. If anything fails the
+     * whole transaction is rolled back and nothing is saved.
+     *
+     * @param records records to save, in order
+     * @return true if the transaction was committed, false if it was rolled back
+     */
+    public boolean updateSQLBatch(final List<Record> records) {
+        try {
+            getOpenConnection().setAutoCommit(false);
+            try {
+                PreparedStatement statement = null;
+                UpdateType current = null;
+                for (final Record rec : records) {
+                    if (rec.getType() != current) {
+                        if (statement != null) {
+                            statement.executeBatch();
+                        }
+                        current = rec.getType();
+                        statement = getUpdateStatement(current);
+                    }
+                    final String[] args = rec.getArgs();
+                    for (int i = 0; i < args.length; i++) {
+                        statement.setString(i + 1, args[i]);
+                    }
+                    statement.addBatch();
+                }
+                if (statement != null) {
+                    statement.executeBatch();
+                }
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            LogUtils.getLogger().log(Level.WARNING, "Could not save a batch of " + records.size() + " records");
+            LogUtils.logThrowable(e);
+            return false;
+        }
+    }
+
+    private Connection getOpenConnection() throws SQLException {
+        if (connection == null) {
+            throw new SQLException("There is no database connection");
+        }
+        return connection;
+    }
+
+    /**
+     * Returns the prepared statement for this type of update. Statements are
+     * prepared once per connection and reused afterwards.
+     *
+     * @param type type of the update
+     * @return the prepared statement
+     * @throws SQLException when the statement could not be prepared
+     */
+    private PreparedStatement getUpdateStatement(final UpdateType type) throws SQLException {
+        PreparedStatement statement = statements.get(type);
+        if (statement == null) {
+            statement = getOpenConnection().prepareStatement(getUpdateSQL(type));
+            statements.put(type, statement);
+        }
+        return statement;
+    }
+
+    private String getQuerySQL(final QueryType type) {
+        switch (type) {
+            case SELECT_JOURNAL:
+                return "SELECT pointer, date FROM " + prefix + "journal WHERE playerID = ?;";
+            case SELECT_POINTS:
+                return "SELECT category, count FROM " + prefix + "points WHERE playerID = ?;";
+            case SELECT_OBJECTIVES:
+                return "SELECT objective, instructions FROM " + prefix + "objectives WHERE playerID = ?;";
+            case SELECT_TAGS:
+                return "SELECT tag FROM " + prefix + "tags WHERE playerID = ?;";
+            case SELECT_BACKPACK:
+                return "SELECT instruction, amount FROM " + prefix + "backpack WHERE playerID = ?;";
+            case SELECT_PLAYER:
+                return "SELECT language, conversation FROM " + prefix + "player WHERE playerID = ?;";
+            case SELECT_PLAYER_DATA:
+                return "SELECT 0 AS source, objective AS name, instructions AS content, 0 AS amount, NULL AS date FROM "
+                        + prefix + "objectives WHERE playerID = ?"
+                        + " UNION ALL SELECT 1, tag, NULL, 0, NULL FROM " + prefix + "tags WHERE playerID = ?"
+                        + " UNION ALL SELECT 2, pointer, NULL, 0, date FROM " + prefix + "journal WHERE playerID = ?"
+                        + " UNION ALL SELECT 3, category, NULL, count, NULL FROM " + prefix + "points WHERE playerID = ?"
+                        + " UNION ALL SELECT 4, instruction, NULL, amount, NULL FROM " + prefix + "backpack WHERE playerID = ?"
+                        + " UNION ALL SELECT 5, language, conversation, 0, NULL FROM " + prefix + "player WHERE playerID = ?;";
+            case SELECT_PLAYERS_TAGS:
+                return "SELECT playerID FROM " + prefix + "tags GROUP BY playerID;";
+            case SELECT_PLAYERS_JOURNAL:
+                return "SELECT playerID FROM " + prefix + "journal GROUP BY playerID;";
+            case SELECT_PLAYERS_POINTS:
+                return "SELECT playerID FROM " + prefix + "points GROUP BY playerID;";
+            case SELECT_PLAYERS_OBJECTIVES:
+                return "SELECT playerID FROM " + prefix + "objectives GROUP BY playerID;";
+            case SELECT_PLAYERS_BACKPACK:
+                return "SELECT playerID FROM " + prefix + "backpack GROUP BY playerID;";
+            case LOAD_ALL_JOURNALS:
+                return "SELECT * FROM " + prefix + "journal";
+            case LOAD_ALL_OBJECTIVES:
+                return "SELECT * FROM " + prefix + "objectives";
+            case LOAD_ALL_POINTS:
+                return "SELECT * FROM " + prefix + "points";
+            case LOAD_ALL_GLOBAL_POINTS:
+                return "SELECT * FROM " + prefix + "global_points";
+            case LOAD_ALL_TAGS:
+                return "SELECT * FROM " + prefix + "tags";
+            case LOAD_ALL_GLOBAL_TAGS:
+                return "SELECT * FROM " + prefix + "global_tags";
+            case LOAD_ALL_BACKPACK:
+                return "SELECT * FROM " + prefix + "backpack";
+            case LOAD_ALL_PLAYER:
+                return "SELECT * FROM " + prefix + "player";
+            default:
+                return "SELECT 1";
+        }
+    }
+
+    private String getUpdateSQL(final UpdateType type) {
+        switch (type) {
+            case ADD_OBJECTIVES:
+                return "INSERT INTO " + prefix + "objectives (playerID, objective, instructions) VALUES (?, ?, ?);";
+            case ADD_TAGS:
+                return "INSERT INTO " + prefix + "tags (playerID, tag) VALUES (?, ?);";
+            case ADD_GLOBAL_TAGS:
+                return "INSERT INTO " + prefix + "global_tags (tag) VALUES (?);";
+            case ADD_POINTS:
+                return "INSERT INTO " + prefix + "points (playerID, category, count) VALUES (?, ?, ?);";
+            case ADD_GLOBAL_POINTS:
+                return "INSERT INTO " + prefix + "global_points (category, count) VALUES (?, ?);";
+            case ADD_JOURNAL:
+                return "INSERT INTO " + prefix + "journal (playerID, pointer, date) VALUES (?, ?, ?);";
+            case ADD_BACKPACK:
+                return "INSERT INTO " + prefix + "backpack (playerID, instruction, amount) VALUES (?, ?, ?);";
+            case ADD_PLAYER:
+                return "INSERT INTO " + prefix + "player (playerID, language) VALUES (?, ?);";
+            case REMOVE_OBJECTIVES:
+                return "DELETE FROM " + prefix + "objectives WHERE playerID = ? AND objective = ?;";
+            case REMOVE_TAGS:
+                return "DELETE FROM " + prefix + "tags WHERE playerID = ? AND tag = ?;";
+            case REMOVE_GLOBAL_TAGS:
+                return "DELETE FROM " + prefix + "global_tags WHERE tag = ?;";
+            case REMOVE_POINTS:
+                return "DELETE FROM " + prefix + "points WHERE playerID = ? AND category = ?;";
+            case REMOVE_GLOBAL_POINTS:
+                return "DELETE FROM " + prefix + "global_points WHERE category = ?;";
+            case REMOVE_JOURNAL:
+                return "DELETE FROM " + prefix + "journal WHERE playerID = ? AND pointer = ? AND date = ?;";
+            case DELETE_OBJECTIVES:
+                return "DELETE FROM " + prefix + "objectives WHERE playerID = ?;";
+            case DELETE_TAGS:
+                return "DELETE FROM " + prefix + "tags WHERE playerID = ?;";
+            case DELETE_GLOBAL_TAGS:
+                return "DELETE FROM " + prefix + "global_tags";
+            case DELETE_POINTS:
+                return "DELETE FROM " + prefix + "points WHERE playerID = ?;";
+            case DELETE_GLOBAL_POINTS:
+                return "DELETE FROM " + prefix + "global_points";
+            case DELETE_JOURNAL:
+                return "DELETE FROM " + prefix + "journal WHERE playerID = ?;";
+            case DELETE_BACKPACK:
+                return "DELETE FROM " + prefix + "backpack WHERE playerID = ?;";
+            case DELETE_PLAYER:
+                return "DELETE FROM " + prefix + "player WHERE playerID = ?;";
+            case UPDATE_PLAYERS_OBJECTIVES:
+                return "UPDATE " + prefix + "objectives SET playerID = ? WHERE playerID = ?;";
+            case UPDATE_PLAYERS_TAGS:
+                return "UPDATE " + prefix + "tags SET playerID = ? WHERE playerID = ?;";
+            case UPDATE_PLAYERS_POINTS:
+                return "UPDATE " + prefix + "points SET playerID = ? WHERE playerID = ?;";
+            case UPDATE_PLAYERS_JOURNAL:
+                return "UPDATE " + prefix + "journal SET playerID = ? WHERE playerID = ?;";
+            case UPDATE_PLAYERS_BACKPACK:
+                return "UPDATE " + prefix + "backpack SET playerID = ? WHERE playerID = ?;";
+            case DROP_OBJECTIVES:
+                return "DROP TABLE " + prefix + "objectives";
+            case DROP_TAGS:
+                return "DROP TABLE " + prefix + "tags";
+            case DROP_GLOBAL_TAGS:
+                return "DROP TABLE " + prefix + "global_tags";
+            case DROP_POINTS:
+                return "DROP TABLE " + prefix + "points";
+            case DROP_GLOBAL_POINTS:
+                return "DROP TABLE " + prefix + "global_points";
+            case DROP_JOURNALS:
+                return "DROP TABLE " + prefix + "journal";
+            case DROP_BACKPACK:
+                return "DROP TABLE " + prefix + "backpack";
+            case DROP_PLAYER:
+                return "DROP TABLE " + prefix + "player";
+            case INSERT_OBJECTIVE:
+                return "INSERT INTO " + prefix + "objectives VALUES (?,?,?,?)";
+            case INSERT_TAG:
+                return "INSERT INTO " + prefix + "tags VALUES (?,?,?)";
+            case INSERT_GLOBAL_TAG:
+                return "INSERT INTO " + prefix + "global_tags VALUES (?,?)";
+            case INSERT_POINT:
+                return "INSERT INTO " + prefix + "points VALUES (?,?,?,?)";
+            case INSERT_GLOBAL_POINT:
+                return "INSERT INTO " + prefix + "global_points VALUES (?,?,?)";
+            case INSERT_JOURNAL:
+                return "INSERT INTO " + prefix + "journal VALUES (?,?,?,?)";
+            case INSERT_BACKPACK:
+                return "INSERT INTO " + prefix + "backpack VALUES (?,?,?,?)";
+            case INSERT_PLAYER:
+                return "INSERT INTO " + prefix + "player VALUES (?,?,?,?);";
+            case UPDATE_CONVERSATION:
+                return "UPDATE " + prefix + "player SET conversation = ? WHERE playerID = ?";
+            case REMOVE_ALL_TAGS:
+                return "DELETE FROM " + prefix + "tags WHERE tag = ?;";
+            case REMOVE_ALL_POINTS:
+                return "DELETE FROM " + prefix + "points WHERE category = ?;";
+            case REMOVE_ALL_OBJECTIVES:
+                return "DELETE FROM " + prefix + "objectives WHERE objective = ?;";
+            case REMOVE_ALL_ENTRIES:
+                return "DELETE FROM " + prefix + "journal WHERE pointer = ?;";
+            case RENAME_ALL_TAGS:
+                return "UPDATE " + prefix + "tags SET tag = ? WHERE tag = ?;";
+            case RENAME_ALL_POINTS:
+                return "UPDATE " + prefix + "points SET category = ? WHERE category = ?;";
+            case RENAME_ALL_GLOBAL_POINTS:
+                return "UPDATE " + prefix + "global_points SET category = ? WHERE category = ?;";
+            case RENAME_ALL_OBJECTIVES:
+                return "UPDATE " + prefix + "objectives SET objective = ? WHERE objective = ?;";
+            case RENAME_ALL_ENTRIES:
+                return "UPDATE " + prefix + "journal SET pointer = ? WHERE pointer = ?;";
+            default:
+                return "SELECT 1";
+        }
+    }
+
     /**
      * Type of the query
      */
@@ -347,6 +441,12 @@ public class Connector {
 
         SELECT_OBJECTIVES, SELECT_TAGS, SELECT_POINTS, SELECT_JOURNAL, SELECT_BACKPACK, SELECT_PLAYER,
 
+        /**
+         * Selects the objectives, tags, journal, points, backpack and player
+         * rows of a single player at once. PlayerID six times.
+         */
+        SELECT_PLAYER_DATA,
+
         SELECT_PLAYERS_TAGS, SELECT_PLAYERS_JOURNAL, SELECT_PLAYERS_POINTS, SELECT_PLAYERS_OBJECTIVES, SELECT_PLAYERS_BACKPACK,
 
         LOAD_ALL_OBJECTIVES, LOAD_ALL_TAGS, LOAD_ALL_POINTS, LOAD_ALL_JOURNALS, LOAD_ALL_BACKPACK, LOAD_ALL_PLAYER,
@@ -16,12 +16,20 @@ public abstract class Database {
     protected Plugin plugin;
     protected String prefix;
     protected Connection con;
+    protected ConnectionPool pool;
 
     protected Database(final Plugin plugin) {
         this.plugin = plugin;
         this.prefix = plugin.getConfig().getString("mysql.prefix", "");
     }
 
+    /**
+     * Returns the dedicated connection used for writing to the database. It
+     * is shared by the saver and maintenance tasks, so it should not be used
+     * for reading. Use {@link #borrowConnection()} for that.
+     *
+     * @return the writer connection
+     */
     public Connection getConnection() {
         if (con == null) {
             con = openConnection();
@@ -29,9 +37,45 @@ public abstract class Database {
         return con;
     }
 
+    /**
+     * Borrows a connection from the connection pool. It has to be given back
+     * with {@link #releaseConnection(Connection)} when it's not needed anymore.
+     *
+     * @return an open connection
+     * @throws SQLException when no connection is available
+     */
+    public Connection borrowConnection() throws SQLException {
+        return getPool().borrow();
+    }
+
+    /**
+     * Gives a connection back to the connection pool.
+     *
+     * @param connection connection borrowed with {@link #borrowConnection()}
+     */
+    public void releaseConnection(final Connection connection) {
+        getPool().release(connection);
+    }
+
+    /**
+     * @return the pool of connections used for reading
+     */
+    public synchronized ConnectionPool getPool() {
+        if (pool == null) {
+            pool = new ConnectionPool(this,
+                    plugin.getConfig().getInt("connection_pool.min_size", 2),
+                    plugin.getConfig().getInt("connection_pool.max_size", 8),
+                    plugin.getConfig().getLong("connection_pool.timeout", 5000));
+        }
+        return pool;
+    }
+
     protected abstract Connection openConnection();
 
     public void closeConnection() {
+        if (con == null) {
+            return;
+        }
         try {
             con.close();
         } catch (SQLException e) {
@@ -41,6 +85,19 @@ public abstract class Database {
         con = null;
     }
 
+    /**
+     * Closes the writer connection and all connections in the pool.
+     */
+    public void closeAllConnections() {
+        closeConnection();
+        synchronized (this) {
+            if (pool != null) {
+                pool.close();
+                pool = null;
+            }
+        }
+    }
+
     public void createTables(final boolean isMySQLUsed) {
         final String autoIncrement;
         if (isMySQLUsed) {
@@ -0,0 +1,272 @@
+package pl.betoncraft.betonquest.database;
+
+import pl.betoncraft.betonquest.BetonQuest;
+import pl.betoncraft.betonquest.database.Connector.QueryType;
+import pl.betoncraft.betonquest.database.Connector.UpdateType;
+import pl.betoncraft.betonquest.database.Saver.Record;
+import pl.betoncraft.betonquest.utils.LogUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the whole database to a gzipped stream of rows and loads it back.
+ * Rows are written while they are fetched from the database and inserted in
+ * batches while they are read from the file, so the memory used does not
+ * depend on the size of the database.
+ * <p>
+ * The file starts with a header line. Every table starts with a line
+ * containing '@' and the name of the table, followed by its rows, one per
+ * line, with values separated by tabs.
+ */
+public class DatabaseBackup {
+
+    /**
+     * Name of the backup file in the plugin's folder
+     */
+    public static final String FILE_NAME = "database-backup.gz";
+
+    private static final String HEADER = "# BetonQuest database backup 1";
+    private static final String NULL = "\\N";
+    private static final int BATCH_SIZE = 1000;
+    private static final int PROGRESS_STEP = 100_000;
+
+    /**
+     * Creates new database backup handler.
+     */
+    public DatabaseBackup() {
+        // the database is accessed when writing or restoring
+    }
+
+    /**
+     * Writes all tables to the file.
+     *
+     * @param file file to write, it will be overwritten
+     * @throws IOException  when the file could not be written
+     * @throws SQLException when the database could not be read
+     */
+    public void write(final File file) throws IOException, SQLException {
+        try (Connector connector = new Connector();
+             Writer writer = new BufferedWriter(new OutputStreamWriter(
+                     new GZIPOutputStream(new FileOutputStream(file)), StandardCharsets.UTF_8))) {
+            writer.write(HEADER);
+            writer.write('\n');
+            for (final Table table : Table.values()) {
+                final long rows = writeTable(connector, table, writer);
+                LogUtils.getLogger().log(Level.INFO, "Backed up " + rows + " rows of " + table.name + " table");
+            }
+        }
+    }
+
+    private long writeTable(final Connector connector, final Table table, final Writer writer)
+            throws IOException, SQLException {
+        writer.write('@');
+        writer.write(table.name);
+        writer.write('\n');
+        long rows = 0;
+        try (ResultSet res = connector.streamSQL(table.query)) {
+            final int columns = res.getMetaData().getColumnCount();
+            while (res.next()) {
+                for (int i = 1; i <= columns; i++) {
+                    if (i > 1) {
+                        writer.write('\t');
+                    }
+                    writer.write(escape(res.getString(i)));
+                }
+                writer.write('\n');
+                rows++;
+                if (rows % PROGRESS_STEP == 0) {
+                    LogUtils.getLogger().log(Level.INFO, "Backing up " + table.name + " table: " + rows + " rows");
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Replaces all tables with the contents of the file. The rows are
+     * inserted in batches, each in its own transaction.
+     *
+     * @param file file written by {@link #write(File)}
+     * @throws IOException  when the file could not be read or is not a backup
+     * @throws SQLException when the rows could not be inserted
+     */
+    public void restore(final File file) throws IOException, SQLException {
+        final BetonQuest instance = BetonQuest.getInstance();
+        final Database database = instance.getDB();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8));
+             Connector connector = new Connector()) {
+            if (!HEADER.equals(reader.readLine())) {
+                throw new IOException(file.getName() + " is not a database backup");
+            }
+            // create tables if they don't exist, so they can be dropped without an error
+            database.createTables(instance.isMySQLUsed());
+            for (final Table table : Table.values()) {
+                connector.updateSQL(table.drop, new String[]{});
+            }
+            database.createTables(instance.isMySQLUsed());
+
+            final List<Record> batch = new ArrayList<>(BATCH_SIZE);
+            Table table = null;
+            long rows = 0;
+            String line = reader.readLine();
+            while (line != null) {
+                if (line.startsWith("@")) {
+                    flush(connector, batch);
+                    if (table != null) {
+                        LogUtils.getLogger().log(Level.INFO, "Restored " + rows + " rows of " + table.name + " table");
+                    }
+                    table = Table.byName(line.substring(1));
+                    rows = 0;
+                } else if (table != null && !line.isEmpty()) {
+                    batch.add(new Record(table.insert, unescape(line)));
+                    rows++;
+                    if (batch.size() >= BATCH_SIZE) {
+                        flush(connector, batch);
+                    }
+                    if (rows % PROGRESS_STEP == 0) {
+                        LogUtils.getLogger().log(Level.INFO, "Restoring " + table.name + " table: " + rows + " rows");
+                    }
+                }
+                line = reader.readLine();
+            }
+            flush(connector, batch);
+            if (table != null) {
+                LogUtils.getLogger().log(Level.INFO, "Restored " + rows + " rows of " + table.name + " table");
+            }
+        }
+    }
+
+    private void flush(final Connector connector, final List<Record> batch) throws SQLException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (!connector.updateSQLBatch(batch)) {
+            throw new SQLException("Could not insert a batch of " + batch.size() + " rows");
+        }
+        batch.clear();
+    }
+
+    /* default */ static String escape(final String value) {
+        if (value == null) {
+            return NULL;
+        }
+        final StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char character = value.charAt(i);
+            switch (character) {
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                default:
+                    builder.append(character);
+                    break;
+            }
+        }
+        return builder.toString();
+    }
+
+    /* default */ static String[] unescape(final String line) {
+        final List<String> values = new ArrayList<>();
+        final StringBuilder builder = new StringBuilder();
+        boolean escaped = false;
+        boolean isNull = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char character = line.charAt(i);
+            if (escaped) {
+                escaped = false;
+                switch (character) {
+                    case 't':
+                        builder.append('\t');
+                        break;
+                    case 'n':
+                        builder.append('\n');
+                        break;
+                    case 'r':
+                        builder.append('\r');
+                        break;
+                    case 'N':
+                        isNull = true;
+                        break;
+                    default:
+                        builder.append(character);
+                        break;
+                }
+            } else if (character == '\\') {
+                escaped = true;
+            } else if (character == '\t') {
+                values.add(isNull ? null : builder.toString());
+                builder.setLength(0);
+                isNull = false;
+            } else {
+                builder.append(character);
+            }
+        }
+        values.add(isNull ? null : builder.toString());
+        return values.toArray(new String[0]);
+    }
+
+    /**
+     * Tables in the backup, in the order they are written
+     */
+    private enum Table {
+        OBJECTIVES("objectives", QueryType.LOAD_ALL_OBJECTIVES, UpdateType.INSERT_OBJECTIVE,
+                UpdateType.DROP_OBJECTIVES),
+        TAGS("tags", QueryType.LOAD_ALL_TAGS, UpdateType.INSERT_TAG, UpdateType.DROP_TAGS),
+        POINTS("points", QueryType.LOAD_ALL_POINTS, UpdateType.INSERT_POINT, UpdateType.DROP_POINTS),
+        JOURNAL("journal", QueryType.LOAD_ALL_JOURNALS, UpdateType.INSERT_JOURNAL, UpdateType.DROP_JOURNALS),
+        BACKPACK("backpack", QueryType.LOAD_ALL_BACKPACK, UpdateType.INSERT_BACKPACK, UpdateType.DROP_BACKPACK),
+        PLAYER("player", QueryType.LOAD_ALL_PLAYER, UpdateType.INSERT_PLAYER, UpdateType.DROP_PLAYER),
+        GLOBAL_TAGS("global_tags", QueryType.LOAD_ALL_GLOBAL_TAGS, UpdateType.INSERT_GLOBAL_TAG,
+                UpdateType.DROP_GLOBAL_TAGS),
+        GLOBAL_POINTS("global_points", QueryType.LOAD_ALL_GLOBAL_POINTS, UpdateType.INSERT_GLOBAL_POINT,
+                UpdateType.DROP_GLOBAL_POINTS);
+
+        private final String name;
+        private final QueryType query;
+        private final UpdateType insert;
+        private final UpdateType drop;
+
+        Table(final String name, final QueryType query, final UpdateType insert, final UpdateType drop) {
+            this.name = name;
+            this.query = query;
+            this.insert = insert;
+            this.drop = drop;
+        }
+
+        private static Table byName(final String name) {
+            for (final Table table : values()) {
+                if (table.name.equals(name)) {
+                    return table;
+                }
+            }
+            LogUtils.getLogger().log(Level.WARNING, "Skipping unknown table " + name + " in the database backup");
+            return null;
+        }
+    }
+}
@@ -31,9 +31,8 @@ public class GlobalData {
      * Loads all data for the player and puts it in appropriate lists.
      */
     public void loadAllGlobalData() {
-        try {
-            // get connection to the database
-            final Connector con = new Connector();
+        // get connection to the database
+        try (Connector con = new Connector()) {
             // load global_tags
             final ResultSet res2 = con.querySQL(QueryType.LOAD_ALL_GLOBAL_TAGS, new String[0]);
             // put them into the list
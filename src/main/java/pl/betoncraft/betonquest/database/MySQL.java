@@ -42,7 +42,9 @@ public class MySQL extends Database {
         try {
             Class.forName("com.mysql.jdbc.Driver");
             connection = DriverManager.getConnection(
-                    "jdbc:mysql://" + this.hostname + ":" + this.port + "/" + this.database + "?&useSSL=false", this.user, this.password);
+                    "jdbc:mysql://" + this.hostname + ":" + this.port + "/" + this.database + "?&useSSL=false"
+                            + "&cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048&useServerPrepStmts=true",
+                    this.user, this.password);
         } catch (Exception e) {
             LogUtils.getLogger().log(Level.WARNING, "MySQL says: " + e.getMessage());
             LogUtils.logThrowable(e);
@@ -1,5 +1,7 @@
 package pl.betoncraft.betonquest.database;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import org.bukkit.inventory.ItemStack;
 import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.Journal;
@@ -15,16 +17,25 @@ import pl.betoncraft.betonquest.exceptions.InstructionParseException;
 import pl.betoncraft.betonquest.exceptions.ObjectNotFoundException;
 import pl.betoncraft.betonquest.id.ObjectiveID;
 import pl.betoncraft.betonquest.item.QuestItem;
+import pl.betoncraft.betonquest.utils.LatencyHistogram;
 import pl.betoncraft.betonquest.utils.LogUtils;
 import pl.betoncraft.betonquest.utils.PlayerConverter;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.AbstractList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 
 /**
@@ -32,14 +43,29 @@ import java.util.logging.Level;
  */
 public class PlayerData {
 
+    private static final LatencyHistogram SINGLE_QUERY_LOADING = new LatencyHistogram("Player data loading (single query)");
+    private static final LatencyHistogram PER_TABLE_LOADING = new LatencyHistogram("Player data loading (query per table)");
+    private static final List<Consumer<String>> CHANGE_LISTENERS = new CopyOnWriteArrayList<>();
+    /**
+     * Most tags are shared by many players, so they are kept only once
+     */
+    private static final Interner<String> TAG_NAMES = Interners.newWeakInterner();
+
     private final Saver saver = BetonQuest.getInstance().getSaver();
 
     private final String playerID;
 
-    private final List<String> tags = new CopyOnWriteArrayList<>();
+    private final Set<String> tags = ConcurrentHashMap.newKeySet();
     private final List<Pointer> entries = new CopyOnWriteArrayList<>();
-    private final List<Point> points = new CopyOnWriteArrayList<>();
+    /**
+     * Points by their lower case category
+     */
+    private final Map<String, Point> points = new ConcurrentHashMap<>();
     private final Map<String, String> objectives = new ConcurrentHashMap<>();
+    private final AtomicLong dataVersion = new AtomicLong();
+    private final List<String> tagList = new LiveList<>(tags, tag -> tags.add(TAG_NAMES.intern(tag)));
+    private final List<Point> pointList = new LiveList<>(points.values(),
+            point -> points.putIfAbsent(point.getCategory().toLowerCase(Locale.ROOT), point) == null);
     private Journal journal;
     private List<ItemStack> backpack = new CopyOnWriteArrayList<>();
     private String conv;
@@ -61,69 +87,17 @@ public class PlayerData {
      * Loads all data for the player and puts it in appropriate lists.
      */
     public void loadAllPlayerData() {
-        try {
-            // get connection to the database
-            final Connector con = new Connector();
-
-            // load objectives
-            final ResultSet res1 = con.querySQL(QueryType.SELECT_OBJECTIVES, new String[]{playerID});
-            // put them into the list
-            while (res1.next()) {
-                objectives.put(res1.getString("objective"), res1.getString("instructions"));
-            }
-
-            // load tags
-            final ResultSet res2 = con.querySQL(QueryType.SELECT_TAGS, new String[]{playerID});
-            // put them into the list
-            while (res2.next()) {
-                tags.add(res2.getString("tag"));
-            }
-
-            // load journals
-            final ResultSet res3 = con.querySQL(QueryType.SELECT_JOURNAL, new String[]{playerID});
-            // put them into the list
-            while (res3.next()) {
-                entries.add(new Pointer(res3.getString("pointer"), res3.getTimestamp("date").getTime()));
-            }
-
-            // load points
-            final ResultSet res4 = con.querySQL(QueryType.SELECT_POINTS, new String[]{playerID});
-            // put them into the list
-            while (res4.next()) {
-                points.add(new Point(res4.getString("category"), res4.getInt("count")));
-            }
-
-            // load backpack
-            final ResultSet res5 = con.querySQL(QueryType.SELECT_BACKPACK, new String[]{playerID});
-            // put items into the list
-            while (res5.next()) {
-                final String instruction = res5.getString("instruction");
-                final int amount = res5.getInt("amount");
-                final ItemStack item;
-                try {
-                    item = new QuestItem(instruction).generate(amount);
-                } catch (InstructionParseException e) {
-                    LogUtils.getLogger().log(Level.WARNING, "Could not load backpack item for player " + PlayerConverter.getName(playerID)
-                            + ", with instruction '" + instruction + "', because: " + e.getMessage());
-                    LogUtils.logThrowable(e);
-                    continue;
-                }
-                backpack.add(item);
-            }
-
-            // load language
-            final ResultSet res6 = con.querySQL(QueryType.SELECT_PLAYER, new String[]{playerID});
-            // put it there
-            if (res6.next()) {
-                lang = res6.getString("language");
-                if (lang.equals("default")) {
-                    lang = Config.getLanguage();
-                }
-                conv = res6.getString("conversation");
-                if (conv == null || conv.equalsIgnoreCase("null")) {
-                    conv = null;
-                }
+        final long start = System.nanoTime();
+        final boolean singleQuery = BetonQuest.getInstance().getConfig().getBoolean("single_query_loading", true);
+        // get connection to the database
+        try (Connector con = new Connector()) {
+            final boolean playerFound;
+            if (singleQuery) {
+                playerFound = loadPlayerDataAtOnce(con);
             } else {
+                playerFound = loadPlayerDataByTable(con);
+            }
+            if (!playerFound) {
                 lang = Config.getLanguage();
                 saver.add(new Record(UpdateType.ADD_PLAYER, new String[]{playerID, "default"}));
             }
@@ -137,15 +111,171 @@ public class PlayerData {
             LogUtils.getLogger().log(Level.SEVERE, "There was a exception with SQL");
             LogUtils.logThrowable(e);
         }
+        (singleQuery ? SINGLE_QUERY_LOADING : PER_TABLE_LOADING).record(System.nanoTime() - start);
+    }
+
+    /**
+     * Loads the data from all tables with a single query.
+     *
+     * @param con connector to use
+     * @return true if the player was already in the database
+     * @throws SQLException when the data could not be read
+     */
+    private boolean loadPlayerDataAtOnce(final Connector con) throws SQLException {
+        final ResultSet res = con.querySQL(QueryType.SELECT_PLAYER_DATA,
+                new String[]{playerID, playerID, playerID, playerID, playerID, playerID});
+        boolean playerFound = false;
+        while (res.next()) {
+            switch (res.getInt("source")) {
+                case 0:
+                    objectives.put(res.getString("name"), res.getString("content"));
+                    break;
+                case 1:
+                    tags.add(TAG_NAMES.intern(res.getString("name")));
+                    break;
+                case 2:
+                    entries.add(new Pointer(res.getString("name"), res.getTimestamp("date").getTime()));
+                    break;
+                case 3:
+                    loadPoint(res.getString("name"), res.getInt("amount"));
+                    break;
+                case 4:
+                    loadBackpackItem(res.getString("name"), res.getInt("amount"));
+                    break;
+                case 5:
+                    playerFound = true;
+                    loadPlayer(res.getString("name"), res.getString("content"));
+                    break;
+                default:
+                    break;
+            }
+        }
+        return playerFound;
     }
 
     /**
-     * Returns the List of Tags for this player.
+     * Loads the data with a separate query for each table.
+     *
+     * @param con connector to use
+     * @return true if the player was already in the database
+     * @throws SQLException when the data could not be read
+     */
+    private boolean loadPlayerDataByTable(final Connector con) throws SQLException {
+        // load objectives
+        final ResultSet res1 = con.querySQL(QueryType.SELECT_OBJECTIVES, new String[]{playerID});
+        // put them into the list
+        while (res1.next()) {
+            objectives.put(res1.getString("objective"), res1.getString("instructions"));
+        }
+
+        // load tags
+        final ResultSet res2 = con.querySQL(QueryType.SELECT_TAGS, new String[]{playerID});
+        // put them into the list
+        while (res2.next()) {
+            tags.add(TAG_NAMES.intern(res2.getString("tag")));
+        }
+
+        // load journals
+        final ResultSet res3 = con.querySQL(QueryType.SELECT_JOURNAL, new String[]{playerID});
+        // put them into the list
+        while (res3.next()) {
+            entries.add(new Pointer(res3.getString("pointer"), res3.getTimestamp("date").getTime()));
+        }
+
+        // load points
+        final ResultSet res4 = con.querySQL(QueryType.SELECT_POINTS, new String[]{playerID});
+        // put them into the list
+        while (res4.next()) {
+            loadPoint(res4.getString("category"), res4.getInt("count"));
+        }
+
+        // load backpack
+        final ResultSet res5 = con.querySQL(QueryType.SELECT_BACKPACK, new String[]{playerID});
+        // put items into the list
+        while (res5.next()) {
+            loadBackpackItem(res5.getString("instruction"), res5.getInt("amount"));
+        }
+
+        // load language
+        final ResultSet res6 = con.querySQL(QueryType.SELECT_PLAYER, new String[]{playerID});
+        // put it there
+        if (res6.next()) {
+            loadPlayer(res6.getString("language"), res6.getString("conversation"));
+            return true;
+        }
+        return false;
+    }
+
+    private void loadPoint(final String category, final int count) {
+        // the first row wins if a category is stored with different cases
+        points.putIfAbsent(category.toLowerCase(Locale.ROOT), new Point(category, count));
+    }
+
+    private void loadBackpackItem(final String instruction, final int amount) {
+        final ItemStack item;
+        try {
+            item = new QuestItem(instruction).generate(amount);
+        } catch (InstructionParseException e) {
+            LogUtils.getLogger().log(Level.WARNING, "Could not load backpack item for player " + PlayerConverter.getName(playerID)
+                    + ", with instruction '" + instruction + "', because: " + e.getMessage());
+            LogUtils.logThrowable(e);
+            return;
+        }
+        backpack.add(item);
+    }
+
+    private void loadPlayer(final String language, final String conversation) {
+        lang = language;
+        if (lang.equals("default")) {
+            lang = Config.getLanguage();
+        }
+        conv = conversation;
+        if (conv == null || conv.equalsIgnoreCase("null")) {
+            conv = null;
+        }
+    }
+
+    /**
+     * Returns the time it took to load the data of players.
+     *
+     * @param singleQuery true for loading with a single query, false for
+     *                    loading with a query per table
+     * @return the histogram of loading times
+     */
+    public static LatencyHistogram getLoadingTimes(final boolean singleQuery) {
+        return singleQuery ? SINGLE_QUERY_LOADING : PER_TABLE_LOADING;
+    }
+
+    /**
+     * Adds a listener which is called with the ID of the player every time
+     * the data of a player changes, except for the progress of objectives.
+     * It can be called on any thread, so it should only record the change
+     * and handle it later.
+     *
+     * @param listener the listener
+     */
+    public static void addChangeListener(final Consumer<String> listener) {
+        CHANGE_LISTENERS.add(listener);
+    }
+
+    /**
+     * Removes the change listener.
+     *
+     * @param listener the listener passed to {@link #addChangeListener(Consumer)}
+     */
+    public static void removeChangeListener(final Consumer<String> listener) {
+        CHANGE_LISTENERS.remove(listener);
+    }
+
+    /**
+     * Returns the List of Tags for this player. It is a live view of the tags,
+     * in no particular order. Changing it changes the tags of the player, but
+     * does not save them to the database.
      *
      * @return the List of Tags
      */
     public List<String> getTags() {
-        return tags;
+        return tagList;
     }
 
     /**
@@ -164,8 +294,8 @@ public class PlayerData {
      * @param tag tag to add
      */
     public void addTag(final String tag) {
-        if (!tags.contains(tag)) {
-            tags.add(tag);
+        if (tags.add(TAG_NAMES.intern(tag))) {
+            dataChanged();
             saver.add(new Record(UpdateType.ADD_TAGS, new String[]{playerID, tag}));
         }
     }
@@ -177,17 +307,32 @@ public class PlayerData {
      * @param tag tag to remove
      */
     public void removeTag(final String tag) {
-        tags.remove(tag);
+        if (tags.remove(tag)) {
+            dataChanged();
+        }
         saver.add(new Record(UpdateType.REMOVE_TAGS, new String[]{playerID, tag}));
     }
 
     /**
-     * Returns the List of Points for this player.
+     * Returns the List of Points for this player. It is a live view of the
+     * points, in no particular order. Changing it changes the points of the
+     * player, but does not save them to the database.
      *
      * @return the List of Points
      */
     public List<Point> getPoints() {
-        return points;
+        return pointList;
+    }
+
+    /**
+     * Returns the points of the player in the category, ignoring the case of
+     * its name.
+     *
+     * @param category name of the category
+     * @return the points or null if the player has no points in this category
+     */
+    public Point getPoint(final String category) {
+        return points.get(category.toLowerCase(Locale.ROOT));
     }
 
     /**
@@ -199,12 +344,8 @@ public class PlayerData {
      */
     @SuppressWarnings("PMD.LinguisticNaming")
     public int hasPointsFromCategory(final String category) {
-        for (final Point p : points) {
-            if (p.getCategory().equals(category)) {
-                return p.getCount();
-            }
-        }
-        return 0;
+        final Point point = getPoint(category);
+        return point != null && point.getCategory().equals(category) ? point.getCount() : 0;
     }
 
     /**
@@ -216,19 +357,21 @@ public class PlayerData {
      */
     public void modifyPoints(final String category, final int count) {
         saver.add(new Record(UpdateType.REMOVE_POINTS, new String[]{playerID, category}));
-        // check if the category already exists
-        for (final Point point : points) {
-            if (point.getCategory().equalsIgnoreCase(category)) {
-                // if it does, add points to it
-                saver.add(new Record(UpdateType.ADD_POINTS,
-                        new String[]{playerID, category, String.valueOf(point.getCount() + count)}));
-                point.addPoints(count);
-                return;
-            }
+        final String key = category.toLowerCase(Locale.ROOT);
+        final Point point = points.get(key);
+        if (point == null) {
+            // if not then create new point category with given amount of points
+            points.put(key, new Point(category, count));
+            saver.add(new Record(UpdateType.ADD_POINTS, new String[]{playerID, category, String.valueOf(count)}));
+        } else {
+            // if it does, add points to it
+            saver.add(new Record(UpdateType.ADD_POINTS,
+                    new String[]{playerID, category, String.valueOf(point.getCount() + count)}));
+            point.addPoints(count);
         }
-        // if not then create new point category with given amount of points
-        points.add(new Point(category, count));
-        saver.add(new Record(UpdateType.ADD_POINTS, new String[]{playerID, category, String.valueOf(count)}));
+        // the version changes after the points, so it's never paired with the old value
+        dataChanged();
+        updateJournalPoints(category);
     }
 
     /**
@@ -237,16 +380,17 @@ public class PlayerData {
      * @param category name of a point category
      */
     public void removePointsCategory(final String category) {
-        Point pointToRemove = null;
-        for (final Point point : points) {
-            if (point.getCategory().equalsIgnoreCase(category)) {
-                pointToRemove = point;
-            }
-        }
-        if (pointToRemove != null) {
-            points.remove(pointToRemove);
-        }
+        points.remove(category.toLowerCase(Locale.ROOT));
+        dataChanged();
         saver.add(new Record(UpdateType.REMOVE_POINTS, new String[]{playerID, category}));
+        updateJournalPoints(category);
+    }
+
+    private void updateJournalPoints(final String category) {
+        // the journal only needs an update if it was already created
+        if (journal != null) {
+            journal.updatePoints(category);
+        }
     }
 
     /**
@@ -320,6 +464,7 @@ public class PlayerData {
             return false;
         }
         objectives.put(objectiveID, data);
+        dataChanged();
         return true;
     }
 
@@ -340,6 +485,7 @@ public class PlayerData {
      * @param data        the data string of this objective (the one associated with ObjectiveData)
      */
     public void addObjToDB(final String objectiveID, final String data) {
+        dataChanged();
         saver.add(new Record(UpdateType.ADD_OBJECTIVES, new String[]{playerID, objectiveID, data}));
     }
 
@@ -349,6 +495,7 @@ public class PlayerData {
      * @param objectiveID the ID of the objective to remove
      */
     public void removeObjFromDB(final String objectiveID) {
+        dataChanged();
         saver.add(new Record(UpdateType.REMOVE_OBJECTIVES, new String[]{playerID, objectiveID}));
     }
 
@@ -368,6 +515,7 @@ public class PlayerData {
      */
     public void setBackpack(final List<ItemStack> list) {
         this.backpack = list;
+        dataChanged();
         // update the database (quite expensive way, should be changed)
         saver.add(new Record(UpdateType.DELETE_BACKPACK, new String[]{playerID}));
         for (final ItemStack itemStack : list) {
@@ -428,6 +576,7 @@ public class PlayerData {
             }
             backpack.add(newItem);
         }
+        dataChanged();
         // update the database (quite expensive way, should be changed)
         saver.add(new Record(UpdateType.DELETE_BACKPACK, new String[]{playerID}));
         for (final ItemStack itemStack : backpack) {
@@ -467,6 +616,7 @@ public class PlayerData {
         } else {
             this.lang = lang;
         }
+        dataChanged();
         saver.add(new Record(UpdateType.DELETE_PLAYER, new String[]{playerID}));
         saver.add(new Record(UpdateType.ADD_PLAYER, new String[]{playerID, lang}));
     }
@@ -479,6 +629,39 @@ public class PlayerData {
         return conv;
     }
 
+    /**
+     * Returns a number which changes every time tags, points, objectives,
+     * the backpack or the language of this player change. It can be used to
+     * tell whether cached values computed from this data are still valid.
+     *
+     * @return the current version of the data
+     */
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    /**
+     * Marks the data of this player as changed and notifies the change
+     * listeners. It should be called when something changes the data without
+     * using this class.
+     */
+    public void dataChanged() {
+        dataVersion.incrementAndGet();
+        for (final Consumer<String> listener : CHANGE_LISTENERS) {
+            listener.accept(playerID);
+        }
+    }
+
+    /**
+     * Marks the data of this player as changed after the progress of an
+     * objective changed. Cached values are computed again, because variables
+     * can show the progress, but the change listeners are not notified, as
+     * progress happens very often and doesn't add or remove objectives.
+     */
+    public void objectiveProgressed() {
+        dataVersion.incrementAndGet();
+    }
+
     /**
      * Purges all player's data from the database and from this object.
      */
@@ -493,6 +676,7 @@ public class PlayerData {
         entries.clear();
         getJournal().clear(); // journal can be null, so use a method to get it
         backpack.clear();
+        dataChanged();
         // clear the database
         saver.add(new Record(UpdateType.DELETE_OBJECTIVES, new String[]{playerID}));
         saver.add(new Record(UpdateType.DELETE_JOURNAL, new String[]{playerID}));
@@ -505,4 +689,92 @@ public class PlayerData {
             getJournal().update();
         }
     }
+
+    /**
+     * List view of a collection of the player's data, returned where a list
+     * was kept before. Changes made through it change the data version.
+     *
+     * @param <E> type of the values
+     */
+    private class LiveList<E> extends AbstractList<E> {
+
+        private final Collection<E> values;
+        private final Predicate<E> adder;
+
+        /* default */ LiveList(final Collection<E> values, final Predicate<E> adder) {
+            super();
+            this.values = values;
+            this.adder = adder;
+        }
+
+        @Override
+        public E get(final int index) {
+            if (index >= 0) {
+                int current = 0;
+                for (final E value : values) {
+                    if (current == index) {
+                        return value;
+                    }
+                    current++;
+                }
+            }
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + values.size());
+        }
+
+        @Override
+        public int size() {
+            return values.size();
+        }
+
+        @Override
+        public boolean contains(final Object value) {
+            return values.contains(value);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            final Iterator<E> iterator = values.iterator();
+            return new Iterator<E>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public E next() {
+                    return iterator.next();
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                    dataChanged();
+                }
+            };
+        }
+
+        @Override
+        public boolean add(final E value) {
+            if (adder.test(value)) {
+                dataChanged();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean remove(final Object value) {
+            if (values.remove(value)) {
+                dataChanged();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            values.clear();
+            dataChanged();
+        }
+    }
 }
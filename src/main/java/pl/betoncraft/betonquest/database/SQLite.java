@@ -7,6 +7,7 @@ import java.io.File;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.Statement;
 import java.util.logging.Level;
 
 /**
@@ -45,6 +46,10 @@ public class SQLite extends Database {
             Class.forName("org.sqlite.JDBC");
             connection = DriverManager
                     .getConnection("jdbc:sqlite:" + plugin.getDataFolder().toPath().toString() + "/" + dbLocation);
+            // there can be more connections now, so wait for locks instead of failing
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA busy_timeout = 10000");
+            }
         } catch (Exception e) {
             LogUtils.getLogger().log(Level.SEVERE, "There was a exception with SQL");
             LogUtils.logThrowable(e);
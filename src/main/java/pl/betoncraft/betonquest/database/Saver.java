@@ -6,8 +6,15 @@ import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.database.Connector.UpdateType;
 import pl.betoncraft.betonquest.utils.LogUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
 /**
@@ -15,8 +22,34 @@ import java.util.logging.Level;
  */
 public class Saver extends Thread implements Listener {
 
+    /**
+     * Maps the update types which can be coalesced to the removal of the same
+     * row. A removal makes every earlier addition or removal of that row
+     * redundant.
+     */
+    private static final Map<UpdateType, UpdateType> REMOVALS = new EnumMap<>(UpdateType.class);
+
+    static {
+        REMOVALS.put(UpdateType.ADD_TAGS, UpdateType.REMOVE_TAGS);
+        REMOVALS.put(UpdateType.REMOVE_TAGS, UpdateType.REMOVE_TAGS);
+        REMOVALS.put(UpdateType.ADD_POINTS, UpdateType.REMOVE_POINTS);
+        REMOVALS.put(UpdateType.REMOVE_POINTS, UpdateType.REMOVE_POINTS);
+        REMOVALS.put(UpdateType.ADD_OBJECTIVES, UpdateType.REMOVE_OBJECTIVES);
+        REMOVALS.put(UpdateType.REMOVE_OBJECTIVES, UpdateType.REMOVE_OBJECTIVES);
+        REMOVALS.put(UpdateType.ADD_GLOBAL_TAGS, UpdateType.REMOVE_GLOBAL_TAGS);
+        REMOVALS.put(UpdateType.REMOVE_GLOBAL_TAGS, UpdateType.REMOVE_GLOBAL_TAGS);
+        REMOVALS.put(UpdateType.ADD_GLOBAL_POINTS, UpdateType.REMOVE_GLOBAL_POINTS);
+        REMOVALS.put(UpdateType.REMOVE_GLOBAL_POINTS, UpdateType.REMOVE_GLOBAL_POINTS);
+    }
+
     private final Connector con;
     private final ConcurrentLinkedQueue<Record> queue;
+    private final int batchSize;
+    private final long flushInterval;
+    private final AtomicLong savedRecords = new AtomicLong();
+    private final AtomicLong coalescedRecords = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong flushTime = new AtomicLong();
     private boolean run;
     private boolean active;
 
@@ -25,9 +58,11 @@ public class Saver extends Thread implements Listener {
      */
     public Saver() {
         super();
-        this.con = new Connector();
+        this.con = new Connector(true);
         this.queue = new ConcurrentLinkedQueue<>();
         this.run = true;
+        this.batchSize = Math.max(1, BetonQuest.getInstance().getConfig().getInt("saver.batch_size", 100));
+        this.flushInterval = Math.max(0, BetonQuest.getInstance().getConfig().getLong("saver.flush_interval", 50));
         Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
     }
 
@@ -52,9 +87,146 @@ public class Saver extends Thread implements Listener {
                 con.refresh();
                 active = true;
             }
+            if (batchSize == 1) {
+                final Record rec = queue.poll();
+                con.updateSQL(rec.getType(), rec.getArgs());
+                savedRecords.incrementAndGet();
+            } else {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Saves the next batch of records in a single transaction. If the
+     * transaction fails the records are saved one by one, so a single broken
+     * record does not take the whole batch with it.
+     */
+    private void flush() {
+        final List<Record> batch = drain();
+        final long start = System.nanoTime();
+        final List<Record> records = coalesce(batch);
+        if (!con.updateSQLBatch(records)) {
+            LogUtils.getLogger().log(Level.WARNING, "Saving " + records.size() + " records one by one instead");
+            for (final Record rec : records) {
+                con.updateSQL(rec.getType(), rec.getArgs());
+            }
+        }
+        final long time = System.nanoTime() - start;
+        savedRecords.addAndGet(records.size());
+        coalescedRecords.addAndGet(batch.size() - records.size());
+        flushes.incrementAndGet();
+        flushTime.addAndGet(time);
+        LogUtils.getLogger().log(Level.FINE, "Saved " + records.size() + " records (" + (batch.size() - records.size())
+                + " coalesced) in " + TimeUnit.NANOSECONDS.toMillis(time) + " ms, " + queue.size() + " still waiting");
+    }
+
+    /**
+     * Takes records from the queue until there are enough of them for a full
+     * batch or the flush interval has passed.
+     *
+     * @return the list of records, in the order they were added
+     */
+    private List<Record> drain() {
+        final List<Record> batch = new ArrayList<>(Math.min(batchSize, 1024));
+        final long deadline = System.currentTimeMillis() + flushInterval;
+        while (batch.size() < batchSize) {
             final Record rec = queue.poll();
-            con.updateSQL(rec.getType(), rec.getArgs());
+            if (rec != null) {
+                batch.add(rec);
+                continue;
+            }
+            final long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0 || !run) {
+                break;
+            }
+            synchronized (this) {
+                try {
+                    if (queue.isEmpty()) {
+                        wait(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    LogUtils.logThrowableIgnore(e);
+                    break;
+                }
+            }
         }
+        return batch;
+    }
+
+    /**
+     * Removes the records which are overwritten later in the same batch and
+     * orders the rest so records of the same type follow each other. Records
+     * which affect more than a single row keep their position and split the
+     * batch into segments; reordering only happens inside a segment.
+     *
+     * @param batch records in the order they were added
+     * @return records in the order they should be saved
+     */
+    /* default */ static List<Record> coalesce(final List<Record> batch) {
+        final List<Record> result = new ArrayList<>(batch.size());
+        final List<Record> segment = new ArrayList<>();
+        for (final Record rec : batch) {
+            if (getRowKey(rec) == null) {
+                coalesceSegment(segment, result);
+                result.add(rec);
+            } else {
+                segment.add(rec);
+            }
+        }
+        coalesceSegment(segment, result);
+        return result;
+    }
+
+    private static void coalesceSegment(final List<Record> segment, final List<Record> result) {
+        final Map<String, Integer> lastRemovals = new HashMap<>();
+        for (int i = 0; i < segment.size(); i++) {
+            final Record rec = segment.get(i);
+            if (REMOVALS.get(rec.getType()) == rec.getType()) {
+                lastRemovals.put(getRowKey(rec), i);
+            }
+        }
+        // removals of a row always come before its remaining additions,
+        // so all removals can be saved first
+        final Map<UpdateType, List<Record>> removals = new EnumMap<>(UpdateType.class);
+        final Map<UpdateType, List<Record>> additions = new EnumMap<>(UpdateType.class);
+        for (int i = 0; i < segment.size(); i++) {
+            final Record rec = segment.get(i);
+            final Integer lastRemoval = lastRemovals.get(getRowKey(rec));
+            if (lastRemoval != null && i < lastRemoval) {
+                continue;
+            }
+            final Map<UpdateType, List<Record>> target = REMOVALS.get(rec.getType()) == rec.getType() ? removals : additions;
+            target.computeIfAbsent(rec.getType(), type -> new ArrayList<>()).add(rec);
+        }
+        for (final List<Record> records : removals.values()) {
+            result.addAll(records);
+        }
+        for (final List<Record> records : additions.values()) {
+            result.addAll(records);
+        }
+        segment.clear();
+    }
+
+    /**
+     * @param rec the record
+     * @return the key of the single row this record affects or null if it can
+     * affect more rows
+     */
+    private static String getRowKey(final Record rec) {
+        final UpdateType removal = REMOVALS.get(rec.getType());
+        if (removal == null || rec.getArgs() == null) {
+            return null;
+        }
+        final int keyLength = removal == UpdateType.REMOVE_GLOBAL_TAGS || removal == UpdateType.REMOVE_GLOBAL_POINTS ? 1 : 2;
+        if (rec.getArgs().length < keyLength) {
+            return null;
+        }
+        final StringBuilder key = new StringBuilder(removal.name());
+        for (int i = 0; i < keyLength; i++) {
+            key.append('\0').append(rec.getArgs()[i]);
+        }
+        return key.toString();
     }
 
     /**
@@ -75,6 +247,62 @@ public class Saver extends Thread implements Listener {
         notify();
     }
 
+    /**
+     * Ends this saver's job and waits until it saved all remaining data, but
+     * not longer than the timeout.
+     *
+     * @param timeout maximal time to wait in milliseconds
+     * @return true if all data was saved, false if the saver is still running
+     */
+    public boolean end(final long timeout) {
+        end();
+        try {
+            join(timeout);
+        } catch (InterruptedException e) {
+            LogUtils.logThrowableIgnore(e);
+            Thread.currentThread().interrupt();
+        }
+        return !isAlive();
+    }
+
+    /**
+     * @return the amount of records waiting to be saved
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * @return the amount of records saved to the database since the start
+     */
+    public long getSavedRecords() {
+        return savedRecords.get();
+    }
+
+    /**
+     * @return the amount of records which were not saved because a later
+     * record in the same batch overwrote them
+     */
+    public long getCoalescedRecords() {
+        return coalescedRecords.get();
+    }
+
+    /**
+     * @return the average amount of records saved in one batch
+     */
+    public double getAverageBatchSize() {
+        final long count = flushes.get();
+        return count == 0 ? 0 : (double) savedRecords.get() / count;
+    }
+
+    /**
+     * @return the average time of saving one batch, in milliseconds
+     */
+    public double getAverageFlushTime() {
+        final long count = flushes.get();
+        return count == 0 ? 0 : flushTime.get() / 1_000_000.0 / count;
+    }
+
     /**
      * Holds the data and the method of saving them to the database
      */
@@ -95,11 +323,11 @@ public class Saver extends Thread implements Listener {
             this.args = args == null ? null : Arrays.copyOf(args, args.length);
         }
 
-        private UpdateType getType() {
+        /* default */ UpdateType getType() {
             return type;
         }
 
-        private String[] getArgs() {
+        /* default */ String[] getArgs() {
             return args;
         }
     }
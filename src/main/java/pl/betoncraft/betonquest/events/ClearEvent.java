@@ -5,6 +5,7 @@ import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.metadata.MetadataValue;
+import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.Instruction;
 import pl.betoncraft.betonquest.VariableNumber;
 import pl.betoncraft.betonquest.api.QuestEvent;
@@ -13,6 +14,7 @@ import pl.betoncraft.betonquest.exceptions.QuestRuntimeException;
 import pl.betoncraft.betonquest.utils.Utils;
 import pl.betoncraft.betonquest.utils.location.CompoundLocation;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
@@ -55,7 +57,9 @@ public class ClearEvent extends QuestEvent {
     @Override
     protected Void execute(final String playerID) throws QuestRuntimeException {
         final Location location = loc.getLocation(playerID);
-        final Collection<Entity> entities = location.getWorld().getEntities();
+        final double range = this.range.getDouble(playerID);
+        final Collection<Entity> entities = BetonQuest.getInstance().getEntityQuery()
+                .find(location, range, Arrays.asList(types), false);
         loop:
         for (final Entity entity : entities) {
             if (!(entity instanceof LivingEntity)) {
@@ -75,20 +79,11 @@ public class ClearEvent extends QuestEvent {
                     }
                 }
             }
-            final double range = this.range.getDouble(playerID);
-            if (entity.getLocation().distanceSquared(location) < range * range) {
-                final EntityType entityType = entity.getType();
-                for (final EntityType allowedType : types) {
-                    if (entityType == allowedType) {
-                        if (kill) {
-                            final LivingEntity living = (LivingEntity) entity;
-                            living.damage(living.getHealth() + 10);
-                        } else {
-                            entity.remove();
-                        }
-                        break;
-                    }
-                }
+            if (kill) {
+                final LivingEntity living = (LivingEntity) entity;
+                living.damage(living.getHealth() + 10);
+            } else {
+                entity.remove();
             }
         }
         return null;
@@ -1,17 +1,27 @@
 package pl.betoncraft.betonquest.events;
 
-import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
 import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.Instruction;
 import pl.betoncraft.betonquest.VariableNumber;
 import pl.betoncraft.betonquest.api.QuestEvent;
 import pl.betoncraft.betonquest.exceptions.InstructionParseException;
+import pl.betoncraft.betonquest.exceptions.ObjectNotFoundException;
 import pl.betoncraft.betonquest.exceptions.QuestRuntimeException;
 import pl.betoncraft.betonquest.id.EventID;
+import pl.betoncraft.betonquest.utils.LogUtils;
+import pl.betoncraft.betonquest.utils.TimerQueue.Timer;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 
 /**
  * Folder event is a collection of other events, that can be run after a delay
@@ -19,6 +29,12 @@ import java.util.Random;
  */
 public class FolderEvent extends QuestEvent {
 
+    /**
+     * Name of the file in which waiting events are kept while the server is offline
+     */
+    private static final String PENDING_FILE = "pending_events.yml";
+    private static final Set<PendingEvents> PENDING = ConcurrentHashMap.newKeySet();
+
     public VariableNumber delay;
     public VariableNumber period;
     public VariableNumber random;
@@ -62,14 +78,7 @@ public class FolderEvent extends QuestEvent {
             execDelay *= 20;
         }
         if (period == null) {
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    for (final EventID event : chosenList) {
-                        BetonQuest.event(playerID, event);
-                    }
-                }
-            }.runTaskLater(BetonQuest.getInstance(), (int) execDelay);
+            new PendingEvents(playerID, chosenList, 0).schedule((long) execDelay);
         } else {
             double execPeriod = period.getDouble(playerID);
             if (minutes) {
@@ -77,18 +86,111 @@ public class FolderEvent extends QuestEvent {
             } else if (!ticks) {
                 execPeriod *= 20;
             }
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    final EventID event = chosenList.remove(0);
-                    BetonQuest.event(playerID, event);
-                    if (chosenList.size() == 0) {
-                        this.cancel();
-                    }
-                }
-            }.runTaskTimer(BetonQuest.getInstance(), (int) execDelay, (int) execPeriod);
+            new PendingEvents(playerID, chosenList, Math.max(1, (long) execPeriod)).schedule((long) execDelay);
         }
         return null;
     }
 
+    /**
+     * Saves all events which are still waiting to be fired, so they can be
+     * scheduled again with {@link #loadPending()} after a restart.
+     */
+    public static void savePending() {
+        final File file = new File(BetonQuest.getInstance().getDataFolder(), PENDING_FILE);
+        final YamlConfiguration config = new YamlConfiguration();
+        int index = 0;
+        for (final PendingEvents pending : PENDING) {
+            final ConfigurationSection section = config.createSection(String.valueOf(index++));
+            section.set("player", pending.playerID);
+            final List<String> ids = new ArrayList<>();
+            for (final EventID event : pending.events) {
+                ids.add(event.getFullID());
+            }
+            section.set("events", ids);
+            section.set("delay", pending.timer.getRemaining());
+            section.set("period", pending.period);
+        }
+        PENDING.clear();
+        try {
+            config.save(file);
+        } catch (final IOException e) {
+            LogUtils.getLogger().log(Level.WARNING, "Could not save waiting folder events: " + e.getMessage());
+            LogUtils.logThrowable(e);
+        }
+    }
+
+    /**
+     * Schedules the events saved with {@link #savePending()} again and
+     * removes them from the file.
+     */
+    public static void loadPending() {
+        final File file = new File(BetonQuest.getInstance().getDataFolder(), PENDING_FILE);
+        if (!file.exists()) {
+            return;
+        }
+        final YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        for (final String key : config.getKeys(false)) {
+            final ConfigurationSection section = config.getConfigurationSection(key);
+            if (section == null) {
+                continue;
+            }
+            final List<EventID> events = new ArrayList<>();
+            for (final String id : section.getStringList("events")) {
+                try {
+                    events.add(new EventID(null, id));
+                } catch (final ObjectNotFoundException e) {
+                    LogUtils.getLogger().log(Level.WARNING, "Could not restore waiting event '" + id + "': "
+                            + e.getMessage());
+                    LogUtils.logThrowable(e);
+                }
+            }
+            if (!events.isEmpty()) {
+                new PendingEvents(section.getString("player"), events, section.getLong("period"))
+                        .schedule(section.getLong("delay"));
+            }
+        }
+        if (!file.delete()) {
+            LogUtils.getLogger().log(Level.WARNING, "Could not delete " + PENDING_FILE);
+        }
+    }
+
+    /**
+     * Events waiting in the {@link pl.betoncraft.betonquest.utils.TimerQueue}.
+     * Without a period all of them are fired at once, otherwise one by one.
+     */
+    private static class PendingEvents implements Runnable {
+
+        private final String playerID;
+        private final List<EventID> events;
+        private final long period;
+        private Timer timer;
+
+        /* default */ PendingEvents(final String playerID, final List<EventID> events, final long period) {
+            this.playerID = playerID;
+            this.events = events;
+            this.period = period;
+        }
+
+        private void schedule(final long delay) {
+            timer = BetonQuest.getInstance().getTimerQueue().schedule(delay, this);
+            PENDING.add(this);
+        }
+
+        @Override
+        public void run() {
+            if (period <= 0) {
+                PENDING.remove(this);
+                for (final EventID event : events) {
+                    BetonQuest.event(playerID, event);
+                }
+                return;
+            }
+            BetonQuest.event(playerID, events.remove(0));
+            if (events.isEmpty()) {
+                PENDING.remove(this);
+            } else {
+                timer = BetonQuest.getInstance().getTimerQueue().schedule(period, this);
+            }
+        }
+    }
 }
@@ -6,6 +6,7 @@ package pl.betoncraft.betonquest.events;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
+import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.Instruction;
 import pl.betoncraft.betonquest.VariableNumber;
 import pl.betoncraft.betonquest.api.QuestEvent;
@@ -13,6 +14,9 @@ import pl.betoncraft.betonquest.exceptions.InstructionParseException;
 import pl.betoncraft.betonquest.exceptions.QuestRuntimeException;
 import pl.betoncraft.betonquest.utils.Utils;
 import pl.betoncraft.betonquest.utils.location.CompoundLocation;
+import pl.betoncraft.betonquest.utils.location.EntityQuery;
+
+import java.util.Set;
 
 /**
  * Kills all mobs of given type at location.
@@ -21,7 +25,7 @@ import pl.betoncraft.betonquest.utils.location.CompoundLocation;
  */
 public class KillMobEvent extends QuestEvent {
 
-    private final EntityType type;
+    private final Set<EntityType> types;
     private final CompoundLocation loc;
     private final VariableNumber radius;
     private String name;
@@ -32,7 +36,8 @@ public class KillMobEvent extends QuestEvent {
         super(instruction, true);
         staticness = true;
         persistent = true;
-        type = instruction.getEnum(EntityType.class);
+        // all entities of the class of the type are killed, including its subtypes
+        types = EntityQuery.withSubtypes(instruction.getEnum(EntityType.class));
         loc = instruction.getLocation();
         radius = instruction.getVarNum();
         name = instruction.getOptional("name");
@@ -48,13 +53,9 @@ public class KillMobEvent extends QuestEvent {
     @Override
     protected Void execute(final String playerID) throws QuestRuntimeException {
         final Location location = loc.getLocation(playerID);
-        final double radiusSquared = this.radius.getDouble(playerID) * this.radius.getDouble(playerID);
-        location
-                .getWorld()
-                .getEntitiesByClass(type.getEntityClass())
+        BetonQuest.getInstance().getEntityQuery()
+                .find(location, radius.getDouble(playerID), types)
                 .stream()
-                //get only nearby entities
-                .filter(entity -> entity.getLocation().distanceSquared(location) <= radiusSquared)
                 //only entities with given name
                 .filter(entity -> {
                     if (name == null) {
@@ -73,18 +73,17 @@ public class PointEvent extends QuestEvent {
     private void addPoints(final String playerID, final PlayerData playerData) throws QuestRuntimeException {
         final int intCount = count.getInt(playerID);
         if (multi) {
-            for (final Point p : playerData.getPoints()) {
-                if (p.getCategory().equalsIgnoreCase(category)) {
-                    playerData.modifyPoints(category, (int) Math.floor(p.getCount() * count.getDouble(playerID) - p.getCount()));
-                    if (notify) {
+            final Point point = playerData.getPoint(category);
+            if (point != null) {
+                playerData.modifyPoints(category, (int) Math.floor(point.getCount() * count.getDouble(playerID) - point.getCount()));
+                if (notify) {
+                    try {
+                        Config.sendNotify(instruction.getPackage().getName(), playerID, "point_multiplied", new String[]{String.valueOf(intCount), categoryName}, "point_multiplied,info");
+                    } catch (final QuestRuntimeException exception) {
                         try {
-                            Config.sendNotify(instruction.getPackage().getName(), playerID, "point_multiplied", new String[]{String.valueOf(intCount), categoryName}, "point_multiplied,info");
-                        } catch (final QuestRuntimeException exception) {
-                            try {
-                                LogUtils.getLogger().log(Level.WARNING, "The notify system was unable to play a sound for the 'point_multiplied' category in '" + instruction.getEvent().getFullID() + "'. Error was: '" + exception.getMessage() + "'");
-                            } catch (final InstructionParseException exep) {
-                                throw new QuestRuntimeException(exep);
-                            }
+                            LogUtils.getLogger().log(Level.WARNING, "The notify system was unable to play a sound for the 'point_multiplied' category in '" + instruction.getEvent().getFullID() + "'. Error was: '" + exception.getMessage() + "'");
+                        } catch (final InstructionParseException exep) {
+                            throw new QuestRuntimeException(exep);
                         }
                     }
                 }
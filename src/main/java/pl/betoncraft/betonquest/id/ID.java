@@ -107,6 +107,13 @@ public abstract class ID {
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        // must stay consistent with equals(), so the "inverted" flag of
+        // conditions and the concrete ID type are deliberately left out
+        return 31 * identifier.hashCode() + pack.hashCode();
+    }
+
     public Instruction generateInstruction() {
         if (rawInstruction == null) {
             return null;
@@ -371,7 +371,7 @@ public class QuestItem {
             }
         }
         if (meta instanceof BookMeta) {
-            final BookMeta bookMeta = (BookMeta) item.getItemMeta();
+            final BookMeta bookMeta = (BookMeta) meta;
             if (!book.checkTitle(bookMeta.getTitle())) {
                 return false;
             }
@@ -383,19 +383,19 @@ public class QuestItem {
             }
         }
         if (meta instanceof SkullMeta) {
-            final SkullMeta skullMeta = (SkullMeta) item.getItemMeta();
+            final SkullMeta skullMeta = (SkullMeta) meta;
             if (!head.check(skullMeta.getOwner())) {
                 return false;
             }
         }
         if (meta instanceof LeatherArmorMeta) {
-            final LeatherArmorMeta armorMeta = (LeatherArmorMeta) item.getItemMeta();
+            final LeatherArmorMeta armorMeta = (LeatherArmorMeta) meta;
             if (!color.check(armorMeta.getColor())) {
                 return false;
             }
         }
         if (meta instanceof FireworkMeta) {
-            final FireworkMeta fireworkMeta = (FireworkMeta) item.getItemMeta();
+            final FireworkMeta fireworkMeta = (FireworkMeta) meta;
             if (!firework.checkEffects(fireworkMeta.getEffects())) {
                 return false;
             }
@@ -404,7 +404,7 @@ public class QuestItem {
             }
         }
         if (meta instanceof FireworkEffectMeta) {
-            final FireworkEffectMeta fireworkMeta = (FireworkEffectMeta) item.getItemMeta();
+            final FireworkEffectMeta fireworkMeta = (FireworkEffectMeta) meta;
             return firework.checkSingleEffect(fireworkMeta.getEffect());
         }
         return true;
@@ -8,15 +8,22 @@ import pl.betoncraft.betonquest.utils.LogUtils;
 
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 public class Notify {
     private static final Map<String, Map<String, String>> CATEGORY_SETTINGS = new HashMap<>();
+    /**
+     * Notify IOs created for categories and custom data; they don't change
+     * after creation, so they are reused until the next {@link #load()}
+     */
+    private static final Map<CacheKey, NotifyIO> CACHE = new ConcurrentHashMap<>();
     private static String defaultNotifyIO = null;
 
     public static void load() {
         loadCategorySettings();
         defaultNotifyIO = BetonQuest.getInstance().getConfig().getString("default_notify_IO");
+        CACHE.clear();
     }
 
     public static NotifyIO get() {
@@ -32,9 +39,20 @@ public class Notify {
     }
 
     public static NotifyIO get(final String category, @Nullable final Map<String, String> data) {
+        final NotifyIO cached = CACHE.get(new CacheKey(category, data));
+        if (cached != null) {
+            return cached;
+        }
+        final Map<String, String> copy = data == null ? null : new HashMap<>(data);
+        final NotifyIO notifyIO = create(category, copy);
+        CACHE.put(new CacheKey(category, copy), notifyIO);
+        return notifyIO;
+    }
+
+    private static NotifyIO create(final String category, @Nullable final Map<String, String> data) {
         final SortedSet<String> categories = getCategories(category);
 
-        final Map<String, String> categoryData = getCategorySettings(categories);
+        final Map<String, String> categoryData = new HashMap<>(getCategorySettings(categories));
         if (data != null) {
             for (final String key : data.keySet()) {
                 categoryData.put(key.toLowerCase(Locale.ROOT), data.get(key));
@@ -130,4 +148,32 @@ public class Notify {
         CATEGORY_SETTINGS.clear();
         CATEGORY_SETTINGS.putAll(settings);
     }
+
+    /**
+     * Category and custom data for which a Notify IO was created
+     */
+    private static final class CacheKey {
+
+        private final String category;
+        private final Map<String, String> data;
+
+        /* default */ CacheKey(final String category, final Map<String, String> data) {
+            this.category = category;
+            this.data = data;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof CacheKey)) {
+                return false;
+            }
+            final CacheKey key = (CacheKey) other;
+            return Objects.equals(category, key.category) && Objects.equals(data, key.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(category, data);
+        }
+    }
 }
@@ -1,15 +1,11 @@
 package pl.betoncraft.betonquest.objectives;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.inventory.EquipmentSlot;
-import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.Instruction;
 import pl.betoncraft.betonquest.VariableNumber;
 import pl.betoncraft.betonquest.api.Objective;
@@ -26,7 +22,7 @@ import java.util.logging.Level;
  * Player has to click on block (or air). Left click, right click and any one of
  * them is supported.
  */
-public class ActionObjective extends Objective implements Listener {
+public class ActionObjective extends Objective {
 
     private final Click action;
     private final BlockSelector selector;
@@ -51,7 +47,6 @@ public class ActionObjective extends Objective implements Listener {
         cancel = instruction.hasArgument("cancel");
     }
 
-    @EventHandler
     public void onInteract(final PlayerInteractEvent event) {
         // Only fire the event for the main hand to avoid that the event is triggered two times.
         if (event.getHand() == EquipmentSlot.OFF_HAND && event.getHand() != null) {
@@ -138,12 +133,13 @@ public class ActionObjective extends Objective implements Listener {
 
     @Override
     public void start() {
-        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
+        subscribe(PlayerInteractEvent.class, EventPriority.NORMAL, false, PlayerInteractEvent::getPlayer,
+                this::onInteract);
     }
 
     @Override
     public void stop() {
-        HandlerList.unregisterAll(this);
+        unsubscribe();
     }
 
     @Override
@@ -1,13 +1,8 @@
 package pl.betoncraft.betonquest.objectives;
 
-import org.bukkit.Bukkit;
-import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
-import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.Instruction;
 import pl.betoncraft.betonquest.api.Objective;
 import pl.betoncraft.betonquest.config.Config;
@@ -23,7 +18,7 @@ import java.util.logging.Level;
  * Player has to break/place specified amount of blocks. Doing opposite thing
  * (breaking when should be placing) will reverse the progress.
  */
-public class BlockObjective extends Objective implements Listener {
+public class BlockObjective extends Objective {
 
     private final int neededAmount;
     private final boolean notify;
@@ -41,7 +36,6 @@ public class BlockObjective extends Objective implements Listener {
         notify = instruction.hasArgument("notify") || notifyInterval > 0;
     }
 
-    @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onBlockPlace(final BlockPlaceEvent event) {
         final String playerID = PlayerConverter.getID(event.getPlayer());
         if (containsPlayer(playerID) && selector.match(event.getBlock(), exactMatch) && checkConditions(playerID)) {
@@ -79,7 +73,6 @@ public class BlockObjective extends Objective implements Listener {
         }
     }
 
-    @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onBlockBreak(final BlockBreakEvent event) {
         final String playerID = PlayerConverter.getID(event.getPlayer());
         if (containsPlayer(playerID) && selector.match(event.getBlock(), exactMatch) && checkConditions(playerID)) {
@@ -119,12 +112,13 @@ public class BlockObjective extends Objective implements Listener {
 
     @Override
     public void start() {
-        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
+        subscribe(BlockPlaceEvent.class, EventPriority.HIGHEST, true, BlockPlaceEvent::getPlayer, this::onBlockPlace);
+        subscribe(BlockBreakEvent.class, EventPriority.HIGHEST, true, BlockBreakEvent::getPlayer, this::onBlockBreak);
     }
 
     @Override
     public void stop() {
-        HandlerList.unregisterAll(this);
+        unsubscribe();
     }
 
     @Override
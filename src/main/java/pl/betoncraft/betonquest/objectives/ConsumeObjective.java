@@ -1,11 +1,7 @@
 package pl.betoncraft.betonquest.objectives;
 
-import org.bukkit.Bukkit;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.player.PlayerItemConsumeEvent;
-import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.Instruction;
 import pl.betoncraft.betonquest.api.Objective;
 import pl.betoncraft.betonquest.exceptions.InstructionParseException;
@@ -15,7 +11,7 @@ import pl.betoncraft.betonquest.utils.PlayerConverter;
 /**
  * Requires the player to consume an item (eat food or drink s potion).
  */
-public class ConsumeObjective extends Objective implements Listener {
+public class ConsumeObjective extends Objective {
 
     private final QuestItem item;
 
@@ -25,7 +21,6 @@ public class ConsumeObjective extends Objective implements Listener {
         item = instruction.getQuestItem();
     }
 
-    @EventHandler(ignoreCancelled = true)
     public void onConsume(final PlayerItemConsumeEvent event) {
         final String playerID = PlayerConverter.getID(event.getPlayer());
         if (containsPlayer(playerID) && item.compare(event.getItem()) && checkConditions(playerID)) {
@@ -35,12 +30,13 @@ public class ConsumeObjective extends Objective implements Listener {
 
     @Override
     public void start() {
-        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
+        subscribe(PlayerItemConsumeEvent.class, EventPriority.NORMAL, true, PlayerItemConsumeEvent::getPlayer,
+                this::onConsume);
     }
 
     @Override
     public void stop() {
-        HandlerList.unregisterAll(this);
+        unsubscribe();
     }
 
     @Override
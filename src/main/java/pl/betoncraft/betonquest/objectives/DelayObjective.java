@@ -1,17 +1,16 @@
 package pl.betoncraft.betonquest.objectives;
 
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.Instruction;
 import pl.betoncraft.betonquest.api.Objective;
 import pl.betoncraft.betonquest.config.Config;
 import pl.betoncraft.betonquest.exceptions.InstructionParseException;
+import pl.betoncraft.betonquest.utils.TimerQueue.Timer;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.LinkedList;
-import java.util.Map.Entry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Player has to wait specified amount of time. He may logout, the objective
@@ -20,8 +19,8 @@ import java.util.Map.Entry;
 public class DelayObjective extends Objective {
 
     private final double delay;
-    private BukkitTask runnable;
     private final int interval;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
 
     public DelayObjective(final Instruction instruction) throws InstructionParseException {
         super(instruction);
@@ -44,31 +43,55 @@ public class DelayObjective extends Objective {
 
     @Override
     public void start() {
-        runnable = new BukkitRunnable() {
-            @Override
-            public void run() {
-                final LinkedList<String> players = new LinkedList<>();
-                final long time = new Date().getTime();
-                for (final Entry<String, ObjectiveData> entry : dataMap.entrySet()) {
-                    final String playerID = entry.getKey();
-                    final DelayData playerData = (DelayData) entry.getValue();
-                    if (time >= playerData.getTime() && checkConditions(playerID)) {
-                        // don't complete the objective, it will throw CME/
-                        // store the player instead, complete later
-                        players.add(playerID);
-                    }
-                }
-                for (final String playerID : players) {
-                    completeObjective(playerID);
-                }
-            }
-        }.runTaskTimer(BetonQuest.getInstance(), 0, interval);
+        // players are scheduled when they are added
     }
 
     @Override
     public void stop() {
-        if (runnable != null) {
-            runnable.cancel();
+        for (final Timer timer : timers.values()) {
+            timer.cancel();
+        }
+        timers.clear();
+    }
+
+    @Override
+    protected void playerAdded(final String playerID) {
+        final DelayData playerData = (DelayData) dataMap.get(playerID);
+        if (playerData != null) {
+            schedule(playerID, (playerData.getTime() - new Date().getTime() + 49) / 50);
+        }
+    }
+
+    @Override
+    protected void playerRemoved(final String playerID) {
+        final Timer timer = timers.remove(playerID);
+        if (timer != null) {
+            timer.cancel();
+        }
+    }
+
+    private void schedule(final String playerID, final long ticks) {
+        final Timer previous = timers.put(playerID,
+                BetonQuest.getInstance().getTimerQueue().schedule(ticks, () -> check(playerID)));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void check(final String playerID) {
+        timers.remove(playerID);
+        final DelayData playerData = (DelayData) dataMap.get(playerID);
+        if (playerData == null) {
+            return;
+        }
+        final long timeLeft = playerData.getTime() - new Date().getTime();
+        if (timeLeft > 0) {
+            // the server was lagging, wait for the rest of the time
+            schedule(playerID, (timeLeft + 49) / 50);
+        } else if (checkConditions(playerID)) {
+            completeObjective(playerID);
+        } else {
+            schedule(playerID, interval);
         }
     }
 
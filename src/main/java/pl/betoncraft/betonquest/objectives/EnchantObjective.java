@@ -1,12 +1,8 @@
 package pl.betoncraft.betonquest.objectives;
 
-import org.bukkit.Bukkit;
 import org.bukkit.enchantments.Enchantment;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.enchantment.EnchantItemEvent;
-import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.Instruction;
 import pl.betoncraft.betonquest.api.Objective;
 import pl.betoncraft.betonquest.exceptions.InstructionParseException;
@@ -19,7 +15,7 @@ import java.util.Locale;
 /**
  * Requires the player to enchant an item.
  */
-public class EnchantObjective extends Objective implements Listener {
+public class EnchantObjective extends Objective {
 
     private final QuestItem item;
     private final List<EnchantmentData> enchantments;
@@ -34,7 +30,6 @@ public class EnchantObjective extends Objective implements Listener {
         }
     }
 
-    @EventHandler(ignoreCancelled = true)
     public void onEnchant(final EnchantItemEvent event) {
         final String playerID = PlayerConverter.getID(event.getEnchanter());
         if (!containsPlayer(playerID)) {
@@ -56,12 +51,12 @@ public class EnchantObjective extends Objective implements Listener {
 
     @Override
     public void start() {
-        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
+        subscribe(EnchantItemEvent.class, EventPriority.NORMAL, true, EnchantItemEvent::getEnchanter, this::onEnchant);
     }
 
     @Override
     public void stop() {
-        HandlerList.unregisterAll(this);
+        unsubscribe();
     }
 
     @Override
@@ -1,12 +1,8 @@
 package pl.betoncraft.betonquest.objectives;
 
-import org.bukkit.Bukkit;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.player.PlayerExpChangeEvent;
 import org.bukkit.event.player.PlayerLevelChangeEvent;
-import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.Instruction;
 import pl.betoncraft.betonquest.api.Objective;
 import pl.betoncraft.betonquest.exceptions.InstructionParseException;
@@ -15,7 +11,7 @@ import pl.betoncraft.betonquest.utils.PlayerConverter;
 /**
  * Player needs to get specified experience level
  */
-public class ExperienceObjective extends Objective implements Listener {
+public class ExperienceObjective extends Objective {
 
     private final int amount;
     private final boolean checkForLevel;
@@ -30,7 +26,6 @@ public class ExperienceObjective extends Objective implements Listener {
         this.checkForLevel = instruction.hasArgument("level");
     }
 
-    @EventHandler(ignoreCancelled = true)
     public void onLevelChangeEvent(final PlayerLevelChangeEvent event) {
         if (!checkForLevel) {
             return;
@@ -39,7 +34,6 @@ public class ExperienceObjective extends Objective implements Listener {
         onExperienceChange(playerID, event.getNewLevel());
     }
 
-    @EventHandler(ignoreCancelled = true)
     public void onExpChangeEvent(final PlayerExpChangeEvent event) {
         if (checkForLevel) {
             return;
@@ -59,12 +53,15 @@ public class ExperienceObjective extends Objective implements Listener {
 
     @Override
     public void start() {
-        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
+        subscribe(PlayerLevelChangeEvent.class, EventPriority.NORMAL, true, PlayerLevelChangeEvent::getPlayer,
+                this::onLevelChangeEvent);
+        subscribe(PlayerExpChangeEvent.class, EventPriority.NORMAL, true, PlayerExpChangeEvent::getPlayer,
+                this::onExpChangeEvent);
     }
 
     @Override
     public void stop() {
-        HandlerList.unregisterAll(this);
+        unsubscribe();
     }
 
     @Override
@@ -1,16 +1,12 @@
 package pl.betoncraft.betonquest.objectives;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Item;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.player.PlayerFishEvent;
 import org.bukkit.event.player.PlayerFishEvent.State;
 import org.bukkit.inventory.ItemStack;
-import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.Instruction;
 import pl.betoncraft.betonquest.api.Objective;
 import pl.betoncraft.betonquest.config.Config;
@@ -24,7 +20,7 @@ import java.util.logging.Level;
 /**
  * Requires the player to catch the fish.
  */
-public class FishObjective extends Objective implements Listener {
+public class FishObjective extends Objective {
 
     private final byte data;
     private final int amount;
@@ -61,7 +57,6 @@ public class FishObjective extends Objective implements Listener {
     }
 
     @SuppressWarnings("deprecation")
-    @EventHandler(ignoreCancelled = true)
     public void onFishCatch(final PlayerFishEvent event) {
         if (event.getState() != State.CAUGHT_FISH) {
             return;
@@ -117,12 +112,12 @@ public class FishObjective extends Objective implements Listener {
 
     @Override
     public void start() {
-        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
+        subscribe(PlayerFishEvent.class, EventPriority.NORMAL, true, PlayerFishEvent::getPlayer, this::onFishCatch);
     }
 
     @Override
     public void stop() {
-        HandlerList.unregisterAll(this);
+        unsubscribe();
     }
 
     @Override
@@ -1,17 +1,13 @@
 package pl.betoncraft.betonquest.objectives;
 
 import com.destroystokyo.paper.event.player.PlayerJumpEvent;
-import org.bukkit.Bukkit;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
-import pl.betoncraft.betonquest.BetonQuest;
+import org.bukkit.event.EventPriority;
 import pl.betoncraft.betonquest.Instruction;
 import pl.betoncraft.betonquest.api.Objective;
 import pl.betoncraft.betonquest.exceptions.InstructionParseException;
 import pl.betoncraft.betonquest.utils.PlayerConverter;
 
-public class JumpObjective extends Objective implements Listener {
+public class JumpObjective extends Objective {
 
     private final int amount;
 
@@ -22,7 +18,6 @@ public class JumpObjective extends Objective implements Listener {
         amount = instruction.getInt();
     }
 
-    @EventHandler(ignoreCancelled = true)
     public void onPlayerJump(final PlayerJumpEvent event) {
         final String playerID = PlayerConverter.getID(event.getPlayer());
         if (containsPlayer(playerID) && checkConditions(playerID)) {
@@ -53,12 +48,12 @@ public class JumpObjective extends Objective implements Listener {
 
     @Override
     public void start() {
-        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
+        subscribe(PlayerJumpEvent.class, EventPriority.NORMAL, true, PlayerJumpEvent::getPlayer, this::onPlayerJump);
     }
 
     @Override
     public void stop() {
-        HandlerList.unregisterAll(this);
+        unsubscribe();
     }
 
     public static class JumpData extends ObjectiveData {
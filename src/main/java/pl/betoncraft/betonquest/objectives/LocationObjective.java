@@ -2,6 +2,7 @@ package pl.betoncraft.betonquest.objectives;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
@@ -15,6 +16,7 @@ import pl.betoncraft.betonquest.exceptions.QuestRuntimeException;
 import pl.betoncraft.betonquest.utils.LogUtils;
 import pl.betoncraft.betonquest.utils.PlayerConverter;
 import pl.betoncraft.betonquest.utils.location.CompoundLocation;
+import pl.betoncraft.betonquest.utils.location.ZoneIndex;
 
 import java.util.logging.Level;
 
@@ -25,6 +27,7 @@ public class LocationObjective extends Objective implements Listener {
 
     private final CompoundLocation loc;
     private final VariableNumber range;
+    private ZoneIndex.Zone zone;
 
     public LocationObjective(final Instruction instruction) throws InstructionParseException {
         super(instruction);
@@ -35,25 +38,62 @@ public class LocationObjective extends Objective implements Listener {
 
     @EventHandler(ignoreCancelled = true)
     public void onMove(final PlayerMoveEvent event) {
-        qreHandler.handle(() -> {
-            final String playerID = PlayerConverter.getID(event.getPlayer());
-            final Location location = loc.getLocation(playerID);
-            if (containsPlayer(playerID) && event.getPlayer().getWorld().equals(location.getWorld())) {
-                final double pRange = range.getDouble(playerID);
-                if (event.getTo().distanceSquared(location) <= pRange * pRange && super.checkConditions(playerID)) {
-                    completeObjective(playerID);
-                }
+        qreHandler.handle(() -> checkLocation(event.getPlayer(), event.getTo()));
+    }
+
+    private void checkLocation(final Player player, final Location target) throws QuestRuntimeException {
+        final String playerID = PlayerConverter.getID(player);
+        final Location location = loc.getLocation(playerID);
+        if (containsPlayer(playerID) && target.getWorld().equals(location.getWorld())) {
+            final double pRange = range.getDouble(playerID);
+            if (target.distanceSquared(location) <= pRange * pRange && super.checkConditions(playerID)) {
+                completeObjective(playerID);
             }
-        });
+        }
+    }
+
+    private void onEnter(final Player player) {
+        final String playerID = PlayerConverter.getID(player);
+        if (containsPlayer(playerID) && super.checkConditions(playerID)) {
+            completeObjective(playerID);
+        }
     }
 
     @Override
     public void start() {
+        // fixed locations are checked by the shared zone index, only the
+        // ones with variables need their own move listener
+        if (loc.isStatic() && range.isStatic()) {
+            try {
+                zone = BetonQuest.getInstance().getZoneIndex().add(loc.getLocation(null), range.getDouble(null), this::onEnter);
+                return;
+            } catch (QuestRuntimeException e) {
+                LogUtils.getLogger().log(Level.WARNING, "Could not index the location of '" + instruction.getID() + "' objective: "
+                        + e.getMessage());
+                LogUtils.logThrowable(e);
+            }
+        }
         Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
     }
 
+    @Override
+    protected void playerAdded(final String playerID) {
+        // moves are only noticed when the player enters another block, so a player
+        // already standing in the area is checked once, after the objective was saved
+        Bukkit.getScheduler().runTask(BetonQuest.getInstance(), () -> {
+            final Player player = PlayerConverter.getPlayer(playerID);
+            if (player != null) {
+                qreHandler.handle(() -> checkLocation(player, player.getLocation()));
+            }
+        });
+    }
+
     @Override
     public void stop() {
+        if (zone != null) {
+            BetonQuest.getInstance().getZoneIndex().remove(zone);
+            zone = null;
+        }
         HandlerList.unregisterAll(this);
     }
 
@@ -1,12 +1,7 @@
 package pl.betoncraft.betonquest.objectives;
 
-import org.bukkit.Bukkit;
-import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerQuitEvent;
-import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.Instruction;
 import pl.betoncraft.betonquest.api.Objective;
 import pl.betoncraft.betonquest.exceptions.InstructionParseException;
@@ -15,14 +10,13 @@ import pl.betoncraft.betonquest.utils.PlayerConverter;
 /**
  * Requires the player to leave the server.
  */
-public class LogoutObjective extends Objective implements Listener {
+public class LogoutObjective extends Objective {
 
     public LogoutObjective(final Instruction instruction) throws InstructionParseException {
         super(instruction);
         template = ObjectiveData.class;
     }
 
-    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
     public void onQuit(final PlayerQuitEvent event) {
         final String playerID = PlayerConverter.getID(event.getPlayer());
         if (containsPlayer(playerID) && checkConditions(playerID)) {
@@ -32,12 +26,12 @@ public class LogoutObjective extends Objective implements Listener {
 
     @Override
     public void start() {
-        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
+        subscribe(PlayerQuitEvent.class, EventPriority.LOWEST, true, PlayerQuitEvent::getPlayer, this::onQuit);
     }
 
     @Override
     public void stop() {
-        HandlerList.unregisterAll(this);
+        unsubscribe();
     }
 
     @Override
@@ -1,12 +1,7 @@
 package pl.betoncraft.betonquest.objectives;
 
-import org.bukkit.Bukkit;
-import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerRespawnEvent;
-import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.Instruction;
 import pl.betoncraft.betonquest.api.Objective;
 import pl.betoncraft.betonquest.exceptions.InstructionParseException;
@@ -17,7 +12,7 @@ import pl.betoncraft.betonquest.utils.location.CompoundLocation;
 
 import java.util.logging.Level;
 
-public class RespawnObjective extends Objective implements Listener {
+public class RespawnObjective extends Objective {
 
     private final CompoundLocation location;
 
@@ -27,7 +22,6 @@ public class RespawnObjective extends Objective implements Listener {
         location = instruction.getLocation(instruction.getOptional("location"));
     }
 
-    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onRespawn(final PlayerRespawnEvent event) {
         final String playerID = PlayerConverter.getID(event.getPlayer());
         if (containsPlayer(playerID) && checkConditions(playerID)) {
@@ -46,12 +40,13 @@ public class RespawnObjective extends Objective implements Listener {
 
     @Override
     public void start() {
-        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
+        subscribe(PlayerRespawnEvent.class, EventPriority.HIGHEST, true, PlayerRespawnEvent::getPlayer,
+                this::onRespawn);
     }
 
     @Override
     public void stop() {
-        HandlerList.unregisterAll(this);
+        unsubscribe();
     }
 
     @Override
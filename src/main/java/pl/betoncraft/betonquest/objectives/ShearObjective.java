@@ -1,13 +1,9 @@
 package pl.betoncraft.betonquest.objectives;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Sheep;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.player.PlayerShearEntityEvent;
-import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.Instruction;
 import pl.betoncraft.betonquest.api.Objective;
 import pl.betoncraft.betonquest.config.Config;
@@ -21,7 +17,7 @@ import java.util.logging.Level;
 /**
  * Requires the player to shear a sheep.
  */
-public class ShearObjective extends Objective implements Listener {
+public class ShearObjective extends Objective {
 
     private final String color;
     private final String name;
@@ -40,7 +36,6 @@ public class ShearObjective extends Objective implements Listener {
         notify = instruction.hasArgument("notify") || notifyInterval > 0;
     }
 
-    @EventHandler(ignoreCancelled = true)
     public void onShear(final PlayerShearEntityEvent event) {
         if (event.getEntity().getType() != EntityType.SHEEP) {
             return;
@@ -89,12 +84,13 @@ public class ShearObjective extends Objective implements Listener {
 
     @Override
     public void start() {
-        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
+        subscribe(PlayerShearEntityEvent.class, EventPriority.NORMAL, true, PlayerShearEntityEvent::getPlayer,
+                this::onShear);
     }
 
     @Override
     public void stop() {
-        HandlerList.unregisterAll(this);
+        unsubscribe();
     }
 
     @Override
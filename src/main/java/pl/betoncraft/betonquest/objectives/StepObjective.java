@@ -1,14 +1,10 @@
 package pl.betoncraft.betonquest.objectives;
 
-import org.bukkit.Bukkit;
 import org.bukkit.block.Block;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.inventory.EquipmentSlot;
-import pl.betoncraft.betonquest.BetonQuest;
 import pl.betoncraft.betonquest.Instruction;
 import pl.betoncraft.betonquest.api.Objective;
 import pl.betoncraft.betonquest.exceptions.InstructionParseException;
@@ -23,7 +19,7 @@ import java.util.logging.Level;
 /**
  * The player must step on the pressure plate
  */
-public class StepObjective extends Objective implements Listener {
+public class StepObjective extends Objective {
     private static final BlockSelector PRESSURE_PLATE_SELECTOR = getPressurePlateSelector();
 
     private final CompoundLocation loc;
@@ -43,7 +39,6 @@ public class StepObjective extends Objective implements Listener {
         loc = instruction.getLocation();
     }
 
-    @EventHandler(ignoreCancelled = true)
     public void onStep(final PlayerInteractEvent event) {
         // Only fire the event for the main hand to avoid that the event is triggered two times.
         if (event.getHand() == EquipmentSlot.OFF_HAND && event.getHand() != null) {
@@ -80,12 +75,12 @@ public class StepObjective extends Objective implements Listener {
 
     @Override
     public void start() {
-        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
+        subscribe(PlayerInteractEvent.class, EventPriority.NORMAL, true, PlayerInteractEvent::getPlayer, this::onStep);
     }
 
     @Override
     public void stop() {
-        HandlerList.unregisterAll(this);
+        unsubscribe();
     }
 
     @Override
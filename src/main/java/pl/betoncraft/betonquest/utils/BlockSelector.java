@@ -27,6 +27,10 @@ import java.util.regex.Pattern;
  */
 public class BlockSelector {
     private final List<Material> materials;
+    /**
+     * The same materials as {@link #materials}, for fast matching
+     */
+    private final Set<Material> materialSet;
     private final Map<String, String> states;
 
     /**
@@ -43,6 +47,7 @@ public class BlockSelector {
         if (materials.isEmpty()) {
             throw new InstructionParseException("Invalid selector, no material found for '" + block + "'!");
         }
+        materialSet = EnumSet.copyOf(materials);
     }
 
     /**
@@ -128,7 +133,7 @@ public class BlockSelector {
      * @return True if the {@link Material} is represented by this {@link BlockSelector}
      */
     public boolean match(final Material material) {
-        return materials.contains(material);
+        return materialSet.contains(material);
     }
 
     /**
@@ -0,0 +1,91 @@
+package pl.betoncraft.betonquest.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how long some operation took, grouped into fixed buckets of
+ * milliseconds. It is safe to record from many threads at once.
+ */
+public class LatencyHistogram {
+
+    /**
+     * Upper bounds (exclusive) of the buckets in milliseconds; the last bucket
+     * has no upper bound
+     */
+    private static final long[] BOUNDS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000};
+
+    private final String name;
+    private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * Creates new empty histogram.
+     *
+     * @param name name of the measured operation, used in {@link #toString()}
+     */
+    public LatencyHistogram(final String name) {
+        this.name = name;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a single measurement.
+     *
+     * @param nanos duration of the operation in nanoseconds
+     */
+    public void record(final long nanos) {
+        final long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < BOUNDS.length && millis >= BOUNDS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        totalNanos.add(nanos);
+    }
+
+    /**
+     * @return the amount of recorded measurements
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the average duration in milliseconds or 0 if nothing was recorded
+     */
+    public double getAverage() {
+        final long total = count.sum();
+        return total == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / total;
+    }
+
+    /**
+     * @return the name of the measured operation
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return a single line with the amount, average and all non-empty buckets
+     */
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder(name).append(": ").append(getCount())
+                .append(String.format(" samples, avg %.2f ms", getAverage()));
+        for (int i = 0; i < buckets.length; i++) {
+            final long amount = buckets[i].sum();
+            if (amount == 0) {
+                continue;
+            }
+            builder.append(", ")
+                    .append(i == BOUNDS.length ? ">=" + BOUNDS[i - 1] : "<" + BOUNDS[i])
+                    .append("ms: ").append(amount);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,188 @@
+package pl.betoncraft.betonquest.utils;
+
+import java.util.function.LongConsumer;
+
+/**
+ * A set of primitive longs, stored in a single array with linear probing.
+ * It does not box its values, so it is much smaller and faster than a set
+ * of {@link Long} objects. This class is not thread safe.
+ */
+public class LongHashSet {
+
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * 0 marks an empty slot, so it is kept outside of the array
+     */
+    private boolean containsZero;
+    private long[] keys;
+    private int mask;
+    private int size;
+
+    /**
+     * Creates new empty set.
+     */
+    public LongHashSet() {
+        keys = new long[MIN_CAPACITY];
+        mask = MIN_CAPACITY - 1;
+    }
+
+    private static int hash(final long key) {
+        final long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ mixed >>> 32);
+    }
+
+    /**
+     * Adds the value to the set.
+     *
+     * @param value the value
+     * @return true if the value was not in the set before
+     */
+    public boolean add(final long value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int index = hash(value) & mask;
+        while (keys[index] != 0) {
+            if (keys[index] == value) {
+                return false;
+            }
+            index = index + 1 & mask;
+        }
+        keys[index] = value;
+        size++;
+        if (size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the value is in the set.
+     *
+     * @param value the value
+     * @return true if the set contains the value
+     */
+    public boolean contains(final long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        int index = hash(value) & mask;
+        while (keys[index] != 0) {
+            if (keys[index] == value) {
+                return true;
+            }
+            index = index + 1 & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Removes the value from the set.
+     *
+     * @param value the value
+     * @return true if the value was in the set
+     */
+    public boolean remove(final long value) {
+        if (value == 0) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            size--;
+            return true;
+        }
+        int index = hash(value) & mask;
+        while (keys[index] != 0) {
+            if (keys[index] == value) {
+                shiftBack(index);
+                size--;
+                return true;
+            }
+            index = index + 1 & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Passes all values to the action, in no particular order. The set must
+     * not be modified by the action.
+     *
+     * @param action the action to perform for each value
+     */
+    public void forEach(final LongConsumer action) {
+        if (containsZero) {
+            action.accept(0);
+        }
+        for (final long key : keys) {
+            if (key != 0) {
+                action.accept(key);
+            }
+        }
+    }
+
+    /**
+     * @return the amount of values in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all values from the set.
+     */
+    public void clear() {
+        keys = new long[MIN_CAPACITY];
+        mask = MIN_CAPACITY - 1;
+        containsZero = false;
+        size = 0;
+    }
+
+    private void insert(final long key) {
+        int index = hash(key) & mask;
+        while (keys[index] != 0) {
+            index = index + 1 & mask;
+        }
+        keys[index] = key;
+    }
+
+    private void resize(final int capacity) {
+        final long[] old = keys;
+        keys = new long[capacity];
+        mask = capacity - 1;
+        for (final long key : old) {
+            if (key != 0) {
+                insert(key);
+            }
+        }
+    }
+
+    /**
+     * Fills the emptied slot with the following keys of the same probe
+     * sequence, so lookups never stop too early.
+     *
+     * @param slot the emptied slot
+     */
+    private void shiftBack(final int slot) {
+        int gap = slot;
+        int index = slot;
+        while (true) {
+            index = index + 1 & mask;
+            final long key = keys[index];
+            if (key == 0) {
+                break;
+            }
+            final int ideal = hash(key) & mask;
+            if ((index - ideal & mask) >= (index - gap & mask)) {
+                keys[gap] = key;
+                gap = index;
+            }
+        }
+        keys[gap] = 0;
+    }
+}
@@ -0,0 +1,137 @@
+package pl.betoncraft.betonquest.utils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+import pl.betoncraft.betonquest.BetonQuest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Runs delayed quest work from a single Bukkit task. Timers are kept in a
+ * queue ordered by the tick they are due at, so every tick only looks at
+ * the timers which are due instead of all waiting ones.
+ */
+public class TimerQueue {
+
+    private final PriorityQueue<Timer> queue = new PriorityQueue<>();
+    private final BukkitTask task;
+    private long currentTick;
+    private long sequence;
+
+    /**
+     * Creates new queue and starts its task.
+     */
+    public TimerQueue() {
+        task = Bukkit.getScheduler().runTaskTimer(BetonQuest.getInstance(), this::tick, 1, 1);
+    }
+
+    /**
+     * Schedules the action to run on the main thread after the delay.
+     *
+     * @param delay  delay in ticks, values lower than 1 run the action on the next tick
+     * @param action the action to run
+     * @return the timer, which can be used to cancel the action
+     */
+    public Timer schedule(final long delay, final Runnable action) {
+        synchronized (queue) {
+            final Timer timer = new Timer(currentTick + Math.max(1, delay), sequence++, action);
+            queue.add(timer);
+            return timer;
+        }
+    }
+
+    /**
+     * @return the amount of timers waiting in the queue
+     */
+    public int getSize() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * Stops the task. Waiting timers will never run.
+     */
+    public void close() {
+        task.cancel();
+        synchronized (queue) {
+            queue.clear();
+        }
+    }
+
+    private void tick() {
+        final List<Timer> due = new ArrayList<>();
+        synchronized (queue) {
+            currentTick++;
+            while (!queue.isEmpty() && queue.peek().due <= currentTick) {
+                due.add(queue.poll());
+            }
+        }
+        for (final Timer timer : due) {
+            if (timer.cancelled) {
+                continue;
+            }
+            try {
+                timer.action.run();
+            } catch (final RuntimeException e) {
+                LogUtils.logThrowableReport(e);
+            }
+        }
+    }
+
+    /**
+     * An action waiting in the queue
+     */
+    public final class Timer implements Comparable<Timer> {
+
+        private final long due;
+        private final long order;
+        private final Runnable action;
+        private volatile boolean cancelled;
+
+        /* default */ Timer(final long due, final long order, final Runnable action) {
+            this.due = due;
+            this.order = order;
+            this.action = action;
+        }
+
+        /**
+         * Prevents the action from running.
+         */
+        public void cancel() {
+            cancelled = true;
+            synchronized (queue) {
+                queue.remove(this);
+            }
+        }
+
+        /**
+         * @return the amount of ticks left until the action runs
+         */
+        public long getRemaining() {
+            synchronized (queue) {
+                return Math.max(0, due - currentTick);
+            }
+        }
+
+        @Override
+        public int compareTo(final Timer other) {
+            if (due == other.due) {
+                return Long.compare(order, other.order);
+            }
+            return Long.compare(due, other.due);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(order);
+        }
+    }
+}
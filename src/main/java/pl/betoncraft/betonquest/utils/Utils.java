@@ -15,18 +15,17 @@ import pl.betoncraft.betonquest.config.ConfigAccessor.AccessorType;
 import pl.betoncraft.betonquest.config.ConfigPackage;
 import pl.betoncraft.betonquest.config.Zipper;
 import pl.betoncraft.betonquest.database.Connector;
-import pl.betoncraft.betonquest.database.Connector.QueryType;
 import pl.betoncraft.betonquest.database.Connector.UpdateType;
 import pl.betoncraft.betonquest.database.Database;
+import pl.betoncraft.betonquest.database.DatabaseBackup;
 import pl.betoncraft.betonquest.exceptions.InstructionParseException;
 import pl.betoncraft.betonquest.id.ConditionID;
 
 import java.io.File;
 import java.io.IOException;
-import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -38,13 +37,43 @@ import java.util.regex.Pattern;
 public class Utils {
 
     /**
-     * Does a full configuration backup.
+     * Only one backup can run at a time, because they all use the same files
      */
-    public static void backup() {
+    private static final AtomicBoolean BACKUP_RUNNING = new AtomicBoolean();
+
+    /**
+     * Does a configuration backup. It only stores the changed files if
+     * incremental backups are enabled. It can be called from any thread, but
+     * if another backup is running, it does nothing.
+     *
+     * @return true if the database and all files were backed up, false if
+     * there was an error or another backup is running
+     */
+    public static boolean backup() {
+        if (!BACKUP_RUNNING.compareAndSet(false, true)) {
+            LogUtils.getLogger().log(Level.WARNING, "Another backup is running, skipping this one");
+            return false;
+        }
+        try {
+            return doBackup();
+        } finally {
+            BACKUP_RUNNING.set(false);
+        }
+    }
+
+    /**
+     * @return true if a backup is running right now
+     */
+    public static boolean isBackupRunning() {
+        return BACKUP_RUNNING.get();
+    }
+
+    private static boolean doBackup() {
         LogUtils.getLogger().log(Level.INFO, "Backing up!");
         final long time = new Date().getTime();
         final BetonQuest instance = BetonQuest.getInstance();
-        if (!backupDatabase(new File(instance.getDataFolder(), "database-backup.yml"))) {
+        final boolean databaseSaved = backupDatabase(new File(instance.getDataFolder(), DatabaseBackup.FILE_NAME));
+        if (!databaseSaved) {
             LogUtils.getLogger().log(Level.WARNING, "There was an error during backing up the database! This does not affect"
                     + " the configuration backup, nor damage your database. You should backup"
                     + " the database maually if you want to be extra safe, but it's not necessary if"
@@ -55,87 +84,41 @@ public class Utils {
         if (!backupFolder.isDirectory()) {
             backupFolder.mkdir();
         }
-        // zip all the files
+        // zip all the files, or only the changed ones
+        final boolean incremental = instance.getConfig().getBoolean("incremental_backups", false);
         final String outputPath = backupFolder.getAbsolutePath() + File.separator + "backup-"
-                + instance.getConfig().getString("version", null);
-        new Zipper(instance.getDataFolder().getAbsolutePath(), outputPath);
+                + instance.getConfig().getString("version", null) + (incremental ? "-incremental" : "");
+        final Zipper zipper = new Zipper(instance.getDataFolder().getAbsolutePath(), outputPath, incremental,
+                (done, total) -> {
+                    if (done * 4 / total != (done - 1) * 4 / total) {
+                        LogUtils.getLogger().log(Level.INFO, "Backed up " + done + " of " + total + " files");
+                    }
+                });
+        LogUtils.getLogger().log(Level.FINE, "Stored " + zipper.getWrittenFiles() + " files in the backup");
         // delete database backup so it doesn't make a mess later on
-        new File(instance.getDataFolder(), "database-backup.yml").delete();
+        new File(instance.getDataFolder(), DatabaseBackup.FILE_NAME).delete();
         // done
         LogUtils.getLogger().log(Level.FINE, "Done in " + (new Date().getTime() - time) + "ms");
         LogUtils.getLogger().log(Level.INFO, "Done, you can find the backup in \"backups\" directory.");
+        return databaseSaved && zipper.isSuccessful();
     }
 
     /**
-     * Backs the database up to a specified .yml file (it should not exist)
+     * Backs the database up to a specified file (it should not exist). The rows
+     * are streamed to the file, so this can be called from any thread.
      *
      * @param databaseBackupFile non-existent file where the database should be dumped
      * @return true if the backup was successful, false if there was an error
      */
     public static boolean backupDatabase(final File databaseBackupFile) {
-        final BetonQuest instance = BetonQuest.getInstance();
         try {
-            boolean done = true;
-            // prepare the config file
-            databaseBackupFile.createNewFile();
-            final ConfigAccessor accessor = new ConfigAccessor(databaseBackupFile, databaseBackupFile.getName(), AccessorType.OTHER);
-            final FileConfiguration config = accessor.getConfig();
-            // prepare the database and map
-            final HashMap<String, ResultSet> map = new HashMap<>();
-            final String[] tables = {"objectives", "tags", "points", "journals", "player"};
-            // open database connection
-            final Connector database = new Connector();
-            // load resultsets into the map
-            for (final String table : tables) {
-                LogUtils.getLogger().log(Level.FINE, "Loading " + table);
-                final String enumName = ("LOAD_ALL_" + table).toUpperCase(Locale.ROOT);
-                map.put(table, database.querySQL(QueryType.valueOf(enumName), new String[]{}));
-            }
-            // extract data from resultsets into the config file
-            for (final String key : map.keySet()) {
-                LogUtils.getLogger().log(Level.FINE, "Saving " + key + " to the backup file");
-                // prepare resultset and meta
-                final ResultSet res = map.get(key);
-                final ResultSetMetaData rsmd = res.getMetaData();
-                // get the list of column names
-                final List<String> columns = new ArrayList<>();
-                final int columnCount = rsmd.getColumnCount();
-                LogUtils.getLogger().log(Level.FINE, "  There are " + columnCount + " columns in this ResultSet");
-                for (int i = 1; i <= rsmd.getColumnCount(); i++) {
-                    final String columnName = rsmd.getColumnName(i);
-                    LogUtils.getLogger().log(Level.FINE, "    Adding column " + columnName);
-                    columns.add(columnName);
-                }
-                // counter for counting rows
-                int counter = 0;
-                while (res.next()) {
-                    // for each column add a value to a config
-                    for (final String columnName : columns) {
-                        try {
-                            final String value = res.getString(columnName);
-                            config.set(key + "." + counter + "." + columnName, value);
-                        } catch (SQLException e) {
-                            LogUtils.getLogger().log(Level.WARNING, "Could not read SQL: " + e.getMessage());
-                            LogUtils.logThrowable(e);
-                            done = false;
-                            // do nothing, as there can be nothing done
-                            // error while loading the string means the
-                            // database entry is broken
-                        }
-                    }
-                    counter++;
-                }
-                LogUtils.getLogger().log(Level.FINE, "  Saved " + (counter + 1) + " rows");
-            }
-            // save the config at the end
-            accessor.saveConfig();
-            return done;
+            new DatabaseBackup().write(databaseBackupFile);
+            return true;
         } catch (IOException | SQLException e) {
             LogUtils.getLogger().log(Level.WARNING, "There was an error during database backup: " + e.getMessage());
             LogUtils.logThrowable(e);
-            final File brokenFile = new File(instance.getDataFolder(), "database-backup.yml");
-            if (brokenFile.exists()) {
-                brokenFile.delete();
+            if (databaseBackupFile.exists()) {
+                databaseBackupFile.delete();
             }
             return false;
         }
@@ -216,15 +199,16 @@ public class Utils {
      * If the database backup file exists, loads it into the database.
      */
     public static void loadDatabaseFromBackup() {
+        final BetonQuest instance = BetonQuest.getInstance();
+        final File file = new File(instance.getDataFolder(), DatabaseBackup.FILE_NAME);
+        final File legacyFile = new File(instance.getDataFolder(), "database-backup.yml");
+        // if the backup doesn't exist then there is nothing to load, return
+        if (!file.exists() && !legacyFile.exists()) {
+            return;
+        }
         boolean isOldDatabaseBackedUP = false;
         String filename = null;
         try {
-            final BetonQuest instance = BetonQuest.getInstance();
-            final File file = new File(instance.getDataFolder(), "database-backup.yml");
-            // if the backup doesn't exist then there is nothing to load, return
-            if (!file.exists()) {
-                return;
-            }
             LogUtils.getLogger().log(Level.INFO, "Loading database backup!");
             // backup the database
             final File backupFolder = new File(instance.getDataFolder(), "backups");
@@ -232,10 +216,11 @@ public class Utils {
                 backupFolder.mkdirs();
             }
             int backupNumber = 0;
-            while (new File(backupFolder, "old-database-" + backupNumber + ".yml").exists()) {
+            while (new File(backupFolder, "old-database-" + backupNumber + ".gz").exists()
+                    || new File(backupFolder, "old-database-" + backupNumber + ".yml").exists()) {
                 backupNumber++;
             }
-            filename = "old-database-" + backupNumber + ".yml";
+            filename = "old-database-" + backupNumber + ".gz";
             LogUtils.getLogger().log(Level.INFO, "Backing up old database!");
             if (!(isOldDatabaseBackedUP = backupDatabase(new File(backupFolder, filename)))) {
                 LogUtils.getLogger().log(Level.WARNING, "There was an error during old database backup process. This means that"
@@ -243,15 +228,46 @@ public class Utils {
                         + "forever. Because of that the loading of backup was aborted!");
                 return;
             }
-            final ConfigAccessor accessor = new ConfigAccessor(file, "database-backup.yml", AccessorType.OTHER);
-            final FileConfiguration config = accessor.getConfig();
-            final Database database = instance.getDB();
-            // create tables if they don't exist, so we can be 100% sure
-            // that we can drop them without an error (should've been done
-            // in a different way...)
-            database.createTables(instance.isMySQLUsed());
+            if (file.exists()) {
+                new DatabaseBackup().restore(file);
+                // delete backup file so it doesn't get loaded again
+                file.delete();
+            } else {
+                loadLegacyBackup(legacyFile);
+                legacyFile.delete();
+            }
+        } catch (Exception e) {
+            if (isOldDatabaseBackedUP) {
+                LogUtils.getLogger().log(Level.WARNING, "Your database probably got corrupted, sorry for that :( The good news"
+                        + " is that you have a backup of your old database, you can find it in backups"
+                        + " folder, named as " + filename + ". You can try to use it to load the "
+                        + "backup, but it will probably have the same effect.");
+            } else {
+                LogUtils.getLogger().log(Level.WARNING, "There was an error during database loading, but fortunatelly the "
+                        + "original database wasn't even touched yet. You can try to load the backup "
+                        + "again, and if the problem persists you should contact the developer to find"
+                        + " a solution.");
+            }
+            LogUtils.logThrowableReport(e);
+        }
+    }
+
+    /**
+     * Loads a backup in the .yml format written by older versions.
+     *
+     * @param file the backup file
+     */
+    private static void loadLegacyBackup(final File file) {
+        final BetonQuest instance = BetonQuest.getInstance();
+        final ConfigAccessor accessor = new ConfigAccessor(file, "database-backup.yml", AccessorType.OTHER);
+        final FileConfiguration config = accessor.getConfig();
+        final Database database = instance.getDB();
+        // create tables if they don't exist, so we can be 100% sure
+        // that we can drop them without an error (should've been done
+        // in a different way...)
+        database.createTables(instance.isMySQLUsed());
+        try (Connector con = new Connector()) {
             // drop all tables
-            final Connector con = new Connector();
             con.updateSQL(UpdateType.DROP_OBJECTIVES, new String[]{});
             con.updateSQL(UpdateType.DROP_TAGS, new String[]{});
             con.updateSQL(UpdateType.DROP_POINTS, new String[]{});
@@ -313,21 +329,6 @@ public class Utils {
                                     player.getString(key + ".language"), player.getString(key + ".conversation")});
                 }
             }
-            // delete backup file so it doesn't get loaded again
-            file.delete();
-        } catch (Exception e) {
-            if (isOldDatabaseBackedUP) {
-                LogUtils.getLogger().log(Level.WARNING, "Your database probably got corrupted, sorry for that :( The good news"
-                        + " is that you have a backup of your old database, you can find it in backups"
-                        + " folder, named as " + filename + ". You can try to use it to load the "
-                        + "backup, but it will probably have the same effect.");
-            } else {
-                LogUtils.getLogger().log(Level.WARNING, "There was an error during database loading, but fortunatelly the "
-                        + "original database wasn't even touched yet. You can try to load the backup "
-                        + "again, and if the problem persists you should contact the developer to find"
-                        + " a solution.");
-            }
-            LogUtils.logThrowableReport(e);
         }
     }
 
@@ -112,6 +112,14 @@ abstract class AbstractData<T extends Cloneable> {
         return object == null ? parseVariableObject(playerID) : clone(object);
     }
 
+    /**
+     * @return true if the input string did not contain any {@link Variable}s,
+     * so the object is the same for every player
+     */
+    public boolean isStatic() {
+        return object != null;
+    }
+
     private T parseVariableObject(final String playerID) throws QuestRuntimeException {
         if (playerID == null) {
             throw new QuestRuntimeException("Variable cannot be accessed without the player."
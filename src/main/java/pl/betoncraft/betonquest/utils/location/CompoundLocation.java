@@ -47,6 +47,13 @@ public class CompoundLocation {
         return loc.clone().add(vec);
     }
 
+    /**
+     * @return true if neither the location nor the vector contain {@link Variable}s
+     */
+    public boolean isStatic() {
+        return locationData.isStatic() && (vectorData == null || vectorData.isStatic());
+    }
+
     public LocationData getLocationData() {
         return locationData;
     }
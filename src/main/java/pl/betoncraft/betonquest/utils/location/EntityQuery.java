@@ -0,0 +1,253 @@
+package pl.betoncraft.betonquest.utils.location;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntitySpawnEvent;
+import org.bukkit.scheduler.BukkitTask;
+import pl.betoncraft.betonquest.BetonQuest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Finds entities of given types around a location. Only the loaded chunks
+ * overlapping the sphere are searched and the type of an entity is checked
+ * before its distance. Results are remembered until the end of the tick, so
+ * many events and conditions asking the same question in one tick search the
+ * chunks only once. Results which could contain an entity spawned in the
+ * same tick are forgotten right away. It must only be used on the main thread.
+ */
+public class EntityQuery implements Listener {
+
+    /**
+     * Spheres covering more chunks are searched in all entities of the world
+     */
+    private static final int MAX_CHUNKS = 1024;
+
+    private final Map<Query, List<Entity>> results = new HashMap<>();
+    private final BukkitTask task;
+    private long queries;
+    private long hits;
+
+    /**
+     * Creates new query helper, registers its spawn listener and starts
+     * forgetting its results every tick.
+     */
+    public EntityQuery() {
+        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
+        task = Bukkit.getScheduler().runTaskTimer(BetonQuest.getInstance(), () -> {
+            if (!results.isEmpty()) {
+                results.clear();
+            }
+        }, 1, 1);
+    }
+
+    /**
+     * Returns all entity types which are the type or its subtypes, for
+     * example all kinds of zombies for the zombie type.
+     *
+     * @param type the entity type
+     * @return the type and all types with an entity class extending its class
+     */
+    public static Set<EntityType> withSubtypes(final EntityType type) {
+        final Set<EntityType> types = EnumSet.of(type);
+        final Class<? extends Entity> entityClass = type.getEntityClass();
+        if (entityClass == null) {
+            return types;
+        }
+        for (final EntityType other : EntityType.values()) {
+            if (other.getEntityClass() != null && entityClass.isAssignableFrom(other.getEntityClass())) {
+                types.add(other);
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Finds the entities of the types in the radius around the location,
+     * including the ones exactly at the radius.
+     *
+     * @param center center of the sphere
+     * @param radius radius of the sphere in blocks
+     * @param types  types of entities to find
+     * @return the entities, the list can not be modified
+     * @see #find(Location, double, Collection, boolean)
+     */
+    public List<Entity> find(final Location center, final double radius, final Collection<EntityType> types) {
+        return find(center, radius, types, true);
+    }
+
+    /**
+     * Finds the entities of the types in the radius around the location.
+     * Entities which were removed or died since the result was remembered
+     * in this tick are skipped.
+     *
+     * @param center    center of the sphere
+     * @param radius    radius of the sphere in blocks
+     * @param types     types of entities to find
+     * @param inclusive true to include entities exactly at the radius
+     * @return the entities, the list can not be modified
+     */
+    public List<Entity> find(final Location center, final double radius, final Collection<EntityType> types,
+                             final boolean inclusive) {
+        queries++;
+        final Query query = new Query(center, radius, inclusive, types.isEmpty()
+                ? EnumSet.noneOf(EntityType.class) : EnumSet.copyOf(types));
+        final List<Entity> cached = results.get(query);
+        if (cached != null) {
+            hits++;
+            final List<Entity> valid = new ArrayList<>(cached.size());
+            for (final Entity entity : cached) {
+                if (entity.isValid()) {
+                    valid.add(entity);
+                }
+            }
+            return Collections.unmodifiableList(valid);
+        }
+        final List<Entity> found = Collections.unmodifiableList(search(query, center));
+        results.put(query, found);
+        return found;
+    }
+
+    private List<Entity> search(final Query query, final Location center) {
+        final List<Entity> found = new ArrayList<>();
+        if (query.types.isEmpty()) {
+            return found;
+        }
+        final World world = center.getWorld();
+        final int minX = (int) Math.floor(query.centerX - query.radius) >> 4;
+        final int maxX = (int) Math.floor(query.centerX + query.radius) >> 4;
+        final int minZ = (int) Math.floor(query.centerZ - query.radius) >> 4;
+        final int maxZ = (int) Math.floor(query.centerZ + query.radius) >> 4;
+        if ((long) (maxX - minX + 1) * (maxZ - minZ + 1) > MAX_CHUNKS) {
+            collect(world.getEntities(), query, found);
+            return found;
+        }
+        for (int chunkX = minX; chunkX <= maxX; chunkX++) {
+            for (int chunkZ = minZ; chunkZ <= maxZ; chunkZ++) {
+                if (world.isChunkLoaded(chunkX, chunkZ)) {
+                    final Chunk chunk = world.getChunkAt(chunkX, chunkZ);
+                    collect(Arrays.asList(chunk.getEntities()), query, found);
+                }
+            }
+        }
+        return found;
+    }
+
+    private void collect(final Collection<Entity> entities, final Query query, final List<Entity> found) {
+        for (final Entity entity : entities) {
+            if (query.types.contains(entity.getType()) && query.contains(entity.getLocation())) {
+                found.add(entity);
+            }
+        }
+    }
+
+    /**
+     * @return the amount of queries
+     */
+    public long getQueries() {
+        return queries;
+    }
+
+    /**
+     * @return the amount of queries answered with a result from the same tick
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Stops forgetting the results and forgets them now.
+     */
+    public void close() {
+        task.cancel();
+        HandlerList.unregisterAll(this);
+        results.clear();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSpawn(final EntitySpawnEvent event) {
+        if (results.isEmpty()) {
+            return;
+        }
+        final Location location = event.getLocation();
+        final String world = location.getWorld().getName();
+        final Iterator<Query> iterator = results.keySet().iterator();
+        while (iterator.hasNext()) {
+            final Query query = iterator.next();
+            if (query.world.equals(world) && query.types.contains(event.getEntityType())
+                    && query.contains(location)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * The question asked, used as the key of the results
+     */
+    private static class Query {
+
+        private final String world;
+        private final double centerX;
+        private final double centerY;
+        private final double centerZ;
+        private final double radius;
+        private final boolean inclusive;
+        private final Set<EntityType> types;
+
+        /* default */ Query(final Location center, final double radius, final boolean inclusive,
+                            final Set<EntityType> types) {
+            this.world = center.getWorld().getName();
+            this.centerX = center.getX();
+            this.centerY = center.getY();
+            this.centerZ = center.getZ();
+            this.radius = radius;
+            this.inclusive = inclusive;
+            this.types = types;
+        }
+
+        private boolean contains(final Location location) {
+            final double distX = location.getX() - centerX;
+            final double distY = location.getY() - centerY;
+            final double distZ = location.getZ() - centerZ;
+            final double distanceSquared = distX * distX + distY * distY + distZ * distZ;
+            return inclusive ? distanceSquared <= radius * radius : distanceSquared < radius * radius;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Query)) {
+                return false;
+            }
+            final Query query = (Query) other;
+            return Double.compare(query.centerX, centerX) == 0 && Double.compare(query.centerY, centerY) == 0
+                    && Double.compare(query.centerZ, centerZ) == 0 && Double.compare(query.radius, radius) == 0
+                    && query.inclusive == inclusive && world.equals(query.world) && types.equals(query.types);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(world, centerX, centerY, centerZ, radius, inclusive, types);
+        }
+    }
+}
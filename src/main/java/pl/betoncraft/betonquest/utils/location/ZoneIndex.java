@@ -0,0 +1,199 @@
+package pl.betoncraft.betonquest.utils.location;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import pl.betoncraft.betonquest.BetonQuest;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Keeps spherical zones around fixed locations in a grid of chunk sized
+ * cells, so a moving player is only checked against the zones near him.
+ * A single move listener handles all zones and only reacts when a player
+ * changes the block he is standing in.
+ */
+public class ZoneIndex implements Listener {
+
+    /**
+     * Zones covering more cells are not put into the grid, but checked for
+     * every move in their world
+     */
+    private static final int MAX_CELLS = 1024;
+
+    private final Map<String, WorldZones> worlds = new ConcurrentHashMap<>();
+
+    /**
+     * Creates new index and registers its move listener.
+     */
+    public ZoneIndex() {
+        Bukkit.getPluginManager().registerEvents(this, BetonQuest.getInstance());
+    }
+
+    private static long getCellKey(final int cellX, final int cellZ) {
+        return (long) cellX << 32 | cellZ & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Adds new zone to the index.
+     *
+     * @param center  center of the zone
+     * @param radius  radius of the zone in blocks
+     * @param handler called with the player every time he moves to another
+     *                block inside the zone
+     * @return the zone, used to remove it later
+     */
+    public Zone add(final Location center, final double radius, final Consumer<Player> handler) {
+        final Zone zone = new Zone(center, radius, handler);
+        worlds.computeIfAbsent(zone.world, world -> new WorldZones()).add(zone);
+        return zone;
+    }
+
+    /**
+     * Removes the zone from the index.
+     *
+     * @param zone the zone returned by {@link #add(Location, double, Consumer)}
+     */
+    public void remove(final Zone zone) {
+        final WorldZones zones = worlds.get(zone.world);
+        if (zones != null) {
+            zones.remove(zone);
+        }
+    }
+
+    /**
+     * @return the amount of zones in the index
+     */
+    public int getSize() {
+        int size = 0;
+        for (final WorldZones zones : worlds.values()) {
+            size += zones.size;
+        }
+        return size;
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onMove(final PlayerMoveEvent event) {
+        final Location from = event.getFrom();
+        final Location to = event.getTo();
+        if (to == null || to.getWorld() == null) {
+            return;
+        }
+        if (from.getBlockX() == to.getBlockX() && from.getBlockY() == to.getBlockY()
+                && from.getBlockZ() == to.getBlockZ() && to.getWorld().equals(from.getWorld())) {
+            return;
+        }
+        final WorldZones zones = worlds.get(to.getWorld().getName());
+        if (zones == null) {
+            return;
+        }
+        final Player player = event.getPlayer();
+        final List<Zone> cell = zones.cells.get(getCellKey(to.getBlockX() >> 4, to.getBlockZ() >> 4));
+        if (cell != null) {
+            for (final Zone zone : cell) {
+                zone.check(player, to);
+            }
+        }
+        for (final Zone zone : zones.large) {
+            zone.check(player, to);
+        }
+    }
+
+    /**
+     * Spherical zone around a fixed location
+     */
+    @SuppressWarnings("PMD.ShortClassName")
+    public static class Zone {
+
+        private final String world;
+        private final double centerX;
+        private final double centerY;
+        private final double centerZ;
+        private final double radius;
+        private final Consumer<Player> handler;
+
+        /* default */ Zone(final Location center, final double radius, final Consumer<Player> handler) {
+            this.world = center.getWorld().getName();
+            this.centerX = center.getX();
+            this.centerY = center.getY();
+            this.centerZ = center.getZ();
+            this.radius = radius;
+            this.handler = handler;
+        }
+
+        private void check(final Player player, final Location location) {
+            final double distanceX = location.getX() - centerX;
+            final double distanceY = location.getY() - centerY;
+            final double distanceZ = location.getZ() - centerZ;
+            if (distanceX * distanceX + distanceY * distanceY + distanceZ * distanceZ <= radius * radius) {
+                handler.accept(player);
+            }
+        }
+
+        private int minCell(final double coordinate) {
+            return (int) Math.floor(coordinate - radius) >> 4;
+        }
+
+        private int maxCell(final double coordinate) {
+            return (int) Math.floor(coordinate + radius) >> 4;
+        }
+    }
+
+    /**
+     * All zones in a single world
+     */
+    private static class WorldZones {
+
+        private final Map<Long, List<Zone>> cells = new ConcurrentHashMap<>();
+        private final List<Zone> large = new CopyOnWriteArrayList<>();
+        private volatile int size;
+
+        /* default */ WorldZones() {
+            // zones are added after the world is first used
+        }
+
+        private synchronized void add(final Zone zone) {
+            size++;
+            final long width = (long) zone.maxCell(zone.centerX) - zone.minCell(zone.centerX) + 1;
+            final long depth = (long) zone.maxCell(zone.centerZ) - zone.minCell(zone.centerZ) + 1;
+            if (width * depth > MAX_CELLS) {
+                large.add(zone);
+                return;
+            }
+            for (int cellX = zone.minCell(zone.centerX); cellX <= zone.maxCell(zone.centerX); cellX++) {
+                for (int cellZ = zone.minCell(zone.centerZ); cellZ <= zone.maxCell(zone.centerZ); cellZ++) {
+                    cells.computeIfAbsent(getCellKey(cellX, cellZ), key -> new CopyOnWriteArrayList<>()).add(zone);
+                }
+            }
+        }
+
+        private synchronized void remove(final Zone zone) {
+            if (large.remove(zone)) {
+                size--;
+                return;
+            }
+            boolean removed = false;
+            for (int cellX = zone.minCell(zone.centerX); cellX <= zone.maxCell(zone.centerX); cellX++) {
+                for (int cellZ = zone.minCell(zone.centerZ); cellZ <= zone.maxCell(zone.centerZ); cellZ++) {
+                    final long key = getCellKey(cellX, cellZ);
+                    final List<Zone> cell = cells.getOrDefault(key, Collections.emptyList());
+                    removed |= cell.remove(zone);
+                    if (cell.isEmpty()) {
+                        cells.remove(key);
+                    }
+                }
+            }
+            if (removed) {
+                size--;
+            }
+        }
+    }
+}
@@ -21,6 +21,13 @@ public class ObjectivePropertyVariable extends Variable {
         propertyName = instruction.next();
     }
 
+    /**
+     * @return the objective whose property is resolved
+     */
+    public ObjectiveID getObjective() {
+        return objective;
+    }
+
     @Override
     public String getValue(final String playerID) {
         final Objective objective = BetonQuest.getInstance().getObjective(this.objective);
@@ -41,9 +41,16 @@ public class PointVariable extends Variable {
         }
     }
 
+    /**
+     * @return the full name of the point category
+     */
+    public String getCategory() {
+        return category;
+    }
+
     @Override
     public String getValue(final String playerID) {
-        return getValue(BetonQuest.getInstance().getPlayerData(playerID).getPoints());
+        return getValue(BetonQuest.getInstance().getPlayerData(playerID).getPoint(category));
     }
 
     protected String getValue(final List<Point> points) {
@@ -54,6 +61,10 @@ public class PointVariable extends Variable {
                 break;
             }
         }
+        return getValue(point);
+    }
+
+    protected String getValue(final Point point) {
         int count = 0;
         if (point != null) {
             count = point.getCount();
@@ -0,0 +1,76 @@
+package pl.betoncraft.betonquest;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import pl.betoncraft.betonquest.config.Config;
+import pl.betoncraft.betonquest.config.ConfigAccessor;
+import pl.betoncraft.betonquest.config.ConfigPackage;
+import pl.betoncraft.betonquest.id.ConditionID;
+import pl.betoncraft.betonquest.utils.LogUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Config.class, LogUtils.class, BetonQuest.class})
+public class JournalTest {
+
+    private static final String PLAYER_ID = "player";
+
+    public JournalTest() {
+    }
+
+    @Before
+    public void setUp() {
+        PowerMockito.mockStatic(BetonQuest.class);
+        PowerMockito.mockStatic(LogUtils.class);
+        PowerMockito.when(LogUtils.getLogger()).thenReturn(Logger.getGlobal());
+
+        final YamlConfiguration main = new YamlConfiguration();
+        main.set("journal_main_page.quest.priority", 1);
+        main.set("journal_main_page.quest.text", "Find the lost sword");
+        main.set("journal_main_page.quest.conditions", "has_map");
+        final ConfigAccessor mainAccessor = Mockito.mock(ConfigAccessor.class);
+        Mockito.when(mainAccessor.getConfig()).thenReturn(main);
+
+        final ConfigPackage pack = Mockito.mock(ConfigPackage.class);
+        Mockito.when(pack.getName()).thenReturn("test");
+        Mockito.when(pack.getMain()).thenReturn(mainAccessor);
+        Mockito.when(pack.getString("conditions.has_map")).thenReturn("tag map");
+        Mockito.when(pack.subst(ArgumentMatchers.anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        final Map<String, ConfigPackage> packages = new HashMap<>();
+        packages.put("test", pack);
+        PowerMockito.mockStatic(Config.class);
+        PowerMockito.when(Config.getPackages()).thenReturn(packages);
+        PowerMockito.when(Config.getLanguage()).thenReturn("en");
+    }
+
+    @Test
+    public void testMainPageFollowsConditions() {
+        final Journal journal = new Journal(PLAYER_ID, "en", new ArrayList<>());
+
+        PowerMockito.when(BetonQuest.conditions(ArgumentMatchers.eq(PLAYER_ID),
+                ArgumentMatchers.<Collection<ConditionID>>any())).thenReturn(true);
+        journal.generateTexts("en");
+        assertEquals("Find the lost sword§r", journal.getMainPage(), "Line with met conditions is not shown!");
+
+        PowerMockito.when(BetonQuest.conditions(ArgumentMatchers.eq(PLAYER_ID),
+                ArgumentMatchers.<Collection<ConditionID>>any())).thenReturn(false);
+        journal.generateTexts("en");
+        assertNull(journal.getMainPage(), "Line with conditions which are no longer met is still shown!");
+    }
+}
@@ -0,0 +1,97 @@
+package pl.betoncraft.betonquest;
+
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.api.support.membermodification.MemberMatcher;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import pl.betoncraft.betonquest.api.Variable;
+import pl.betoncraft.betonquest.config.ConfigPackage;
+import pl.betoncraft.betonquest.exceptions.InstructionParseException;
+import pl.betoncraft.betonquest.utils.LogUtils;
+
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({LogUtils.class, BetonQuest.class})
+public class VariableStringTest {
+
+    private static final String PLAYER_ID = "player";
+    private static final String UNRESOLVED = "&cCould not resolve variable.";
+
+    private ConfigPackage pack;
+
+    public VariableStringTest() {
+    }
+
+    @Before
+    public void setUp() throws InstructionParseException {
+        PowerMockito.mockStatic(BetonQuest.class);
+        final BetonQuest betonQuestInstance = Mockito.mock(BetonQuest.class);
+        PowerMockito.suppress(MemberMatcher.methodsDeclaredIn(JavaPlugin.class));
+        PowerMockito.when(BetonQuest.getInstance()).thenReturn(betonQuestInstance);
+        PowerMockito.mockStatic(LogUtils.class);
+        PowerMockito.when(LogUtils.getLogger()).thenReturn(Logger.getGlobal());
+
+        pack = Mockito.mock(ConfigPackage.class);
+        Mockito.when(pack.getName()).thenReturn("test");
+        final Variable known = Mockito.mock(Variable.class);
+        Mockito.when(known.getValue(PLAYER_ID)).thenReturn("$1 \\ 5%");
+        PowerMockito.when(BetonQuest.createVariable(pack, "%known%")).thenReturn(known);
+        PowerMockito.when(BetonQuest.createVariable(pack, "%unknown%"))
+                .thenThrow(new InstructionParseException("Variable type unknown is not registered"));
+        Mockito.when(betonQuestInstance.getVariableValue(ArgumentMatchers.eq("test"), ArgumentMatchers.eq("%unknown%"),
+                ArgumentMatchers.eq(PLAYER_ID))).thenReturn(UNRESOLVED);
+    }
+
+    @SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
+    @Test
+    public void testLiteralPercentAndDollar() throws InstructionParseException {
+        final String text = "100% of $5, 50%% off and \\ %not a variable%";
+        final VariableString string = new VariableString(pack, text);
+        assertFalse(string.hasVariables(), "Literal text was parsed as a variable!");
+        assertEquals(text, string.getString(PLAYER_ID), "Literal text was changed!");
+    }
+
+    @SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
+    @Test
+    public void testValueIsInsertedLiterally() throws InstructionParseException {
+        final VariableString string = new VariableString(pack, "Cost: %known%$ (%known%)");
+        assertTrue(string.hasVariables(), "Variable was not found!");
+        assertEquals("Cost: $1 \\ 5%$ ($1 \\ 5%)", string.getString(PLAYER_ID),
+                "Value with special characters was not inserted as it is!");
+        assertEquals("Cost: %known%$ (%known%)", string.toString(), "Text was not rebuilt from its parts!");
+    }
+
+    @Test
+    public void testUnknownVariableFailsStrict() {
+        assertThrows(InstructionParseException.class, () -> new VariableString(pack, "Hi %unknown%!"),
+                "Unknown variable was accepted in strict mode!");
+    }
+
+    @SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
+    @Test
+    public void testUnknownVariableLenient() {
+        final VariableString string = VariableString.lenient(pack, "Hi %unknown%, %known%!");
+        assertTrue(string.hasUnresolvedVariables(), "Unknown variable was not marked as unresolved!");
+        assertEquals(1, string.getVariables().size(), "Known variable was not created!");
+        assertEquals("Hi " + UNRESOLVED + ", $1 \\ 5%!", string.getString(PLAYER_ID),
+                "Unknown variable was not resolved in the old way!");
+    }
+
+    @Test
+    public void testLenientWithoutPackage() {
+        final VariableString string = VariableString.lenient(null, "Hi %known%!");
+        assertTrue(string.hasUnresolvedVariables(), "Variable without a package was created!");
+    }
+}
@@ -0,0 +1,71 @@
+package pl.betoncraft.betonquest.config;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class MessageCatalogTest {
+
+    private MessageCatalog catalog;
+
+    public MessageCatalogTest() {
+    }
+
+    @Before
+    public void setUp() {
+        final YamlConfiguration messages = new YamlConfiguration();
+        messages.set("en.greeting", "Hello");
+        messages.set("en.only_english", "English only");
+        messages.set("en.placeholders", "&aHi {1}, {2}{3}");
+        messages.set("de.greeting", "Hallo");
+        messages.set("de.only_default", "Nur Standard");
+        messages.set("fr.greeting", "Bonjour");
+        final YamlConfiguration internal = new YamlConfiguration();
+        internal.set("en.internal", "Internal");
+        internal.set("en.greeting", "Internal greeting");
+        catalog = new MessageCatalog(messages, internal, "de");
+    }
+
+    @Test
+    public void testRequestedLanguage() {
+        assertEquals("Bonjour", catalog.getMessage("fr", "greeting", null), "Message in the language was not used!");
+    }
+
+    @Test
+    public void testFallbackToDefaultLanguage() {
+        assertEquals("Nur Standard", catalog.getMessage("fr", "only_default", null),
+                "Missing message was not taken from the default language!");
+    }
+
+    @Test
+    public void testFallbackToEnglish() {
+        assertEquals("English only", catalog.getMessage("fr", "only_english", null),
+                "Message missing in the default language was not taken from English!");
+    }
+
+    @Test
+    public void testFallbackToInternal() {
+        assertEquals("Internal", catalog.getMessage("fr", "internal", null),
+                "Message missing in all languages was not taken from internal messages!");
+    }
+
+    @Test
+    public void testUnknownLanguage() {
+        assertEquals("Hallo", catalog.getMessage("xx", "greeting", null),
+                "Unknown language did not fall back to the default language!");
+    }
+
+    @Test
+    public void testMissingMessage() {
+        assertNull(catalog.getMessage("fr", "missing", null), "Message missing in all fallbacks was found!");
+    }
+
+    @Test
+    public void testPlaceholders() {
+        assertEquals("§aHi Bob, §b{3}", catalog.getMessage("en", "placeholders", new String[]{"Bob", "&b"}),
+                "Placeholders were not replaced!");
+    }
+}
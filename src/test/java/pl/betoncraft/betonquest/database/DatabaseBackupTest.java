@@ -0,0 +1,52 @@
+package pl.betoncraft.betonquest.database;
+
+import org.junit.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class DatabaseBackupTest {
+
+    public DatabaseBackupTest() {
+    }
+
+    private static String[] roundTrip(final String... values) {
+        final StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            line.append(DatabaseBackup.escape(values[i]));
+        }
+        return DatabaseBackup.unescape(line.toString());
+    }
+
+    @Test
+    public void testSpecialCharactersRoundTrip() {
+        final String[] row = {"tab\there", "line\nbreak", "carriage\rreturn", "back\\slash", "trailing\\", "\\t"};
+        assertArrayEquals(row, roundTrip(row), "Values with special characters were changed!");
+    }
+
+    @Test
+    public void testNullRoundTrip() {
+        final String[] row = {null, "", "\\N", "N", null};
+        assertArrayEquals(row, roundTrip(row), "Null, empty and null-like values were not told apart!");
+    }
+
+    @SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
+    @Test
+    public void testSingleValues() {
+        assertArrayEquals(new String[]{null}, roundTrip((String) null), "Single null value was changed!");
+        assertArrayEquals(new String[]{""}, roundTrip(""), "Single empty value was changed!");
+    }
+
+    @SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
+    @Test
+    public void testEscapedLineHasNoSeparators() {
+        final String escaped = DatabaseBackup.escape("a\tb\nc\rd");
+        assertFalse(escaped.indexOf('\t') >= 0 || escaped.indexOf('\n') >= 0 || escaped.indexOf('\r') >= 0,
+                "Escaped value still contains separators!");
+        assertEquals("a\\tb\\nc\\rd", escaped, "Value was not escaped as expected!");
+    }
+}
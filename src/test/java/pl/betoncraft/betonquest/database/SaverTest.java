@@ -0,0 +1,134 @@
+package pl.betoncraft.betonquest.database;
+
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.api.support.membermodification.MemberMatcher;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import pl.betoncraft.betonquest.BetonQuest;
+import pl.betoncraft.betonquest.database.Connector.UpdateType;
+import pl.betoncraft.betonquest.database.Saver.Record;
+import pl.betoncraft.betonquest.utils.LogUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Saver.class, Bukkit.class, LogUtils.class, BetonQuest.class})
+public class SaverTest {
+
+    private static final String PLAYER_ID = "player";
+
+    private Connector connector;
+
+    public SaverTest() {
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        PowerMockito.mockStatic(BetonQuest.class);
+        final BetonQuest betonQuestInstance = Mockito.mock(BetonQuest.class);
+        PowerMockito.suppress(MemberMatcher.methodsDeclaredIn(JavaPlugin.class));
+        PowerMockito.when(BetonQuest.getInstance()).thenReturn(betonQuestInstance);
+        final YamlConfiguration config = new YamlConfiguration();
+        config.set("saver.batch_size", 100);
+        config.set("saver.flush_interval", 0);
+        PowerMockito.when(betonQuestInstance.getConfig()).thenReturn(config);
+        PowerMockito.mockStatic(LogUtils.class);
+        PowerMockito.when(LogUtils.getLogger()).thenReturn(Logger.getGlobal());
+        PowerMockito.mockStatic(Bukkit.class);
+        PowerMockito.when(Bukkit.getPluginManager()).thenReturn(Mockito.mock(PluginManager.class));
+        connector = Mockito.mock(Connector.class);
+        PowerMockito.whenNew(Connector.class).withArguments(true).thenReturn(connector);
+    }
+
+    private static Record tag(final UpdateType type, final String tag) {
+        return new Record(type, new String[]{PLAYER_ID, tag});
+    }
+
+    @Test
+    public void testRemovalOverwritesAddition() {
+        final Record removal = tag(UpdateType.REMOVE_TAGS, "default.started");
+        final List<Record> saved = Saver.coalesce(Arrays.asList(tag(UpdateType.ADD_TAGS, "default.started"), removal));
+        assertEquals(1, saved.size(), "Addition overwritten by a removal was saved!");
+        assertSame(removal, saved.get(0), "Removal was not saved!");
+    }
+
+    @SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
+    @Test
+    public void testAdditionAfterRemovalIsKept() {
+        final Record removal = tag(UpdateType.REMOVE_TAGS, "default.started");
+        final Record addition = tag(UpdateType.ADD_TAGS, "default.started");
+        final List<Record> saved = Saver.coalesce(Arrays.asList(tag(UpdateType.ADD_TAGS, "default.started"),
+                removal, addition));
+        assertEquals(2, saved.size(), "Wrong amount of saved records!");
+        assertSame(removal, saved.get(0), "Removal was not saved before the addition!");
+        assertSame(addition, saved.get(1), "Addition after the removal was not saved!");
+    }
+
+    @Test
+    public void testOtherRowsAreKept() {
+        final List<Record> batch = Arrays.asList(tag(UpdateType.ADD_TAGS, "default.started"),
+                tag(UpdateType.REMOVE_TAGS, "default.finished"),
+                new Record(UpdateType.ADD_TAGS, new String[]{"other", "default.started"}),
+                new Record(UpdateType.REMOVE_GLOBAL_TAGS, new String[]{"default.started"}));
+        assertEquals(batch.size(), Saver.coalesce(batch).size(), "Records of different rows were coalesced!");
+    }
+
+    @SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
+    @Test
+    public void testMultiRowRecordSplitsBatch() {
+        final Record addition = tag(UpdateType.ADD_TAGS, "default.started");
+        final Record deletion = new Record(UpdateType.DELETE_TAGS, new String[]{PLAYER_ID});
+        final Record removal = tag(UpdateType.REMOVE_TAGS, "default.started");
+        final List<Record> saved = Saver.coalesce(Arrays.asList(addition, deletion, removal));
+        assertEquals(3, saved.size(), "Records from different sides of a multi-row record were coalesced!");
+        assertSame(addition, saved.get(0), "Record was moved over a multi-row record!");
+        assertSame(deletion, saved.get(1), "Multi-row record was moved!");
+        assertSame(removal, saved.get(2), "Record was moved over a multi-row record!");
+    }
+
+    @Test
+    public void testRecordsOfSameTypeFollowEachOther() {
+        final Record firstTag = tag(UpdateType.ADD_TAGS, "default.first");
+        final Record point = new Record(UpdateType.ADD_POINTS, new String[]{PLAYER_ID, "default.points", "1"});
+        final Record secondTag = tag(UpdateType.ADD_TAGS, "default.second");
+        final List<Record> saved = Saver.coalesce(Arrays.asList(firstTag, point, secondTag));
+        assertEquals(Arrays.asList(firstTag, secondTag, point), saved, "Records of the same type were not grouped!");
+    }
+
+    @SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
+    @Test
+    public void testFailedBatchIsSavedOneByOne() {
+        final List<Record> batches = new ArrayList<>();
+        Mockito.when(connector.updateSQLBatch(ArgumentMatchers.anyList())).thenAnswer(invocation -> {
+            batches.addAll(invocation.getArgument(0));
+            return false;
+        });
+        final Saver saver = new Saver();
+        saver.start();
+        saver.add(tag(UpdateType.ADD_TAGS, "default.first"));
+        saver.add(tag(UpdateType.ADD_TAGS, "default.second"));
+        assertTrue(saver.end(10_000), "Saver did not finish!");
+
+        for (final Record rec : batches) {
+            Mockito.verify(connector).updateSQL(rec.getType(), rec.getArgs());
+        }
+        assertEquals(2, batches.size(), "Not all records were passed to the batch!");
+        assertEquals(2, saver.getSavedRecords(), "Records saved one by one were not counted!");
+    }
+}
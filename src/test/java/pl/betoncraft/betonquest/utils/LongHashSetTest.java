@@ -0,0 +1,95 @@
+package pl.betoncraft.betonquest.utils;
+
+import org.junit.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LongHashSetTest {
+
+    /**
+     * Enough values to fill many slots next to each other, so they collide
+     * and the set is resized several times.
+     */
+    private static final int MANY = 10_000;
+
+    public LongHashSetTest() {
+    }
+
+    @SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
+    @Test
+    public void testAddContainsRemove() {
+        final LongHashSet set = new LongHashSet();
+        assertTrue(set.add(42), "New value was not added!");
+        assertFalse(set.add(42), "Value was added twice!");
+        assertTrue(set.contains(42), "Added value is missing!");
+        assertFalse(set.contains(43), "Value which was never added is present!");
+        assertEquals(1, set.size(), "Size does not match the amount of values!");
+
+        assertTrue(set.remove(42), "Present value was not removed!");
+        assertFalse(set.remove(42), "Value was removed twice!");
+        assertFalse(set.contains(42), "Removed value is still present!");
+        assertEquals(0, set.size(), "Size does not match the amount of values!");
+    }
+
+    @SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
+    @Test
+    public void testSpecialValues() {
+        final LongHashSet set = new LongHashSet();
+        final long[] values = {0, -1, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 32, 0xFFFFFFFFL};
+        for (final long value : values) {
+            assertTrue(set.add(value), "New value " + value + " was not added!");
+        }
+        assertEquals(values.length, set.size(), "Size does not match the amount of values!");
+        for (final long value : values) {
+            assertTrue(set.contains(value), "Added value " + value + " is missing!");
+            assertTrue(set.remove(value), "Present value " + value + " was not removed!");
+            assertFalse(set.contains(value), "Removed value " + value + " is still present!");
+        }
+        assertEquals(0, set.size(), "Size does not match the amount of values!");
+    }
+
+    @SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
+    @Test
+    public void testCollisionsAndResize() {
+        final LongHashSet set = new LongHashSet();
+        for (long value = 1; value <= MANY; value++) {
+            assertTrue(set.add(value), "New value " + value + " was not added!");
+        }
+        assertEquals(MANY, set.size(), "Size does not match the amount of values after resizing!");
+
+        // removing every other value leaves gaps in the middle of probe sequences
+        for (long value = 1; value <= MANY; value += 2) {
+            assertTrue(set.remove(value), "Present value " + value + " was not removed!");
+        }
+        assertEquals(MANY / 2, set.size(), "Size does not match the amount of values after removing!");
+        for (long value = 1; value <= MANY; value++) {
+            assertEquals(value % 2 == 0, set.contains(value), "Wrong membership of value " + value + "!");
+        }
+    }
+
+    @Test
+    public void testForEach() {
+        final LongHashSet set = new LongHashSet();
+        long expected = 0;
+        for (long value = 0; value < MANY; value++) {
+            set.add(value);
+            expected += value;
+        }
+        final long[] sum = new long[1];
+        set.forEach(value -> sum[0] += value);
+        assertEquals(expected, sum[0], "Not every value was passed to the action exactly once!");
+    }
+
+    @Test
+    public void testClear() {
+        final LongHashSet set = new LongHashSet();
+        for (long value = 0; value < MANY; value++) {
+            set.add(value);
+        }
+        set.clear();
+        assertEquals(0, set.size(), "Set is not empty after clearing!");
+        assertFalse(set.contains(0) || set.contains(1), "Values are still present after clearing!");
+    }
+}